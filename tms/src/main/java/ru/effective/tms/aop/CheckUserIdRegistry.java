@@ -0,0 +1,152 @@
+package ru.effective.tms.aop;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.stereotype.Controller;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import ru.effective.tms.exception.InnerException;
+import ru.effective.tms.model.aop.EntityType;
+import ru.effective.tms.model.entity.security.RoleType;
+import ru.effective.tms.service.CommentService;
+import ru.effective.tms.service.TaskService;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * Registry of precompiled {@link OwnerChecker}
+ * for handler methods with {@link CheckUserIdPrivacy}.
+ * <br>
+ * Checkers of all controller methods are built on startup.
+ * Handler method without id path variable fails startup.
+ * <br>
+ * Owner lookup by {@link EntityType}:
+ * USER - entity id is owner id, no query;
+ * TASK and COMMENT on GET handler - entity is loaded through service
+ * and reused by handler from {@code RequestEntityCache};
+ * TASK and COMMENT on other handlers - author id projection query.
+ */
+@RequiredArgsConstructor
+@Component
+@Slf4j
+public class CheckUserIdRegistry implements SmartInitializingSingleton {
+    /**
+     * Path variable name with entity id.
+     */
+    private static final String ID_VARIABLE = "id";
+    private final Map<Method, OwnerChecker> checkers = new ConcurrentHashMap<>();
+    private final ParameterNameDiscoverer parameterNameDiscoverer =
+            new DefaultParameterNameDiscoverer();
+    /**
+     * Context to search controllers.
+     */
+    private final ApplicationContext applicationContext;
+    /**
+     * Service to search task owner id.
+     */
+    private final TaskService taskService;
+    /**
+     * Service to search comment owner id.
+     */
+    private final CommentService commentService;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (Object controller : applicationContext.getBeansWithAnnotation(Controller.class).values()) {
+            Map<Method, CheckUserIdPrivacy> annotated = MethodIntrospector.selectMethods(
+                    ClassUtils.getUserClass(controller),
+                    (MethodIntrospector.MetadataLookup<CheckUserIdPrivacy>) method ->
+                            AnnotatedElementUtils.findMergedAnnotation(method, CheckUserIdPrivacy.class)
+            );
+            annotated.forEach((method, param) ->
+                    checkers.put(method, compile(method, param)));
+        }
+        log.info("Compiled {} @CheckUserIdPrivacy checkers.", checkers.size());
+    }
+
+    /**
+     * Get checker for handler method.
+     * Method not compiled on startup is compiled on first call.
+     *
+     * @param method handler method with {@link CheckUserIdPrivacy}.
+     * @return checker for method.
+     */
+    public OwnerChecker getChecker(Method method) {
+        OwnerChecker checker = checkers.get(method);
+        if (checker != null) {
+            return checker;
+        }
+        return checkers.computeIfAbsent(method, m -> compile(
+                m, AnnotatedElementUtils.findMergedAnnotation(m, CheckUserIdPrivacy.class)
+        ));
+    }
+
+    private OwnerChecker compile(Method method, CheckUserIdPrivacy param) {
+        EnumSet<RoleType> alwaysAccessRoles = EnumSet.noneOf(RoleType.class);
+        alwaysAccessRoles.addAll(Arrays.asList(param.alwaysAccessRoles()));
+        return new OwnerChecker(
+                findIdArgumentIndex(method),
+                alwaysAccessRoles,
+                ownerIdLookup(param.entityType(), isGetHandler(method))
+        );
+    }
+
+    private UnaryOperator<Long> ownerIdLookup(EntityType entityType,
+                                              boolean handlerLoadsEntity) {
+        return switch (entityType) {
+            case USER -> UnaryOperator.identity();
+            case TASK -> handlerLoadsEntity
+                    ? id -> taskService.findById(id).getAuthor().getId()
+                    : taskService::findAuthorIdById;
+            case COMMENT -> handlerLoadsEntity
+                    ? id -> commentService.findById(id).getAuthor().getId()
+                    : commentService::findAuthorIdById;
+            case NOT_FOUND -> id -> {
+                throw new InnerException("Inner Exception entityType:NOT_FOUND");
+            };
+        };
+    }
+
+    private int findIdArgumentIndex(Method method) {
+        Parameter[] parameters = method.getParameters();
+        String[] parameterNames = parameterNameDiscoverer.getParameterNames(method);
+        for (int i = 0; i < parameters.length; i++) {
+            PathVariable pathVariable = AnnotatedElementUtils
+                    .findMergedAnnotation(parameters[i], PathVariable.class);
+            if (pathVariable == null) {
+                continue;
+            }
+            String name = pathVariable.name().isEmpty() && parameterNames != null
+                    ? parameterNames[i]
+                    : pathVariable.name();
+            if (ID_VARIABLE.equals(name) && Long.class.equals(parameters[i].getType())) {
+                return i;
+            }
+        }
+        throw new IllegalStateException(
+                "@CheckUserIdPrivacy method " + method
+                        + " has no Long path variable '" + ID_VARIABLE + "'.");
+    }
+
+    private static boolean isGetHandler(Method method) {
+        RequestMapping mapping =
+                AnnotatedElementUtils.findMergedAnnotation(method, RequestMapping.class);
+        return mapping != null
+                && Arrays.asList(mapping.method()).contains(RequestMethod.GET);
+    }
+}
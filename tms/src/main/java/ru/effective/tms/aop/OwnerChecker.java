@@ -0,0 +1,83 @@
+package ru.effective.tms.aop;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import ru.effective.tms.exception.AccessException;
+import ru.effective.tms.model.entity.security.AppUserDetails;
+import ru.effective.tms.model.entity.security.RoleType;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * Precompiled {@link CheckUserIdPrivacy} check for one handler method.
+ * <br>
+ * Id argument index, always access roles and owner lookup
+ * are resolved once by {@link CheckUserIdRegistry}.
+ * Check reads handler argument and principal only.
+ */
+public final class OwnerChecker {
+    /**
+     * Role by authority name.
+     */
+    private static final Map<String, RoleType> ROLES_BY_AUTHORITY =
+            Arrays.stream(RoleType.values())
+                    .collect(Collectors.toUnmodifiableMap(Enum::name, Function.identity()));
+    /**
+     * Index of handler argument with entity id.
+     */
+    private final int idArgumentIndex;
+    /**
+     * Roles with access to any entity.
+     */
+    private final EnumSet<RoleType> alwaysAccessRoles;
+    /**
+     * Owner user id by entity id.
+     */
+    private final UnaryOperator<Long> ownerIdLookup;
+
+    public OwnerChecker(int idArgumentIndex,
+                        EnumSet<RoleType> alwaysAccessRoles,
+                        UnaryOperator<Long> ownerIdLookup) {
+        this.idArgumentIndex = idArgumentIndex;
+        this.alwaysAccessRoles = alwaysAccessRoles;
+        this.ownerIdLookup = ownerIdLookup;
+    }
+
+    /**
+     * Check that current user is owner of entity
+     * or has any of always access roles.
+     *
+     * @param args           handler method arguments.
+     * @param authentication current authentication.
+     * @throws AccessException if current user is not owner.
+     */
+    public void check(Object[] args, Authentication authentication) {
+        if (hasAnyAlwaysAccessRole(authentication)) {
+            return;
+        }
+        Long ownerUserId = ownerIdLookup.apply((Long) args[idArgumentIndex]);
+        Long currentUserId =
+                ((AppUserDetails) authentication.getPrincipal()).getUserId();
+        if (!currentUserId.equals(ownerUserId)) {
+            throw new AccessException("This is not accessible to the current user.");
+        }
+    }
+
+    private boolean hasAnyAlwaysAccessRole(Authentication authentication) {
+        if (alwaysAccessRoles.isEmpty()) {
+            return false;
+        }
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            RoleType role = ROLES_BY_AUTHORITY.get(authority.getAuthority());
+            if (role != null && alwaysAccessRoles.contains(role)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
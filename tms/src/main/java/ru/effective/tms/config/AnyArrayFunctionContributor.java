@@ -0,0 +1,29 @@
+package ru.effective.tms.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Hibernate function for multi-value filters with single array parameter:
+ * <br>
+ * {@value #ANY_OF}(column, array) - column = any(array).
+ * <br>
+ * Statement text does not depend on number of values,
+ * unlike IN list with parameter per value.
+ * Registered in META-INF/services.
+ */
+public class AnyArrayFunctionContributor implements FunctionContributor {
+    public static final String ANY_OF = "any_of";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        functionContributions.getFunctionRegistry()
+                .patternDescriptorBuilder(ANY_OF, "(?1 = any(?2))")
+                .setExactArgumentCount(2)
+                .setInvariantType(functionContributions.getTypeConfiguration()
+                        .getBasicTypeRegistry()
+                        .resolve(StandardBasicTypes.BOOLEAN))
+                .register();
+    }
+}
@@ -1,22 +1,30 @@
 package ru.effective.tms.config;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.PropertySource;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
-import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
-import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import ru.effective.tms.service.impl.security.EmailAuthenticationProvider;
+
+import java.util.Map;
 
 @RequiredArgsConstructor
 @ComponentScan("ru.effective.tms")
 @PropertySource("classpath:config/application.yml")
+@EnableScheduling
 @Configuration
 public class ApplicationConfig {
     /**
@@ -25,6 +33,20 @@ public class ApplicationConfig {
      * @see #authenticationProvider()
      */
     private final UserDetailsService userDetailsService;
+    /**
+     * Password encoder id for new hashes: bcrypt, argon2 or pbkdf2.
+     *
+     * @see #passwordEncoder()
+     */
+    @Value("${app.security.password.encoder:bcrypt}")
+    private String passwordEncoderId;
+    /**
+     * BCrypt strength (log rounds).
+     *
+     * @see #passwordEncoder()
+     */
+    @Value("${app.security.password.bcrypt-strength:10}")
+    private int bcryptStrength;
     /**
      * Bean {@link DaoAuthenticationProvider}
      * for {@link AuthenticationManager} configure.
@@ -43,24 +65,46 @@ public class ApplicationConfig {
 
     /**
      * Bean {@link PasswordEncoder} for security configure.
+     * <br>
+     * New hashes are prefixed with encoder id, for example {bcrypt}.
+     * Hashes without prefix are checked as BCrypt.
+     * Hashes of other encoder or weaker BCrypt strength
+     * are rehashed on sign in.
      *
-     * @return default {@link BCryptPasswordEncoder}
+     * @return {@link DelegatingPasswordEncoder}
+     * with {@link #passwordEncoderId} for new hashes.
      * @see #authenticationProvider()
+     * @see EmailAuthenticationProvider
      */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        Map<String, PasswordEncoder> encoders = Map.of(
+                "bcrypt", bcrypt,
+                "argon2", Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8(),
+                "pbkdf2", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8()
+        );
+        DelegatingPasswordEncoder encoder =
+                new DelegatingPasswordEncoder(passwordEncoderId, encoders);
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
     }
+
     /**
      * Bean {@link AuthenticationManager} for authentication configure.
+     * Sign in by email is checked by {@link EmailAuthenticationProvider},
+     * username and password by {@link #authenticationProvider()}.
      *
-     * @param authenticationConfiguration {@link AuthenticationConfiguration} to set authentication.
+     * @param emailAuthenticationProvider provider for sign in by email.
      * @return {@link AuthenticationManager} with updated configuration.
-     * @throws Exception if {@link HttpSecurity} throws exception.
      * @see SecurityConfiguration
      */
     @Bean
-    public AuthenticationManager authenticationManager(AuthenticationConfiguration authenticationConfiguration) throws Exception {
-        return authenticationConfiguration.getAuthenticationManager();
+    public AuthenticationManager authenticationManager(
+            EmailAuthenticationProvider emailAuthenticationProvider) {
+        return new ProviderManager(
+                emailAuthenticationProvider,
+                authenticationProvider()
+        );
     }
 }
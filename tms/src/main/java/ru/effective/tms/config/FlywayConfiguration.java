@@ -0,0 +1,38 @@
+package ru.effective.tms.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class FlywayConfiguration {
+    /**
+     * Schema version created by Hibernate DDL before migrations.
+     */
+    private static final String HIBERNATE_SCHEMA_VERSION = "1";
+    /**
+     * Baseline existing schema without migration history.
+     * Off by default, enabled once for database created by Hibernate DDL.
+     *
+     * @see #flywayConfigurationCustomizer()
+     */
+    @Value("${spring.flyway.baseline-on-migrate:false}")
+    private boolean baselineOnMigrate;
+
+    /**
+     * Bean {@link FlywayConfigurationCustomizer} for schema migrations.
+     * <br>
+     * With baseline-on-migrate database created by Hibernate DDL
+     * is baselined on V1, later migrations are applied on top of it.
+     * Without it non-empty schema without history fails migration.
+     *
+     * @return customizer with baseline on {@value #HIBERNATE_SCHEMA_VERSION}.
+     */
+    @Bean
+    public FlywayConfigurationCustomizer flywayConfigurationCustomizer() {
+        return configuration -> configuration
+                .baselineOnMigrate(baselineOnMigrate)
+                .baselineVersion(HIBERNATE_SCHEMA_VERSION);
+    }
+}
@@ -0,0 +1,36 @@
+package ru.effective.tms.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JpaBatchConfiguration {
+    /**
+     * Statements sent to database in one JDBC batch.
+     *
+     * @see #jdbcBatchCustomizer()
+     */
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int jdbcBatchSize;
+
+    /**
+     * Bean {@link HibernatePropertiesCustomizer} for JDBC batching.
+     * <br>
+     * Inserts and updates are ordered by entity,
+     * so statements of one table go to one batch.
+     * Values set in spring.jpa.properties are not overridden.
+     *
+     * @return customizer with batch size and statement ordering.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer jdbcBatchCustomizer() {
+        return properties -> {
+            properties.putIfAbsent(AvailableSettings.STATEMENT_BATCH_SIZE, jdbcBatchSize);
+            properties.putIfAbsent(AvailableSettings.ORDER_INSERTS, true);
+            properties.putIfAbsent(AvailableSettings.ORDER_UPDATES, true);
+        };
+    }
+}
@@ -0,0 +1,31 @@
+package ru.effective.tms.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import ru.effective.tms.service.impl.security.RefreshTokenPresenceCache;
+
+@Configuration
+public class RedisConfiguration {
+    /**
+     * Bean {@link RedisMessageListenerContainer} for Redis pub/sub.
+     *
+     * @param connectionFactory          Redis connection factory.
+     * @param refreshTokenPresenceCache listener for refresh token invalidation.
+     * @return {@link RedisMessageListenerContainer} with registered listeners.
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            RefreshTokenPresenceCache refreshTokenPresenceCache) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+                refreshTokenPresenceCache,
+                new ChannelTopic(RefreshTokenPresenceCache.INVALIDATION_CHANNEL)
+        );
+        return container;
+    }
+}
@@ -1,5 +1,6 @@
 package ru.effective.tms.config;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -23,7 +24,8 @@ public class SecurityConfiguration {
     /**
      * Bean {@link SecurityFilterChain} initiation
      * to implement authorization and authentication.<br>
-     * Adds the Security headers to the response.
+     * Adds the Security headers to the response.<br>
+     * Async dispatch of authorized request (task stream) is permitted.
      *
      * @param http {@link HttpSecurity} for authorization settings.
      * @return {@link SecurityFilterChain} with updated configuration.
@@ -32,6 +34,7 @@ public class SecurityConfiguration {
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http.authorizeHttpRequests((auth) -> auth
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/error").permitAll()
                         .requestMatchers("/swagger-ui/**").permitAll()
                         .requestMatchers("/v3/api-docs/**").permitAll()
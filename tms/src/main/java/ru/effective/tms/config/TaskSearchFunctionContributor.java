@@ -0,0 +1,94 @@
+package ru.effective.tms.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.query.ReturnableType;
+import org.hibernate.query.sqm.function.AbstractSqmSelfRenderingFunctionDescriptor;
+import org.hibernate.query.sqm.produce.function.StandardArgumentsValidators;
+import org.hibernate.query.sqm.produce.function.StandardFunctionReturnTypeResolvers;
+import org.hibernate.sql.ast.SqlAstTranslator;
+import org.hibernate.sql.ast.spi.SqlAppender;
+import org.hibernate.sql.ast.tree.SqlAstNode;
+import org.hibernate.sql.ast.tree.expression.ColumnReference;
+import org.hibernate.sql.ast.tree.expression.Expression;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.StandardBasicTypes;
+
+import java.util.List;
+
+/**
+ * Hibernate functions for full-text search on tasks.search_vector column.
+ * <br>
+ * Column is generated by database and not mapped in {@code Task},
+ * so functions take any {@code Task} column to find table alias:
+ * <br>
+ * {@value #MATCH}(task.id, query) - search_vector @@ to_tsquery(query);
+ * <br>
+ * {@value #RANK}(task.id, query) - ts_rank(search_vector, to_tsquery(query)).
+ * <br>
+ * Registered in META-INF/services.
+ */
+public class TaskSearchFunctionContributor implements FunctionContributor {
+    public static final String MATCH = "task_search_match";
+    public static final String RANK = "task_search_rank";
+    private static final String SEARCH_VECTOR = "search_vector";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        var types = functionContributions.getTypeConfiguration().getBasicTypeRegistry();
+        functionContributions.getFunctionRegistry().register(MATCH,
+                new SearchVectorFunction(MATCH, types.resolve(StandardBasicTypes.BOOLEAN),
+                        "", " @@ to_tsquery('simple', ", ")")
+        );
+        functionContributions.getFunctionRegistry().register(RANK,
+                new SearchVectorFunction(RANK, types.resolve(StandardBasicTypes.FLOAT),
+                        "ts_rank(", ", to_tsquery('simple', ", "))")
+        );
+    }
+
+    /**
+     * Function rendered as prefix, search_vector of argument table,
+     * infix, tsquery argument and suffix.
+     */
+    private static final class SearchVectorFunction
+            extends AbstractSqmSelfRenderingFunctionDescriptor {
+        private final String prefix;
+        private final String infix;
+        private final String suffix;
+
+        SearchVectorFunction(String name,
+                             BasicType<?> type,
+                             String prefix,
+                             String infix,
+                             String suffix) {
+            super(name,
+                    StandardArgumentsValidators.exactly(2),
+                    StandardFunctionReturnTypeResolvers.invariant(type),
+                    null);
+            this.prefix = prefix;
+            this.infix = infix;
+            this.suffix = suffix;
+        }
+
+        @Override
+        public void render(SqlAppender sqlAppender,
+                           List<? extends SqlAstNode> arguments,
+                           ReturnableType<?> returnType,
+                           SqlAstTranslator<?> walker) {
+            ColumnReference column = ((Expression) arguments.get(0)).getColumnReference();
+            if (column == null) {
+                throw new IllegalArgumentException(
+                        getName() + " first argument must be task column.");
+            }
+            sqlAppender.appendSql(prefix);
+            if (column.getQualifier() != null) {
+                sqlAppender.appendSql(column.getQualifier());
+                sqlAppender.appendSql('.');
+            }
+            sqlAppender.appendSql(SEARCH_VECTOR);
+            sqlAppender.appendSql(infix);
+            arguments.get(1).accept(walker);
+            sqlAppender.appendSql(suffix);
+        }
+    }
+}
@@ -11,11 +11,14 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.effective.tms.aop.CheckUserIdPrivacy;
 import ru.effective.tms.mapper.CommentMapper;
 import ru.effective.tms.model.aop.EntityType;
+import ru.effective.tms.model.dto.PageParams;
 import ru.effective.tms.model.dto.comment.CommentListResponse;
 import ru.effective.tms.model.dto.comment.CommentRequest;
 import ru.effective.tms.model.dto.comment.CommentResponse;
@@ -33,8 +36,9 @@ public class CommentController {
     private final CommentMapper commentMapper;
 
     /**
-     * Get all comments.
+     * Get page of comments.
      *
+     * @param pageParams {@link PageParams} page and opt-in total count.
      * @return {@link CommentListResponse} Comment List Response.
      */
     @Operation(
@@ -48,10 +52,14 @@ public class CommentController {
     })
     @GetMapping()
     @PreAuthorize("hasAnyRole('USER','ADMIN')")
-    public ResponseEntity<CommentListResponse> getAll() {
+    public ResponseEntity<CommentListResponse> getAll(@Valid PageParams pageParams) {
         return ResponseEntity.status(HttpStatus.OK)
-                .body(commentMapper.modelListToModelListResponse(
-                        commentService.findAll())
+                .body(commentMapper.sliceToModelListResponse(
+                        commentService.findAll(
+                                pageParams.getPageNumber(),
+                                pageParams.getPageSize()
+                        ),
+                        pageParams.isWithTotal() ? commentService.count() : null)
                 );
     }
 
@@ -91,7 +99,10 @@ public class CommentController {
     /**
      * Create comment by specifying its id and task id.
      *
+     * Comment author is current user.
+     *
      * @param commentRequest {@link CommentRequest} to create comment.
+     * @param principal      current user.
      * @return {@link CommentResponse} by created comment.
      */
     @Operation(
@@ -107,12 +118,14 @@ public class CommentController {
     @PostMapping()
     @PreAuthorize("hasAnyRole('USER','ADMIN')")
     public ResponseEntity<CommentResponse> create(
-            @RequestBody @Valid CommentRequest commentRequest) {
+            @RequestBody @Valid CommentRequest commentRequest,
+            @AuthenticationPrincipal UserDetails principal) {
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(commentMapper.modelToResponse(
                                 commentService.save(
                                         commentMapper.requestToModel(commentRequest)
-                                )
+                                ),
+                                principal.getUsername()
                         )
                 );
     }
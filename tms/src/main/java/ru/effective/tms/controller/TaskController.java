@@ -10,8 +10,11 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -20,19 +23,31 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.effective.tms.aop.CheckUserIdPrivacy;
+import ru.effective.tms.mapper.CommentMapper;
 import ru.effective.tms.mapper.TaskMapper;
 import ru.effective.tms.model.aop.EntityType;
+import ru.effective.tms.model.dto.CursorParams;
+import ru.effective.tms.model.dto.PageParams;
 import ru.effective.tms.model.dto.TaskFilter;
+import ru.effective.tms.model.dto.comment.CommentListResponse;
 import ru.effective.tms.model.dto.comment.CommentResponse;
+import ru.effective.tms.model.dto.task.TaskBatchRequest;
+import ru.effective.tms.model.dto.task.TaskBulkUpdateRequest;
+import ru.effective.tms.model.dto.task.TaskBulkUpdateResponse;
 import ru.effective.tms.model.dto.task.TaskListResponse;
 import ru.effective.tms.model.dto.task.TaskRequest;
 import ru.effective.tms.model.dto.task.TaskResponse;
 import ru.effective.tms.model.dto.task.TaskResponseWith;
+import ru.effective.tms.model.entity.security.AppUserDetails;
 import ru.effective.tms.model.entity.security.RoleType;
 import ru.effective.tms.model.enums.Priority;
 import ru.effective.tms.model.enums.Status;
+import ru.effective.tms.service.CommentService;
+import ru.effective.tms.service.TaskEventService;
 import ru.effective.tms.service.TaskService;
 
 @Tag(name = "TaskController",
@@ -45,11 +60,15 @@ import ru.effective.tms.service.TaskService;
 public class TaskController {
     private final TaskService taskService;
     private final TaskMapper taskMapper;
+    private final CommentService commentService;
+    private final CommentMapper commentMapper;
+    private final TaskEventService taskEventService;
 
     /**
-     * Get all tasks.
+     * Get page of tasks.
      * Only with admin access.
      *
+     * @param pageParams {@link PageParams} page and opt-in total count.
      * @return {@link TaskListResponse} Task List Response.
      */
     @Operation(
@@ -65,22 +84,31 @@ public class TaskController {
     })
     @GetMapping()
     @PreAuthorize("hasAnyRole('ADMIN')")
-    public ResponseEntity<TaskListResponse> getAll() {
+    public ResponseEntity<TaskListResponse> getAll(@Valid PageParams pageParams) {
         return ResponseEntity.status(HttpStatus.OK)
-                .body(taskMapper
-                        .modelListToModelListResponse(taskService.findAll())
+                .body(taskMapper.responseSliceToListResponse(
+                        taskService.findAllResponses(
+                                pageParams.getPageNumber(),
+                                pageParams.getPageSize()
+                        ),
+                        pageParams.isWithTotal() ? taskService.count() : null)
                 );
     }
 
     /**
      * Get all tasks by {@link TaskFilter}.
      * Only with admin access.
+     * <br>
+     * Without pageNumber keyset pagination is used:
+     * response contains nextCursor for the next page request.
      *
      * @return {@link TaskListResponse} Task List Response by filter.
      */
     @Operation(
             summary = "Get tasks by filter.",
-            description = "Only with admin access.",
+            description = "Only with admin access. " +
+                    "Without pageNumber keyset pagination is used, " +
+                    "pass nextCursor from response as cursor for the next page.",
             tags = {"task", "get", "filter"})
     @ApiResponses({
             @ApiResponse(responseCode = "200", content = {
@@ -94,8 +122,15 @@ public class TaskController {
     public ResponseEntity<TaskListResponse> getAllFilterBy(
             @Valid TaskFilter filter) {
         log.info("try to get all hotels with filter");
+        if (filter.getPageNumber() == null) {
+            return ResponseEntity.status(HttpStatus.OK)
+                    .body(taskMapper.cursorPageToModelListResponse(
+                                    taskService.filterByCursor(filter)
+                            )
+                    );
+        }
         return ResponseEntity.status(HttpStatus.OK)
-                .body(taskMapper.modelListToModelListResponse(
+                .body(taskMapper.responseListToListResponse(
                                 taskService.filterBy(filter)
                         )
                 );
@@ -105,7 +140,7 @@ public class TaskController {
      * Get a Task object by specifying its id.
      * The response is Task object with
      * id, title, description, currentStatus, currentPriority,
-     * authorId, list performerIds, list comments.
+     * authorId, list performerIds, first page of comments and comments count.
      *
      * @param id the id of the task to retrieve.
      * @return {@link TaskResponseWith} with searched id.
@@ -115,7 +150,7 @@ public class TaskController {
             description = "Get a Task object by specifying its id. " +
                     "The response is Task object with " +
                     "id, title, description, currentStatus, currentPriority," +
-                    "authorId, list performerIds, list comments.",
+                    "authorId, list performerIds, first page of comments and comments count.",
             tags = {"task", "get"})
     @ApiResponses({
             @ApiResponse(responseCode = "200", content = {
@@ -133,11 +168,97 @@ public class TaskController {
             @PathVariable("id") Long id) {
         return ResponseEntity.status(HttpStatus.OK)
                 .body(taskMapper.modelToResponseWith(
-                                taskService.findById(id)
+                                taskService.findById(id),
+                                commentService.findByTask(id, null, null),
+                                commentService.countByTask(id)
+                        )
+                );
+    }
+
+    /**
+     * Get keyset page of task comments ordered by creation time.
+     * Task existence is checked with exists query, without task loading.
+     *
+     * @param id           task id.
+     * @param cursorParams {@link CursorParams} page size and cursor from previous page.
+     * @return {@link CommentListResponse} with next page cursor.
+     */
+    @Operation(
+            summary = "Get task comments.",
+            description = "Keyset page of task comments ordered by creation time. " +
+                    "Next page is requested with nextCursor from response.",
+            tags = {"task", "get"})
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", content = {
+                    @Content(schema = @Schema(implementation = CommentListResponse.class))
+            }),
+            @ApiResponse(responseCode = "400"),
+            @ApiResponse(responseCode = "401"),
+            @ApiResponse(responseCode = "403")
+    })
+    @GetMapping(path = "/{id}/comments")
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    @CheckUserIdPrivacy(entityType = EntityType.TASK,
+            alwaysAccessRoles = RoleType.ROLE_ADMIN)
+    public ResponseEntity<CommentListResponse> getComments(
+            @PathVariable("id") Long id,
+            @Valid CursorParams cursorParams) {
+        taskService.existsById(id);
+        return ResponseEntity.status(HttpStatus.OK)
+                .body(commentMapper.cursorPageToModelListResponse(
+                                commentService.findByTask(id,
+                                        cursorParams.getCursor(),
+                                        cursorParams.getPageSize())
                         )
                 );
     }
 
+    /**
+     * Subscribe to task changes with Server-Sent Events.
+     * Events are sent after commit: task created, updated,
+     * status changed and comment added.
+     * <br>
+     * Admin subscribes with any filter. User gets events of own tasks only:
+     * authorId or performerId should be user id,
+     * without filter stream is bound to tasks performed by user.
+     *
+     * @param authorId       only tasks of this author, any author if null.
+     * @param performerId    only tasks with this performer, any performer if null.
+     * @param authentication current user.
+     * @return {@link SseEmitter} with task events.
+     * @throws AccessDeniedException if user filters by other user.
+     */
+    @Operation(
+            summary = "Subscribe to task events.",
+            description = "Server-Sent Events stream of task changes " +
+                    "filtered by author and performer. " +
+                    "User subscribes to own tasks only.",
+            tags = {"task", "get"})
+    @ApiResponses({
+            @ApiResponse(responseCode = "200"),
+            @ApiResponse(responseCode = "401"),
+            @ApiResponse(responseCode = "403")
+    })
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public SseEmitter stream(
+            @RequestParam(name = "authorId", required = false) Long authorId,
+            @RequestParam(name = "performerId", required = false) Long performerId,
+            Authentication authentication) {
+        Long ownerId = ownerIdOf(authentication);
+        if (ownerId == null) {
+            return taskEventService.subscribe(authorId, performerId);
+        }
+        if (authorId == null && performerId == null) {
+            return taskEventService.subscribe(null, ownerId);
+        }
+        if (!ownerId.equals(authorId) && !ownerId.equals(performerId)) {
+            throw new AccessDeniedException(
+                    "Task events of other users are not accessible.");
+        }
+        return taskEventService.subscribe(authorId, performerId);
+    }
+
     /**
      * Create task by specifying its id and task id.
      * Only with admin access.
@@ -169,6 +290,39 @@ public class TaskController {
                 );
     }
 
+    /**
+     * Create tasks in one transaction.
+     * Only with admin access.
+     *
+     * @param batchRequest {@link TaskBatchRequest} with tasks to create.
+     * @return {@link TaskListResponse} with created tasks.
+     */
+    @Operation(
+            summary = "Create tasks in one transaction.",
+            description = "Only with admin access. Up to "
+                    + TaskBatchRequest.MAX_TASKS + " tasks.",
+            tags = {"task", "post"})
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", content = {
+                    @Content(schema = @Schema(implementation = TaskListResponse.class))
+            }),
+            @ApiResponse(responseCode = "400"),
+            @ApiResponse(responseCode = "401"),
+            @ApiResponse(responseCode = "403")
+    })
+    @PostMapping(path = "/batch")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<TaskListResponse> createAll(
+            @RequestBody @Valid TaskBatchRequest batchRequest) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(taskMapper.modelListToModelListResponse(
+                                taskService.saveAll(
+                                        taskMapper.requestListToModelList(batchRequest.tasks())
+                                )
+                        )
+                );
+    }
+
     /**
      * Update task by specifying its id.
      * Only with admin access.
@@ -271,6 +425,56 @@ public class TaskController {
                 );
     }
 
+    /**
+     * Change status and priority of tasks by ids or filter.
+     * Priority only with admin access,
+     * user changes status of own tasks only.
+     *
+     * @param request        tasks and new values.
+     * @param authentication current user.
+     * @return {@link TaskBulkUpdateResponse} with number of updated tasks.
+     */
+    @Operation(
+            summary = "Change status and priority of tasks.",
+            description = "By task ids or filter with one update. "
+                    + "Priority only with admin access.",
+            tags = {"task", "put"})
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", content = {
+                    @Content(schema = @Schema(implementation = TaskBulkUpdateResponse.class))
+            }),
+            @ApiResponse(responseCode = "400"),
+            @ApiResponse(responseCode = "401"),
+            @ApiResponse(responseCode = "403")
+    })
+    @PutMapping(path = "/bulk")
+    @PreAuthorize("hasRole('ADMIN') "
+            + "or (hasRole('USER') and #request.currentPriority() == null)")
+    public ResponseEntity<TaskBulkUpdateResponse> updateAll(
+            @RequestBody @Valid TaskBulkUpdateRequest request,
+            Authentication authentication) {
+        return ResponseEntity.status(HttpStatus.OK)
+                .body(new TaskBulkUpdateResponse(
+                                taskService.updateAll(request, ownerIdOf(authentication))
+                        )
+                );
+    }
+
+    /**
+     * Owner restriction for bulk update and task stream.
+     *
+     * @param authentication current user.
+     * @return null for admin, otherwise current user id.
+     */
+    private static Long ownerIdOf(Authentication authentication) {
+        boolean isAdmin = authentication.getAuthorities().stream()
+                .anyMatch(authority -> RoleType.ROLE_ADMIN.name()
+                        .equals(authority.getAuthority()));
+        return isAdmin
+                ? null
+                : ((AppUserDetails) authentication.getPrincipal()).getUserId();
+    }
+
     /**
      * Add New Performer to the task
      * by specifying its id and new performer id.
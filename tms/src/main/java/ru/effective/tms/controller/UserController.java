@@ -15,6 +15,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -23,7 +24,9 @@ import org.springframework.web.bind.annotation.RestController;
 import ru.effective.tms.aop.CheckUserIdPrivacy;
 import ru.effective.tms.mapper.UserMapper;
 import ru.effective.tms.model.aop.EntityType;
+import ru.effective.tms.model.dto.PageParams;
 import ru.effective.tms.model.dto.user.UserListResponse;
+import ru.effective.tms.model.dto.user.UserPatchRequest;
 import ru.effective.tms.model.dto.user.UserRequest;
 import ru.effective.tms.model.dto.user.UserResponse;
 import ru.effective.tms.model.entity.security.RoleType;
@@ -40,9 +43,10 @@ public class UserController {
     private final UserMapper userMapper;
 
     /**
-     * Get all users.
+     * Get page of users.
      * Only with admin access.
      *
+     * @param pageParams {@link PageParams} page and opt-in total count.
      * @return {@link UserListResponse} User List Response.
      */
     @Operation(
@@ -58,10 +62,14 @@ public class UserController {
     })
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping()
-    public ResponseEntity<UserListResponse> getAll() {
+    public ResponseEntity<UserListResponse> getAll(@Valid PageParams pageParams) {
         return ResponseEntity.status(HttpStatus.OK)
-                .body(userMapper.modelListToModelListResponse(
-                        userService.findAll())
+                .body(userMapper.sliceToModelListResponse(
+                        userService.findAll(
+                                pageParams.getPageNumber(),
+                                pageParams.getPageSize()
+                        ),
+                        pageParams.isWithTotal() ? userService.count() : null)
                 );
     }
 
@@ -142,6 +150,46 @@ public class UserController {
                 );
     }
 
+    /**
+     * Partial update user by specifying its id and {@link UserPatchRequest}.
+     * Only fields with value are changed,
+     * password is hashed only if new password is sent.
+     *
+     * @param id           user id to update user.
+     * @param modelRequest {@link UserPatchRequest} with changed fields.
+     * @return {@link ResponseEntity} with {@link HttpStatus#OK}
+     * and {@link UserResponse} by updated user.
+     */
+    @Operation(
+            summary = "Partial update user by specifying its id.",
+            description = "only for the same user or with admin access.",
+            tags = {"user", "patch"})
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", content = {
+                    @Content(schema = @Schema(implementation = UserResponse.class))
+            }),
+            @ApiResponse(responseCode = "400"),
+            @ApiResponse(responseCode = "401"),
+            @ApiResponse(responseCode = "403")
+    })
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    @CheckUserIdPrivacy(entityType = EntityType.USER,
+            alwaysAccessRoles = RoleType.ROLE_ADMIN)
+    @PatchMapping(path = "/{id}")
+    public ResponseEntity<UserResponse> patch(
+            @PathVariable("id") Long id,
+            @RequestBody @Valid UserPatchRequest modelRequest
+    ) {
+        return ResponseEntity.status(HttpStatus.OK)
+                .body(userMapper.modelToResponse(
+                                userService.update(
+                                        id,
+                                        userMapper.patchRequestToModel(modelRequest)
+                                )
+                        )
+                );
+    }
+
     /**
      * Delete user by specifying its id.
      * Only with admin access.
@@ -15,7 +15,9 @@ import org.springframework.web.context.request.WebRequest;
 import ru.effective.tms.exception.AccessException;
 import ru.effective.tms.exception.AlreadyExitsException;
 import ru.effective.tms.exception.EntityNotFoundException;
+import ru.effective.tms.exception.IncorrectCursorException;
 import ru.effective.tms.exception.InnerException;
+import ru.effective.tms.exception.security.LoginThrottledException;
 import ru.effective.tms.exception.security.RefreshTokenException;
 
 import java.util.List;
@@ -123,6 +125,18 @@ public class ExceptionHandlerController {
         return buildResponse(HttpStatus.FORBIDDEN, ex, webRequest);
     }
 
+    /**
+     * ExceptionHandler for {@link LoginThrottledException}.
+     *
+     * @param ex exception type of {@link LoginThrottledException}.
+     * @return {@link ResponseEntity} with {@link ErrorResponse}.
+     */
+    @ExceptionHandler(LoginThrottledException.class)
+    public ResponseEntity<ErrorResponseBody> loginThrottledHandler(
+            LoginThrottledException ex, WebRequest webRequest) {
+        return buildResponse(HttpStatus.SERVICE_UNAVAILABLE, ex, webRequest);
+    }
+
     /**
      * ExceptionHandler for {@link AlreadyExitsException}.
      * <br>
@@ -151,6 +165,18 @@ public class ExceptionHandlerController {
         return buildResponse(HttpStatus.BAD_REQUEST, ex, webRequest);
     }
 
+    /**
+     * ExceptionHandler for {@link IncorrectCursorException}.
+     *
+     * @param ex exception type of {@link IncorrectCursorException}.
+     * @return {@link ResponseEntity} with {@link ErrorResponse}.
+     */
+    @ExceptionHandler(IncorrectCursorException.class)
+    public ResponseEntity<ErrorResponseBody> incorrectCursorHandler(
+            IncorrectCursorException ex, WebRequest webRequest) {
+        return buildResponse(HttpStatus.BAD_REQUEST, ex, webRequest);
+    }
+
     /**
      * ExceptionHandler for {@link AccessDeniedException}.
      * <br>
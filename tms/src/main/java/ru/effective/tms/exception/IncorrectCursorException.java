@@ -0,0 +1,16 @@
+package ru.effective.tms.exception;
+
+/**
+ * Exception to handle incorrect pagination cursor.
+ */
+public class IncorrectCursorException extends RuntimeException {
+    /**
+     * Create new Object with message.
+     *
+     * @param message exception message.
+     * @see RuntimeException#RuntimeException(String)
+     */
+    public IncorrectCursorException(String message) {
+        super(message);
+    }
+}
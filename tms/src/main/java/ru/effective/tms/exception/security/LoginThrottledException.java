@@ -0,0 +1,10 @@
+package ru.effective.tms.exception.security;
+
+/**
+ * Exception for sign in rejected because password hashing is overloaded.
+ */
+public class LoginThrottledException extends RuntimeException {
+    public LoginThrottledException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,50 @@
+package ru.effective.tms.jwt;
+
+import io.jsonwebtoken.Claims;
+import ru.effective.tms.model.enums.JwtFailureReason;
+
+/**
+ * Result of single jwt token parsing.
+ * Contains claims for valid token or failure reason otherwise.
+ *
+ * @param claims        parsed token claims, null if token is invalid.
+ * @param failureReason reason of token rejection, null if token is valid.
+ */
+public record JwtParseResult(
+        Claims claims,
+        JwtFailureReason failureReason
+) {
+    /**
+     * Create result for valid token.
+     *
+     * @param claims parsed token claims.
+     * @return valid {@link JwtParseResult}.
+     */
+    public static JwtParseResult valid(Claims claims) {
+        return new JwtParseResult(claims, null);
+    }
+
+    /**
+     * Create result for rejected token.
+     *
+     * @param failureReason reason of token rejection.
+     * @return invalid {@link JwtParseResult}.
+     */
+    public static JwtParseResult invalid(JwtFailureReason failureReason) {
+        return new JwtParseResult(null, failureReason);
+    }
+
+    /**
+     * @return true if token is valid.
+     */
+    public boolean isValid() {
+        return failureReason == null;
+    }
+
+    /**
+     * @return token subject (User username) or null if token is invalid.
+     */
+    public String getUsername() {
+        return claims == null ? null : claims.getSubject();
+    }
+}
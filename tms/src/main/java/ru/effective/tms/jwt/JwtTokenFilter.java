@@ -28,6 +28,7 @@ public class JwtTokenFilter extends OncePerRequestFilter {
     private final JwtUtils jwtUtils;
     /**
      * To load user by username from {@link AppUserDetails}.
+     * Not used for stateless principal tokens.
      */
     private final UserDetailsService userDetailsService;
 
@@ -53,11 +54,21 @@ public class JwtTokenFilter extends OncePerRequestFilter {
         }
         try {
             String jwtToken = getToken(request);
-            if (jwtToken != null && jwtUtils.validation(jwtToken)) {
-                String username = jwtUtils.getUsernameFromJwtToken(jwtToken);
+            JwtParseResult parseResult =
+                    jwtToken == null ? null : jwtUtils.parse(jwtToken);
+            if (parseResult != null && parseResult.isValid()) {
                 AppUserDetails userDetails =
-                        (AppUserDetails) userDetailsService.loadUserByUsername(username);
-                jwtUtils.checkTokenByUserId(userDetails.getUserId());
+                        jwtUtils.getUserDetailsFromClaims(parseResult.claims());
+                if (userDetails != null) {
+                    jwtUtils.checkTokenNotRevoked(
+                            userDetails.getUserId(),
+                            parseResult.claims().getIssuedAt()
+                    );
+                } else {
+                    userDetails = (AppUserDetails) userDetailsService
+                            .loadUserByUsername(parseResult.getUsername());
+                    jwtUtils.checkTokenByUserId(userDetails.getUserId());
+                }
 
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(
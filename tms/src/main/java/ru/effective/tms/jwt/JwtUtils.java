@@ -1,39 +1,67 @@
 package ru.effective.tms.jwt;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SecurityException;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import ru.effective.tms.exception.AccessException;
 import ru.effective.tms.exception.EntityNotFoundException;
+import ru.effective.tms.model.entity.User;
 import ru.effective.tms.model.entity.security.AppUserDetails;
+import ru.effective.tms.model.entity.security.RoleType;
+import ru.effective.tms.model.enums.JwtFailureReason;
 import ru.effective.tms.service.security.RefreshTokenService;
+import ru.effective.tms.service.security.TokenRevocationService;
 
 import java.security.Key;
 import java.text.MessageFormat;
 import java.time.Duration;
+import java.util.Collection;
 import java.util.Date;
+import java.util.EnumSet;
+import java.util.Set;
 
 @RequiredArgsConstructor
 @Component
 @Slf4j
 public class JwtUtils {
+    /**
+     * Claim with User id for stateless principal.
+     */
+    private static final String CLAIM_USER_ID = "uid";
+    /**
+     * Claim with User roles for stateless principal.
+     */
+    private static final String CLAIM_ROLES = "roles";
     /**
      * To check Token By User Id.
      *
      * @see #checkTokenByUserId(Long)
      */
     private final RefreshTokenService refreshTokenService;
+    /**
+     * To check stateless token revocation.
+     *
+     * @see #checkTokenNotRevoked(Long, Date)
+     */
+    private final TokenRevocationService tokenRevocationService;
     /**
      * Jwt Secret Key for generating jwt token.
      *
-     * @see #key()
+     * @see #init()
      */
     @Value("${app.security.jwt.secret-key}")
     private String jwtSecret;
@@ -45,57 +73,171 @@ public class JwtUtils {
      */
     @Value("${app.security.jwt.expiration}")
     private Duration tokenExpiration;
+    /**
+     * Stateless principal mode.
+     * If true, User id and roles are embedded in jwt token
+     * and {@link AppUserDetails} is built from claims without database.
+     * False on default.
+     *
+     * @see #getUserDetailsFromClaims(Claims)
+     */
+    @Value("${app.security.jwt.stateless-principal:false}")
+    private boolean statelessPrincipal;
+    /**
+     * Signing key decoded once from {@link #jwtSecret}.
+     *
+     * @see #init()
+     */
+    private Key key;
+    /**
+     * Thread-safe parser built once with {@link #key}.
+     *
+     * @see #parse(String)
+     */
+    private JwtParser jwtParser;
+
+    /**
+     * Decode {@link #jwtSecret} and build jwt parser once on startup.
+     * Decoders are BASE64.
+     */
+    @PostConstruct
+    public void init() {
+        key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        jwtParser = Jwts.parserBuilder().setSigningKey(key).build();
+    }
+
+    /**
+     * @return true if User id and roles are embedded in jwt token.
+     */
+    public boolean isStatelessPrincipal() {
+        return statelessPrincipal;
+    }
 
     /**
      * Generate String Jwt Token from {@link AppUserDetails} userDetails.
      *
-     * @param userDetails to get User username.
+     * @param userDetails to get User username, id and roles.
      * @return string JwtToken.
      */
     public String generateJwtToken(AppUserDetails userDetails) {
-        return generateTokenFromUsername(userDetails.getUsername());
+        return generateTokenFromUsername(
+                userDetails.getUsername(),
+                userDetails.getUserId(),
+                userDetails.getRoles()
+        );
+    }
+
+    /**
+     * Generate Jwt Token from User username.
+     * Token without stateless principal claims.
+     *
+     * @param username for Subject generate.
+     * @return String Jwt Token.
+     * @see #generateTokenFromUsername(String, Long, Collection)
+     */
+    public String generateTokenFromUsername(String username) {
+        return generateTokenFromUsername(username, null, null);
     }
 
     /**
      * Generate Jwt Token from User username.
      * Expiration is now + {@link #tokenExpiration}.
      * Signature Algorithm is HS256.
+     * User id and roles are embedded only in {@link #statelessPrincipal} mode.
      *
      * @param username for Subject generate.
+     * @param userId   User id for stateless principal.
+     * @param roles    User roles for stateless principal.
      * @return String Jwt Token.
      * @see #generateJwtToken(AppUserDetails)
      */
-    public String generateTokenFromUsername(String username) {
-        return Jwts.builder()
+    public String generateTokenFromUsername(String username,
+                                            Long userId,
+                                            Collection<RoleType> roles) {
+        Date issuedAt = new Date();
+        JwtBuilder builder = Jwts.builder()
                 .setSubject(username)
-                .setIssuedAt(new Date())
+                .setIssuedAt(issuedAt)
                 .setExpiration(new Date(
-                        new Date().getTime() + tokenExpiration.toMillis())
-                )
-                .signWith(key(), SignatureAlgorithm.HS256)
+                        issuedAt.getTime() + tokenExpiration.toMillis())
+                );
+        if (statelessPrincipal && userId != null && roles != null) {
+            builder.claim(CLAIM_USER_ID, userId)
+                    .claim(CLAIM_ROLES, roles.stream().map(Enum::name).toList());
+        }
+        return builder.signWith(key, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     /**
-     * Key generating by {@link #jwtSecret}.
-     * Decoders are BASE64.
+     * Build {@link AppUserDetails} from jwt token claims.
+     * Works only in {@link #statelessPrincipal} mode
+     * and for tokens with User id and roles claims.
      *
-     * @return {@link Key} for Jwt Token generating.
-     * @see #generateTokenFromUsername(String)
+     * @param claims parsed token claims.
+     * @return {@link AppUserDetails} or null if claims are not sufficient.
      */
-    private Key key() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+    public AppUserDetails getUserDetailsFromClaims(Claims claims) {
+        if (!statelessPrincipal) {
+            return null;
+        }
+        Object userId = claims.get(CLAIM_USER_ID);
+        Object roles = claims.get(CLAIM_ROLES);
+        if (!(userId instanceof Number id)
+                || !(roles instanceof Collection<?> roleNames)) {
+            return null;
+        }
+        Set<RoleType> roleTypes = EnumSet.noneOf(RoleType.class);
+        roleNames.forEach(role -> roleTypes.add(RoleType.valueOf(role.toString())));
+        User user = User.builder()
+                .id(id.longValue())
+                .username(claims.getSubject())
+                .roles(roleTypes)
+                .build();
+        return new AppUserDetails(user);
+    }
+
+    /**
+     * Validate jwt token and read its claims with single parsing.
+     *
+     * @param authToken token to parse.
+     * @return {@link JwtParseResult} with claims
+     * or {@link JwtFailureReason} if token is invalid.
+     */
+    public JwtParseResult parse(String authToken) {
+        try {
+            Claims claims = jwtParser.parseClaimsJws(authToken).getBody();
+            return JwtParseResult.valid(claims);
+        } catch (ExpiredJwtException e) {
+            log.error("Token was expired: {}", e.getMessage());
+            return JwtParseResult.invalid(JwtFailureReason.EXPIRED);
+        } catch (UnsupportedJwtException e) {
+            log.error("Token is unsupported: {}", e.getMessage());
+            return JwtParseResult.invalid(JwtFailureReason.UNSUPPORTED);
+        } catch (MalformedJwtException e) {
+            log.error("Invalid token: {}", e.getMessage());
+            return JwtParseResult.invalid(JwtFailureReason.MALFORMED);
+        } catch (SecurityException e) {
+            log.error("Invalid token signature: {}", e.getMessage());
+            return JwtParseResult.invalid(JwtFailureReason.INVALID_SIGNATURE);
+        } catch (JwtException e) {
+            log.error("Invalid token: {}", e.getMessage());
+            return JwtParseResult.invalid(JwtFailureReason.MALFORMED);
+        } catch (IllegalArgumentException e) {
+            log.error("Claims string is empty: {}", e.getMessage());
+            return JwtParseResult.invalid(JwtFailureReason.EMPTY);
+        }
     }
 
     /**
      * Parse User username from string jwt token.
      *
      * @param token jwt token to parse.
-     * @return User username.
+     * @return User username or null if token is invalid.
+     * @see #parse(String)
      */
     public String getUsernameFromJwtToken(String token) {
-        return Jwts.parserBuilder().setSigningKey(key()).build()
-                .parseClaimsJws(token).getBody().getSubject();
+        return parse(token).getUsername();
     }
 
     /**
@@ -103,25 +245,10 @@ public class JwtUtils {
      *
      * @param authToken token to validate.
      * @return true if token is valid.
-     * @throws ExpiredJwtException      if token was expired.
-     * @throws UnsupportedJwtException  if token is unsupported.
-     * @throws MalformedJwtException    if token is invalid.
-     * @throws IllegalArgumentException if claims string is empty.
+     * @see #parse(String)
      */
     public Boolean validation(String authToken) {
-        try {
-            Jwts.parserBuilder().setSigningKey(key()).build().parse(authToken);
-            return true;
-        } catch (ExpiredJwtException e) {
-            log.error("Token was expired: {}", e.getMessage());
-        } catch (UnsupportedJwtException e) {
-            log.error("Token is unsupported: {}", e.getMessage());
-        } catch (MalformedJwtException e) {
-            log.error("Invalid token: {}", e.getMessage());
-        } catch (IllegalArgumentException e) {
-            log.error("Claims string is empty: {}", e.getMessage());
-        }
-        return false;
+        return parse(authToken).isValid();
     }
 
     /**
@@ -141,4 +268,22 @@ public class JwtUtils {
             );
         }
     }
+
+    /**
+     * Check stateless token revocation.
+     *
+     * @param userId   token owner id.
+     * @param issuedAt token issue date.
+     * @throws AccessException if token was revoked.
+     */
+    public void checkTokenNotRevoked(Long userId, Date issuedAt) {
+        if (tokenRevocationService.isRevoked(userId, issuedAt)) {
+            throw new AccessException(
+                    MessageFormat.format(
+                            "Token for UserId {0} was revoked!",
+                            userId
+                    )
+            );
+        }
+    }
 }
@@ -3,6 +3,8 @@ package ru.effective.tms.mapper;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.ReportingPolicy;
+import org.springframework.data.domain.Slice;
+import ru.effective.tms.model.dto.CursorPage;
 import ru.effective.tms.model.dto.comment.CommentListResponse;
 import ru.effective.tms.model.dto.comment.CommentRequest;
 import ru.effective.tms.model.dto.comment.CommentResponse;
@@ -38,6 +40,25 @@ public interface CommentMapper {
     @Mapping(source = "author.username", target = "userName")
     CommentResponse modelToResponse(Comment model);
 
+    /**
+     * {@link Comment} to {@link CommentResponse} mapping
+     * with known author username.
+     * Author reference is not loaded.
+     *
+     * @param model    {@link Comment} for mapping.
+     * @param userName comment author username.
+     * @return mapped {@link CommentResponse}.
+     */
+    default CommentResponse modelToResponse(Comment model, String userName) {
+        return new CommentResponse(
+                model.getId(),
+                model.getContent(),
+                userName,
+                model.getUpdatedTime(),
+                model.getTask() == null ? null : model.getTask().getId()
+        );
+    }
+
     /**
      * List of {@link Comment} to List of {@link CommentResponse} mapping.
      *
@@ -58,4 +79,33 @@ public interface CommentMapper {
         response.setComments(modelListToModelResponseList(comments));
         return response;
     }
+
+    /**
+     * Keyset page of {@link Comment} to {@link CommentListResponse} mapping.
+     *
+     * @param page {@link CursorPage} of {@link Comment} for mapping.
+     * @return mapped {@link CommentListResponse} with next page cursor.
+     */
+    default CommentListResponse cursorPageToModelListResponse(CursorPage<Comment> page) {
+        CommentListResponse response = modelListToModelListResponse(page.content());
+        response.setNextCursor(page.nextCursor());
+        response.setHasNext(page.nextCursor() != null);
+        return response;
+    }
+
+    /**
+     * {@link Slice} of {@link Comment} to {@link CommentListResponse} mapping.
+     *
+     * @param slice      {@link Slice} of {@link Comment} for mapping.
+     * @param totalCount total count, null if not requested.
+     * @return mapped {@link CommentListResponse} with hasNext flag.
+     * @see #modelListToModelListResponse(List)
+     */
+    default CommentListResponse sliceToModelListResponse(
+            Slice<Comment> slice, Long totalCount) {
+        CommentListResponse response = modelListToModelListResponse(slice.getContent());
+        response.setHasNext(slice.hasNext());
+        response.setTotalCount(totalCount);
+        return response;
+    }
 }
@@ -5,10 +5,14 @@ import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Named;
 import org.mapstruct.ReportingPolicy;
+import org.springframework.data.domain.Slice;
+import ru.effective.tms.model.dto.CursorPage;
+import ru.effective.tms.model.dto.comment.CommentResponse;
 import ru.effective.tms.model.dto.task.TaskListResponse;
 import ru.effective.tms.model.dto.task.TaskRequest;
 import ru.effective.tms.model.dto.task.TaskResponse;
 import ru.effective.tms.model.dto.task.TaskResponseWith;
+import ru.effective.tms.model.entity.Comment;
 import ru.effective.tms.model.entity.Task;
 import ru.effective.tms.model.entity.User;
 import ru.effective.tms.model.enums.Priority;
@@ -35,6 +39,15 @@ public interface TaskMapper {
     @Mapping(source = "request.authorId", target = "author.id")
     Task requestToModel(TaskRequest request);
 
+    /**
+     * List of {@link TaskRequest} to List of {@link Task} mapping.
+     *
+     * @param requests List of {@link TaskRequest} for mapping.
+     * @return mapped List of {@link Task}.
+     * @see #requestToModel(TaskRequest)
+     */
+    List<Task> requestListToModelList(List<TaskRequest> requests);
+
     /**
      * Map user by id to Long value.
      *
@@ -73,15 +86,39 @@ public interface TaskMapper {
     TaskResponse modelToResponse(Task model);
 
     /**
-     * {@link Task} to {@link TaskResponseWith} mapping.
+     * {@link Task} with first page of comments to {@link TaskResponseWith} mapping.
+     * {@link Task#getComments()} is not read.
      *
-     * @param model {@link Task} for mapping.
+     * @param model        {@link Task} for mapping.
+     * @param comments     first {@link CursorPage} of task comments.
+     * @param commentCount number of task comments.
      * @return mapped {@link TaskResponseWith}.
      */
-    @Mapping(source = "author.id", target = "authorId")
-    @Mapping(source = "performerList", target = "performerIds",
-            qualifiedByName = "userToLong")
-    TaskResponseWith modelToResponseWith(Task model);
+    default TaskResponseWith modelToResponseWith(Task model,
+                                                 CursorPage<Comment> comments,
+                                                 long commentCount) {
+        TaskResponse task = modelToResponse(model);
+        return new TaskResponseWith(
+                task.id(),
+                task.title(),
+                task.description(),
+                task.currentStatus(),
+                task.currentPriority(),
+                task.authorId(),
+                task.performerIds(),
+                commentListToResponseList(comments.content()),
+                commentCount,
+                comments.nextCursor()
+        );
+    }
+
+    /**
+     * List of {@link Comment} to List of {@link CommentResponse} mapping.
+     *
+     * @param comments List of {@link Comment} for mapping.
+     * @return mapped List of {@link CommentResponse}.
+     */
+    List<CommentResponse> commentListToResponseList(List<Comment> comments);
 
     /**
      * List of {@link Task} to List of {@link TaskResponse} mapping.
@@ -103,4 +140,58 @@ public interface TaskMapper {
         response.setTasks(modelListToModelResponseList(models));
         return response;
     }
+
+    /**
+     * List of {@link TaskResponse} projections to {@link TaskListResponse} mapping.
+     *
+     * @param responses List of {@link TaskResponse} for mapping.
+     * @return mapped {@link TaskListResponse}.
+     */
+    default TaskListResponse responseListToListResponse(List<TaskResponse> responses) {
+        return new TaskListResponse(responses);
+    }
+
+    /**
+     * Keyset page of {@link TaskResponse} to {@link TaskListResponse} mapping.
+     *
+     * @param page {@link CursorPage} of {@link TaskResponse} for mapping.
+     * @return mapped {@link TaskListResponse} with next page cursor.
+     */
+    default TaskListResponse cursorPageToModelListResponse(CursorPage<TaskResponse> page) {
+        TaskListResponse response = responseListToListResponse(page.content());
+        response.setNextCursor(page.nextCursor());
+        response.setHasNext(page.nextCursor() != null);
+        return response;
+    }
+
+    /**
+     * {@link Slice} of {@link Task} to {@link TaskListResponse} mapping.
+     *
+     * @param slice      {@link Slice} of {@link Task} for mapping.
+     * @param totalCount total count, null if not requested.
+     * @return mapped {@link TaskListResponse} with hasNext flag.
+     * @see #modelListToModelListResponse(List)
+     */
+    default TaskListResponse sliceToModelListResponse(
+            Slice<Task> slice, Long totalCount) {
+        TaskListResponse response = modelListToModelListResponse(slice.getContent());
+        response.setHasNext(slice.hasNext());
+        response.setTotalCount(totalCount);
+        return response;
+    }
+
+    /**
+     * {@link Slice} of {@link TaskResponse} to {@link TaskListResponse} mapping.
+     *
+     * @param slice      {@link Slice} of {@link TaskResponse} for mapping.
+     * @param totalCount total count, null if not requested.
+     * @return mapped {@link TaskListResponse} with hasNext flag.
+     */
+    default TaskListResponse responseSliceToListResponse(
+            Slice<TaskResponse> slice, Long totalCount) {
+        TaskListResponse response = responseListToListResponse(slice.getContent());
+        response.setHasNext(slice.hasNext());
+        response.setTotalCount(totalCount);
+        return response;
+    }
 }
@@ -2,7 +2,9 @@ package ru.effective.tms.mapper;
 
 import org.mapstruct.Mapper;
 import org.mapstruct.ReportingPolicy;
+import org.springframework.data.domain.Slice;
 import ru.effective.tms.model.dto.user.UserListResponse;
+import ru.effective.tms.model.dto.user.UserPatchRequest;
 import ru.effective.tms.model.dto.user.UserRequest;
 import ru.effective.tms.model.dto.user.UserResponse;
 import ru.effective.tms.model.entity.User;
@@ -14,6 +16,7 @@ import java.util.List;
  *
  * @see UserResponse
  * @see UserRequest
+ * @see UserPatchRequest
  */
 @Mapper(componentModel = "spring",
         unmappedTargetPolicy = ReportingPolicy.IGNORE)
@@ -26,6 +29,15 @@ public interface UserMapper {
      */
     User requestToModel(UserRequest request);
 
+    /**
+     * {@link UserPatchRequest} to {@link User} mapping.
+     * Fields without value stay null or empty.
+     *
+     * @param request {@link UserPatchRequest} for mapping.
+     * @return mapped {@link User}.
+     */
+    User patchRequestToModel(UserPatchRequest request);
+
     /**
      * {@link User} to {@link UserResponse} mapping.
      *
@@ -54,4 +66,20 @@ public interface UserMapper {
         response.setUsers(modelListToModelResponseList(models));
         return response;
     }
+
+    /**
+     * {@link Slice} of {@link User} to {@link UserListResponse} mapping.
+     *
+     * @param slice      {@link Slice} of {@link User} for mapping.
+     * @param totalCount total count, null if not requested.
+     * @return mapped {@link UserListResponse} with hasNext flag.
+     * @see #modelListToModelListResponse(List)
+     */
+    default UserListResponse sliceToModelListResponse(
+            Slice<User> slice, Long totalCount) {
+        UserListResponse response = modelListToModelListResponse(slice.getContent());
+        response.setHasNext(slice.hasNext());
+        response.setTotalCount(totalCount);
+        return response;
+    }
 }
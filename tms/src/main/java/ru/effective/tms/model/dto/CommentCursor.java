@@ -0,0 +1,63 @@
+package ru.effective.tms.model.dto;
+
+import ru.effective.tms.exception.IncorrectCursorException;
+import ru.effective.tms.model.entity.Comment;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Position after the last {@link Comment} of task comments keyset page.
+ * <br>
+ * Client gets it as opaque url safe string.
+ *
+ * @param creationTime last comment creation time.
+ * @param id           last comment id.
+ */
+public record CommentCursor(Instant creationTime, Long id) {
+    private static final String SEPARATOR = "\n";
+
+    /**
+     * Cursor after comment.
+     *
+     * @param comment last comment of the page.
+     * @return cursor after comment.
+     */
+    public static CommentCursor after(Comment comment) {
+        return new CommentCursor(comment.getCreationTime(), comment.getId());
+    }
+
+    /**
+     * @return opaque url safe cursor string.
+     */
+    public String encode() {
+        String value = creationTime + SEPARATOR + id;
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param cursor opaque cursor string from {@link #encode()}.
+     * @return decoded cursor.
+     * @throws IncorrectCursorException if cursor is incorrect.
+     */
+    public static CommentCursor decode(String cursor) {
+        try {
+            String value = new String(
+                    Base64.getUrlDecoder().decode(cursor),
+                    StandardCharsets.UTF_8
+            );
+            String[] parts = value.split(SEPARATOR, 2);
+            return new CommentCursor(
+                    Instant.parse(parts[0]),
+                    Long.valueOf(parts[1])
+            );
+        } catch (IllegalArgumentException | IndexOutOfBoundsException
+                 | DateTimeException e) {
+            throw new IncorrectCursorException("Поле cursor некорректно");
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package ru.effective.tms.model.dto;
+
+import java.util.List;
+
+/**
+ * Keyset page without total count.
+ *
+ * @param content    page content.
+ * @param nextCursor cursor of the next page, null on the last page.
+ * @param <T>        content type.
+ */
+public record CursorPage<T>(List<T> content, String nextCursor) {
+}
@@ -0,0 +1,38 @@
+package ru.effective.tms.model.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Keyset page parameters for list endpoints.
+ * <br>
+ * Service default page size is used if not set.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorParams {
+    /**
+     * Minimum size of the page field.
+     */
+    private static final int MIN_PAGE_SIZE = 1;
+    /**
+     * Maximum size of the page field.
+     */
+    private static final int MAX_PAGE_SIZE = 100;
+
+    @Min(value = MIN_PAGE_SIZE,
+            message = "Поле pageSize не должно быть меньше " + MIN_PAGE_SIZE)
+    @Max(value = MAX_PAGE_SIZE,
+            message = "Поле pageSize не должно быть больше " + MAX_PAGE_SIZE)
+    private Integer pageSize;
+    /**
+     * Opaque cursor from previous page, empty for the first page.
+     */
+    private String cursor;
+}
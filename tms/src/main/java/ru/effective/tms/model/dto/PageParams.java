@@ -0,0 +1,42 @@
+package ru.effective.tms.model.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Page parameters for list endpoints.
+ * <br>
+ * Service default page is used for not set fields.
+ * Total count is calculated only with {@link #withTotal}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PageParams {
+    /**
+     * Minimum size of the page field.
+     */
+    private static final int MIN_PAGE_SIZE = 1;
+    /**
+     * Maximum size of the page field.
+     */
+    private static final int MAX_PAGE_SIZE = 100;
+
+    @Min(value = MIN_PAGE_SIZE,
+            message = "Поле pageSize не должно быть меньше " + MIN_PAGE_SIZE)
+    @Max(value = MAX_PAGE_SIZE,
+            message = "Поле pageSize не должно быть больше " + MAX_PAGE_SIZE)
+    private Integer pageSize;
+    @PositiveOrZero(message = "Поле pageNumber должно быть положительным")
+    private Integer pageNumber;
+    /**
+     * Calculate exact total count with separate count query.
+     */
+    private boolean withTotal;
+}
@@ -0,0 +1,73 @@
+package ru.effective.tms.model.dto;
+
+import ru.effective.tms.exception.IncorrectCursorException;
+import ru.effective.tms.model.dto.task.TaskResponse;
+import ru.effective.tms.model.entity.Task;
+import ru.effective.tms.model.enums.TaskSortField;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position after the last {@link Task} of keyset page.
+ * <br>
+ * Client gets it as opaque url safe string.
+ *
+ * @param sortBy sort key of the page.
+ * @param title  last task title, used with {@link TaskSortField#TITLE}.
+ * @param id     last task id.
+ */
+public record TaskCursor(TaskSortField sortBy, String title, Long id) {
+    private static final String SEPARATOR = "\n";
+    /**
+     * Prefix of not null title, so null and empty title differ.
+     */
+    private static final String VALUE_PREFIX = "=";
+
+    /**
+     * Cursor after task.
+     *
+     * @param sortBy sort key of the page.
+     * @param task   last task of the page.
+     * @return cursor after task.
+     */
+    public static TaskCursor after(TaskSortField sortBy, TaskResponse task) {
+        return new TaskCursor(sortBy, task.title(), task.id());
+    }
+
+    /**
+     * @return opaque url safe cursor string.
+     */
+    public String encode() {
+        String value = sortBy.name() + SEPARATOR + id + SEPARATOR
+                + (title == null ? "" : VALUE_PREFIX + title);
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param cursor opaque cursor string from {@link #encode()}.
+     * @return decoded cursor.
+     * @throws IncorrectCursorException if cursor is incorrect.
+     */
+    public static TaskCursor decode(String cursor) {
+        try {
+            String value = new String(
+                    Base64.getUrlDecoder().decode(cursor),
+                    StandardCharsets.UTF_8
+            );
+            String[] parts = value.split(SEPARATOR, 3);
+            String title = parts[2].startsWith(VALUE_PREFIX)
+                    ? parts[2].substring(VALUE_PREFIX.length())
+                    : null;
+            return new TaskCursor(
+                    TaskSortField.valueOf(parts[0]),
+                    title,
+                    Long.valueOf(parts[1])
+            );
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IncorrectCursorException("Поле cursor некорректно");
+        }
+    }
+}
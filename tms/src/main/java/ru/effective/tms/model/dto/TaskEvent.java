@@ -0,0 +1,110 @@
+package ru.effective.tms.model.dto;
+
+import ru.effective.tms.model.entity.Comment;
+import ru.effective.tms.model.entity.Task;
+import ru.effective.tms.model.entity.User;
+import ru.effective.tms.model.enums.Status;
+import ru.effective.tms.model.enums.TaskEventType;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * {@link Task} change sent to task stream subscribers.
+ * <br>
+ * Author and performers are used to filter subscribers.
+ * They are not known for {@link TaskEventType#COMMENT_ADDED}
+ * and bulk updates until resolved by task id.
+ *
+ * @param type          change type.
+ * @param taskId        changed task id.
+ * @param authorId      task author id, null if not known.
+ * @param performerIds  task performer ids, null if not known.
+ * @param currentStatus task status after change, null if not known.
+ * @param commentId     added comment id, null for other changes.
+ * @param time          change time.
+ */
+public record TaskEvent(
+        TaskEventType type,
+        Long taskId,
+        Long authorId,
+        Set<Long> performerIds,
+        Status currentStatus,
+        Long commentId,
+        Instant time) {
+
+    /**
+     * Event of task change.
+     *
+     * @param type change type.
+     * @param task changed task with author and performers.
+     * @return event with task author and performers.
+     */
+    public static TaskEvent of(TaskEventType type, Task task) {
+        return new TaskEvent(
+                type,
+                task.getId(),
+                task.getAuthor() == null ? null : task.getAuthor().getId(),
+                task.getPerformerList() == null
+                        ? Set.of()
+                        : task.getPerformerList().stream()
+                        .map(User::getId)
+                        .collect(Collectors.toUnmodifiableSet()),
+                task.getCurrentStatus(),
+                null,
+                Instant.now()
+        );
+    }
+
+    /**
+     * Event of task changed by set-based update.
+     * Task is not loaded, author and performers are not known.
+     *
+     * @param type          change type.
+     * @param taskId        changed task id.
+     * @param currentStatus task status after change.
+     * @return event without task author and performers.
+     */
+    public static TaskEvent bulkUpdated(TaskEventType type, Long taskId, Status currentStatus) {
+        return new TaskEvent(type, taskId, null, null, currentStatus, null, Instant.now());
+    }
+
+    /**
+     * Event of added comment.
+     * Task is not loaded, author and performers are not known.
+     *
+     * @param comment saved comment with task reference.
+     * @return event without task author and performers.
+     */
+    public static TaskEvent commentAdded(Comment comment) {
+        return new TaskEvent(
+                TaskEventType.COMMENT_ADDED,
+                comment.getTask().getId(),
+                null,
+                null,
+                null,
+                comment.getId(),
+                Instant.now()
+        );
+    }
+
+    /**
+     * @return true if task author and performers are known.
+     */
+    public boolean hasAudience() {
+        return performerIds != null;
+    }
+
+    /**
+     * Copy with resolved task author and performers.
+     *
+     * @param authorId     task author id.
+     * @param performerIds task performer ids.
+     * @return event with task author and performers.
+     */
+    public TaskEvent withAudience(Long authorId, Set<Long> performerIds) {
+        return new TaskEvent(type, taskId, authorId, Set.copyOf(performerIds),
+                currentStatus, commentId, time);
+    }
+}
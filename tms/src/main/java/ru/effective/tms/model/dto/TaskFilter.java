@@ -4,17 +4,30 @@ import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import jakarta.validation.groups.Default;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import ru.effective.tms.model.enums.Priority;
+import ru.effective.tms.model.enums.Status;
+import ru.effective.tms.model.enums.TaskSortField;
+
+import java.util.List;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class TaskFilter {
+    /**
+     * Validation group of filter conditions without pagination fields.
+     */
+    public interface Conditions {
+    }
+
     /**
      * Minimum size of the page field.
      */
@@ -25,6 +38,10 @@ public class TaskFilter {
      */
     @Value("app.filter.task.maxPageSize")
     private static final int MAX_PAGE_SIZE = 20;
+    /**
+     * Maximum number of values in multi-value field.
+     */
+    private static final int MAX_VALUES = 100;
 
     @Min(value = MIN_PAGE_SIZE,
             message = "Поле pageSize не должно быть меньше " + MIN_PAGE_SIZE)
@@ -32,15 +49,52 @@ public class TaskFilter {
             message = "Поле pageSize не должно быть больше " + MAX_PAGE_SIZE)
     @NotNull(message = "Поле pageSize должно быть заполнено")
     private Integer pageSize;
+    /**
+     * Offset page number.
+     * Keyset pagination with {@link #cursor} is used if not set.
+     */
     @PositiveOrZero(message = "Поле pageNumber должно быть положительным")
-    @NotNull(message = "Поле pageNumber должно быть заполнено")
     private Integer pageNumber;
+    /**
+     * Opaque cursor from previous keyset page, empty for the first page.
+     */
+    private String cursor;
+    /**
+     * Sort key for keyset pagination.
+     */
+    @Builder.Default
+    private TaskSortField sortBy = TaskSortField.ID;
 
+    /**
+     * Full-text search by title and description words prefixes.
+     * Offset page is ordered by relevance.
+     */
+    @Size(max = 200, groups = {Default.class, Conditions.class},
+            message = "Поле q не должно быть длиннее 200 символов")
+    private String q;
     private Long id;
     private String title;
     private String description;
-    private String currentStatus;
-    private String currentPriority;
+    private Status currentStatus;
+    private Priority currentPriority;
     private Long authorId;
     private Long performerId;
+    /**
+     * Task with any of these statuses.
+     */
+    @Size(max = MAX_VALUES, groups = {Default.class, Conditions.class},
+            message = "Поле currentStatuses не должно содержать больше " + MAX_VALUES + " значений")
+    private List<Status> currentStatuses;
+    /**
+     * Task with any of these priorities.
+     */
+    @Size(max = MAX_VALUES, groups = {Default.class, Conditions.class},
+            message = "Поле currentPriorities не должно содержать больше " + MAX_VALUES + " значений")
+    private List<Priority> currentPriorities;
+    /**
+     * Task with any of these performers.
+     */
+    @Size(max = MAX_VALUES, groups = {Default.class, Conditions.class},
+            message = "Поле performerIds не должно содержать больше " + MAX_VALUES + " значений")
+    private List<Long> performerIds;
 }
@@ -15,4 +15,21 @@ import java.util.List;
 @Data
 public class CommentListResponse {
     List<CommentResponse> comments = new ArrayList<>();
+    /**
+     * Cursor of the next keyset page, null on the last page
+     * and for offset pagination.
+     */
+    String nextCursor;
+    /**
+     * True if the next page exists.
+     */
+    boolean hasNext;
+    /**
+     * Total count, only if requested.
+     */
+    Long totalCount;
+
+    public CommentListResponse(List<CommentResponse> comments) {
+        this.comments = comments;
+    }
 }
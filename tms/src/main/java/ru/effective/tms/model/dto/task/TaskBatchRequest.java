@@ -0,0 +1,27 @@
+package ru.effective.tms.model.dto.task;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Request DTO for creating tasks in one transaction.
+ *
+ * @param tasks tasks to create, every task is validated.
+ */
+public record TaskBatchRequest(
+        @NotEmpty(message = "Поле tasks должно быть заполнено")
+        @Size(max = TaskBatchRequest.MAX_TASKS,
+                message = "Поле tasks не должно содержать больше "
+                        + TaskBatchRequest.MAX_TASKS + " задач")
+        List<@NotNull(message = "Поле tasks не должно содержать пустых задач")
+        @Valid TaskRequest> tasks
+) {
+    /**
+     * Maximum number of tasks in one request.
+     */
+    public static final int MAX_TASKS = 1000;
+}
@@ -0,0 +1,55 @@
+package ru.effective.tms.model.dto.task;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Size;
+import jakarta.validation.groups.ConvertGroup;
+import ru.effective.tms.model.dto.TaskFilter;
+import ru.effective.tms.model.enums.Priority;
+import ru.effective.tms.model.enums.Status;
+import ru.effective.tms.repository.query.TaskFilterQuery;
+
+import java.util.List;
+
+/**
+ * Request DTO for changing status and priority of many tasks.
+ * <br>
+ * Tasks are set by ids or by filter, pagination fields of filter are ignored.
+ * Filter must have at least one condition, so all tasks are not updated by mistake.
+ *
+ * @param ids             task ids.
+ * @param filter          filter of tasks.
+ * @param currentStatus   new status, not changed if null.
+ * @param currentPriority new priority, not changed if null.
+ */
+public record TaskBulkUpdateRequest(
+        @Size(max = TaskBulkUpdateRequest.MAX_IDS,
+                message = "Поле ids не должно содержать больше "
+                        + TaskBulkUpdateRequest.MAX_IDS + " значений")
+        List<Long> ids,
+        @Valid
+        @ConvertGroup(to = TaskFilter.Conditions.class)
+        TaskFilter filter,
+        Status currentStatus,
+        Priority currentPriority
+) {
+    /**
+     * Maximum number of ids in one request.
+     */
+    public static final int MAX_IDS = 1000;
+
+    @AssertTrue(message = "Должно быть заполнено одно из полей ids или filter")
+    public boolean isTargetSet() {
+        return (ids == null || ids.isEmpty()) != (filter == null);
+    }
+
+    @AssertTrue(message = "Поле filter должно содержать хотя бы одно условие")
+    public boolean isFilterConditionSet() {
+        return filter == null || TaskFilterQuery.of(filter).hasConditions();
+    }
+
+    @AssertTrue(message = "Должно быть заполнено поле currentStatus или currentPriority")
+    public boolean isChangeSet() {
+        return currentStatus != null || currentPriority != null;
+    }
+}
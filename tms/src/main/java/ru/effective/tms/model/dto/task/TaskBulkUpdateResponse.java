@@ -0,0 +1,9 @@
+package ru.effective.tms.model.dto.task;
+
+/**
+ * Response DTO for changing status and priority of many tasks.
+ *
+ * @param updatedCount number of updated tasks.
+ */
+public record TaskBulkUpdateResponse(int updatedCount) {
+}
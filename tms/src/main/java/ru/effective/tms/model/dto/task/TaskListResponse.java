@@ -17,4 +17,21 @@ import java.util.List;
 @Setter
 public class TaskListResponse {
     List<TaskResponse> tasks = new ArrayList<>();
+    /**
+     * Cursor of the next keyset page, null on the last page
+     * and for offset pagination.
+     */
+    String nextCursor;
+    /**
+     * True if the next page exists.
+     */
+    boolean hasNext;
+    /**
+     * Total count, only if requested.
+     */
+    Long totalCount;
+
+    public TaskListResponse(List<TaskResponse> tasks) {
+        this.tasks = tasks;
+    }
 }
@@ -8,7 +8,8 @@ import java.util.List;
 
 /**
  * Response DTO for working with entity task.
- * Have CommentResponse list.
+ * Have first page of CommentResponse list and comments count,
+ * next pages are requested by commentsNextCursor.
  */
 public record TaskResponseWith(
         Long id,
@@ -18,6 +19,8 @@ public record TaskResponseWith(
         Priority currentPriority,
         Long authorId,
         List<Long> performerIds,
-        List<CommentResponse> comments
+        List<CommentResponse> comments,
+        long commentCount,
+        String commentsNextCursor
 ) {
 }
@@ -20,4 +20,16 @@ public class UserListResponse {
      * list of {@link UserResponse}.
      */
     List<UserResponse> users = new ArrayList<>();
+    /**
+     * True if the next page exists.
+     */
+    boolean hasNext;
+    /**
+     * Total count, only if requested.
+     */
+    Long totalCount;
+
+    public UserListResponse(List<UserResponse> users) {
+        this.users = users;
+    }
 }
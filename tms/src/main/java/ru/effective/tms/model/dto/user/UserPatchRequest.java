@@ -0,0 +1,32 @@
+package ru.effective.tms.model.dto.user;
+
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import ru.effective.tms.model.entity.security.RoleType;
+
+import java.util.Set;
+
+/**
+ * Request DTO for partial update of entity user.
+ * Fields without value are not changed.
+ *
+ * @param username new user username.
+ * @param password new user password.
+ * @param email    new user email.
+ * @param roles    new authentication {@link RoleType}.
+ */
+public record UserPatchRequest(
+
+        @Pattern(regexp = ".*\\S.*", message = "Field username must not be blank!")
+        String username,
+
+        @Pattern(regexp = ".*\\S.*", message = "Field password must not be blank!")
+        String password,
+
+        @Pattern(regexp = ".*\\S.*", message = "Field email must not be blank!")
+        String email,
+
+        @Size(min = 1, message = "Field roles must not be empty!")
+        Set<RoleType> roles
+) {
+}
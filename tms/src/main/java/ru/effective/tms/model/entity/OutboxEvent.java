@@ -0,0 +1,42 @@
+package ru.effective.tms.model.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+import ru.effective.tms.model.dto.TaskEvent;
+
+import java.time.Instant;
+
+/**
+ * {@link TaskEvent} not sent to subscribers yet.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Setter
+@Getter
+@Builder
+@Entity
+@Table(name = "outbox")
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+    /**
+     * {@link TaskEvent} json.
+     */
+    @Column(name = "payload")
+    private String payload;
+    @CreationTimestamp
+    @Column(name = "created_at")
+    private Instant createdAt;
+}
@@ -12,7 +12,10 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -35,11 +38,26 @@ import java.util.Set;
 @FieldNameConstants
 @Builder
 @Entity
+@NamedEntityGraph(name = Task.AUTHOR_PERFORMERS_GRAPH, attributeNodes = {
+        @NamedAttributeNode("author"),
+        @NamedAttributeNode("performerList")
+})
 @Table(name = "tasks")
 public class Task {
+    /**
+     * Fetch plan for task list and detail: author and performers.
+     * Comments are not fetched, they are read by keyset pages.
+     */
+    public static final String AUTHOR_PERFORMERS_GRAPH = "Task.authorPerformers";
+    /**
+     * Ids allocated by one sequence call, equals tasks_seq increment.
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
     @Schema(accessMode = Schema.AccessMode.READ_ONLY)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tasks_seq")
+    @SequenceGenerator(name = "tasks_seq", sequenceName = "tasks_seq",
+            allocationSize = ID_ALLOCATION_SIZE)
     @Column(name = "id")
     private Long id;
     @Column(name = "title")
@@ -20,7 +20,10 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import lombok.experimental.FieldNameConstants;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.DynamicUpdate;
 import ru.effective.tms.model.entity.security.RoleType;
 
 import java.util.ArrayList;
@@ -35,6 +38,7 @@ import java.util.Set;
 @FieldNameConstants
 @Builder
 @Entity
+@DynamicUpdate
 @Table(name = "users",
         indexes = {
                 @Index(columnList = User.Fields.username, unique = true),
@@ -54,19 +58,26 @@ public class User {
     @ElementCollection(targetClass = RoleType.class, fetch = FetchType.EAGER)
     @JoinTable(name = "user_roles", joinColumns = @JoinColumn(name = "user_id"))
     @Enumerated(EnumType.STRING)
+    @BatchSize(size = 50)
     @Builder.Default
     private Set<RoleType> roles = new HashSet<>();
     @OneToMany(mappedBy = Task.Fields.author, fetch = FetchType.LAZY)
     @Builder.Default
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private List<Task> createdTask = new ArrayList<>();
     @ManyToMany()
     @JoinTable(name = "user_task",
-            joinColumns = @JoinColumn(name = "task_id"),
-            inverseJoinColumns = @JoinColumn(name = "performer_id"))
+            joinColumns = @JoinColumn(name = "performer_id"),
+            inverseJoinColumns = @JoinColumn(name = "task_id"))
     @Builder.Default
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private Set<Task> takenTask = new HashSet<>();
     @OneToMany(mappedBy = Comment.Fields.author, fetch = FetchType.LAZY)
     @Builder.Default
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private List<Comment> comments = new ArrayList<>();
 }
 
@@ -8,6 +8,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 import ru.effective.tms.model.entity.User;
 
 import java.util.Collection;
+import java.util.Set;
 
 @EqualsAndHashCode
 @RequiredArgsConstructor
@@ -26,6 +27,10 @@ public class AppUserDetails implements UserDetails {
         return user.getId();
     }
 
+    public Set<RoleType> getRoles() {
+        return user.getRoles();
+    }
+
     @Override
     public String getPassword() {
         return user.getPassword();
@@ -0,0 +1,78 @@
+package ru.effective.tms.model.entity.security;
+
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+
+/**
+ * Authentication request by email and password.
+ * <br>
+ * Principal is email before authentication
+ * and {@link AppUserDetails} after it.
+ */
+public class EmailPasswordAuthenticationToken extends AbstractAuthenticationToken {
+    private final Object principal;
+    private Object credentials;
+
+    /**
+     * Create not authenticated token.
+     *
+     * @param email    user email.
+     * @param password raw user password.
+     */
+    public EmailPasswordAuthenticationToken(String email, String password) {
+        super(null);
+        this.principal = email;
+        this.credentials = password;
+        super.setAuthenticated(false);
+    }
+
+    private EmailPasswordAuthenticationToken(
+            AppUserDetails userDetails,
+            Collection<? extends GrantedAuthority> authorities) {
+        super(authorities);
+        this.principal = userDetails;
+        this.credentials = null;
+        super.setAuthenticated(true);
+    }
+
+    /**
+     * Create authenticated token.
+     *
+     * @param userDetails authenticated user.
+     * @return authenticated {@link EmailPasswordAuthenticationToken}.
+     */
+    public static EmailPasswordAuthenticationToken authenticated(
+            AppUserDetails userDetails) {
+        return new EmailPasswordAuthenticationToken(
+                userDetails,
+                userDetails.getAuthorities()
+        );
+    }
+
+    @Override
+    public Object getCredentials() {
+        return credentials;
+    }
+
+    @Override
+    public Object getPrincipal() {
+        return principal;
+    }
+
+    @Override
+    public void setAuthenticated(boolean authenticated) {
+        if (authenticated) {
+            throw new IllegalArgumentException(
+                    "Use authenticated(AppUserDetails) to create trusted token.");
+        }
+        super.setAuthenticated(false);
+    }
+
+    @Override
+    public void eraseCredentials() {
+        super.eraseCredentials();
+        this.credentials = null;
+    }
+}
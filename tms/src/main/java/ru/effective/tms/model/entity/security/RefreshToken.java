@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.experimental.FieldNameConstants;
 import org.springframework.data.redis.core.RedisHash;
 import org.springframework.data.redis.core.index.Indexed;
 
@@ -18,12 +19,14 @@ import java.time.Instant;
 @NoArgsConstructor
 @Data
 @Builder
+@FieldNameConstants
 public class RefreshToken {
     @Id
     @Indexed
     private Long id;
     @Indexed
     private Long userId;
+    private String username;
     @Indexed
     private String token;
     @Indexed
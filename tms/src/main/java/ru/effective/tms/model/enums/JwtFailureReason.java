@@ -0,0 +1,12 @@
+package ru.effective.tms.model.enums;
+
+/**
+ * Reason why jwt token was rejected by parser.
+ */
+public enum JwtFailureReason {
+    EXPIRED,
+    UNSUPPORTED,
+    MALFORMED,
+    INVALID_SIGNATURE,
+    EMPTY
+}
@@ -0,0 +1,10 @@
+package ru.effective.tms.model.enums;
+
+public enum TaskEventType {
+    CREATED,
+    UPDATED,
+    STATUS_CHANGED,
+    PERFORMER_ADDED,
+    COMMENT_ADDED,
+    DELETED;
+}
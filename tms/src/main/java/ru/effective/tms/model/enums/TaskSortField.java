@@ -0,0 +1,10 @@
+package ru.effective.tms.model.enums;
+
+/**
+ * Sort key for keyset pagination of tasks.
+ * Tasks with the same sort key are ordered by id.
+ */
+public enum TaskSortField {
+    ID,
+    TITLE
+}
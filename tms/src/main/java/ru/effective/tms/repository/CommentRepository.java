@@ -1,9 +1,75 @@
 package ru.effective.tms.repository;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.effective.tms.model.entity.Comment;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
-public interface CommentRepository extends JpaRepository<Comment, Long> {
+public interface CommentRepository
+        extends JpaRepository<Comment, Long>, CommentWriteRepository {
+    /**
+     * Page without count query.
+     *
+     * @param pageable page to find.
+     * @return {@link Slice} of {@link Comment}.
+     */
+    Slice<Comment> findAllBy(Pageable pageable);
+
+    /**
+     * Projection query without loading {@link Comment} entity.
+     *
+     * @param id {@link Comment} id.
+     * @return Optional author id of {@link Comment}.
+     */
+    @Query("select c.author.id from Comment c where c.id = :id")
+    Optional<Long> findAuthorIdById(@Param("id") Long id);
+
+    /**
+     * First keyset page of task comments with authors,
+     * ordered by creation time and id.
+     *
+     * @param taskId {@link Comment} task id.
+     * @param limit  max rows.
+     * @return ordered comments.
+     */
+    @Query("""
+            select c from Comment c left join fetch c.author
+            where c.task.id = :taskId
+            order by c.creationTime, c.id""")
+    List<Comment> findPageByTaskId(@Param("taskId") Long taskId, Limit limit);
+
+    /**
+     * Keyset page of task comments after cursor.
+     * Uses index on (task_id, creation_time, id).
+     *
+     * @param taskId       {@link Comment} task id.
+     * @param creationTime last comment creation time of previous page.
+     * @param id           last comment id of previous page.
+     * @param limit        max rows.
+     * @return ordered comments.
+     */
+    @Query("""
+            select c from Comment c left join fetch c.author
+            where c.task.id = :taskId
+              and (c.creationTime, c.id) > (:creationTime, :id)
+            order by c.creationTime, c.id""")
+    List<Comment> findPageByTaskIdAfter(@Param("taskId") Long taskId,
+                                        @Param("creationTime") Instant creationTime,
+                                        @Param("id") Long id,
+                                        Limit limit);
+
+    /**
+     * @param taskId {@link Comment} task id.
+     * @return number of task comments.
+     */
+    long countByTaskId(Long taskId);
 }
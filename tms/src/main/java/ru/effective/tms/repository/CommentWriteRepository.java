@@ -0,0 +1,22 @@
+package ru.effective.tms.repository;
+
+import org.springframework.transaction.annotation.Transactional;
+import ru.effective.tms.model.entity.Comment;
+
+/**
+ * Comment writes without loading related entities.
+ */
+public interface CommentWriteRepository {
+    /**
+     * Insert new comment with task and author references.
+     * Task and author are not loaded, missing task or author
+     * is reported by foreign key constraint.
+     *
+     * @param model    new {@link Comment}.
+     * @param taskId   comment task id.
+     * @param authorId comment author id.
+     * @return inserted {@link Comment}.
+     */
+    @Transactional
+    Comment insert(Comment model, Long taskId, Long authorId);
+}
@@ -0,0 +1,33 @@
+package ru.effective.tms.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.effective.tms.model.entity.OutboxEvent;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OutboxRepository extends JpaRepository<OutboxEvent, Long> {
+    /**
+     * Lock the oldest entries not locked by other transactions.
+     * Should be called in transaction, entries stay locked until its end.
+     *
+     * @param limit max entries.
+     * @return locked entries in id order.
+     */
+    @Query(value = """
+            select * from outbox
+            order by id
+            limit :limit
+            for update skip locked""",
+            nativeQuery = true)
+    List<OutboxEvent> findBatchForRelay(@Param("limit") int limit);
+
+    /**
+     * @return the oldest entry, locked or not.
+     */
+    Optional<OutboxEvent> findFirstByOrderByIdAsc();
+}
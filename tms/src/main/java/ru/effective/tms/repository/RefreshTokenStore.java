@@ -0,0 +1,73 @@
+package ru.effective.tms.repository;
+
+import ru.effective.tms.model.entity.security.RefreshToken;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Storage of {@link RefreshToken}.
+ *
+ * @see ru.effective.tms.repository.impl.IndexedRefreshTokenStore
+ * @see ru.effective.tms.repository.impl.CompactRefreshTokenStore
+ */
+public interface RefreshTokenStore {
+    /**
+     * Save new {@link RefreshToken}.
+     *
+     * @param refreshToken token to save.
+     * @return saved {@link RefreshToken}.
+     */
+    RefreshToken save(RefreshToken refreshToken);
+
+    /**
+     * @param token {@link RefreshToken} string value.
+     * @return Optional {@link RefreshToken}.
+     */
+    Optional<RefreshToken> findByToken(String token);
+
+    /**
+     * Consume old {@link RefreshToken} and save new one in one step.
+     * Only one concurrent caller consumes old token.
+     * New token gets owner of old token and is saved
+     * only if old token is not expired at now.
+     *
+     * @param oldToken old token string value.
+     * @param newToken new token without owner.
+     * @param now      time to check old token expiry.
+     * @return consumed old {@link RefreshToken},
+     * empty if it was not found or already consumed.
+     */
+    Optional<RefreshToken> rotate(String oldToken, RefreshToken newToken, Instant now);
+
+    /**
+     * @param userId token owner id.
+     * @return true if user has at least one {@link RefreshToken}.
+     */
+    boolean existsByUserId(Long userId);
+
+    /**
+     * Delete single {@link RefreshToken}.
+     *
+     * @param refreshToken token to delete.
+     */
+    void delete(RefreshToken refreshToken);
+
+    /**
+     * Delete all {@link RefreshToken} of user.
+     *
+     * @param userId token owner id.
+     */
+    void deleteAllByUserId(Long userId);
+
+    /**
+     * Remove expired tokens and orphaned index entries.
+     *
+     * @param batchSize  SCAN count hint and keys between pauses.
+     * @param maxKeys    max keys to check in one sweep.
+     * @param batchPause pause between batches.
+     * @return number of reclaimed keys and index entries.
+     */
+    long sweep(int batchSize, long maxKeys, Duration batchPause);
+}
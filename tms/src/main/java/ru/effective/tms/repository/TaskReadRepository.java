@@ -0,0 +1,52 @@
+package ru.effective.tms.repository;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Transactional;
+import ru.effective.tms.model.dto.task.TaskResponse;
+import ru.effective.tms.model.entity.Task;
+import ru.effective.tms.repository.query.TaskFilterQuery;
+
+import java.util.List;
+
+/**
+ * Task reads in two steps: page of ids, then tasks by ids with fetch plan.
+ * <br>
+ * Collections are fetched without pagination over join,
+ * so one page costs constant number of queries.
+ */
+public interface TaskReadRepository {
+    /**
+     * Find ids of tasks page.
+     *
+     * @param spec   filter, null for all tasks.
+     * @param sort   page order.
+     * @param offset first row.
+     * @param limit  max rows.
+     * @return ordered ids.
+     */
+    List<Long> findIds(Specification<Task> spec, Sort sort, long offset, int limit);
+
+    /**
+     * Find tasks by ids with named entity graph.
+     *
+     * @param ids       ordered task ids.
+     * @param graphName graph name, e.g. {@link Task#AUTHOR_PERFORMERS_GRAPH}.
+     * @return tasks in ids order.
+     */
+    List<Task> findAllByIds(List<Long> ids, String graphName);
+
+    /**
+     * Find page of tasks as {@link TaskResponse} projection.
+     * <br>
+     * Entities are not loaded into persistence context,
+     * performer ids are aggregated by database with array_agg.
+     *
+     * @param filterQuery filter conditions and page order.
+     * @param offset      first row.
+     * @param limit       max rows.
+     * @return ordered task responses.
+     */
+    @Transactional(readOnly = true)
+    List<TaskResponse> findResponses(TaskFilterQuery filterQuery, long offset, int limit);
+}
@@ -1,11 +1,44 @@
 package ru.effective.tms.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.effective.tms.model.entity.Task;
 
+import java.util.Optional;
+import java.util.Set;
+
 @Repository
 public interface TaskRepository
-        extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task> {
+        extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task>,
+        TaskReadRepository, TaskWriteRepository {
+    /**
+     * Find task with {@link Task#AUTHOR_PERFORMERS_GRAPH} fetch plan.
+     *
+     * @param id {@link Task} id.
+     * @return Optional {@link Task} with author and performers.
+     */
+    @EntityGraph(Task.AUTHOR_PERFORMERS_GRAPH)
+    Optional<Task> findDetailedById(Long id);
+
+    /**
+     * Projection query without loading {@link Task} entity.
+     *
+     * @param id {@link Task} id.
+     * @return Optional author id of {@link Task}.
+     */
+    @Query("select t.author.id from Task t where t.id = :id")
+    Optional<Long> findAuthorIdById(@Param("id") Long id);
+
+    /**
+     * Projection query without loading {@link Task} and performers.
+     *
+     * @param id {@link Task} id.
+     * @return performer ids of {@link Task}.
+     */
+    @Query("select p.id from Task t join t.performerList p where t.id = :id")
+    Set<Long> findPerformerIdsById(@Param("id") Long id);
 }
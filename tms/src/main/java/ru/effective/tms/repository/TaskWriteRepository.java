@@ -0,0 +1,32 @@
+package ru.effective.tms.repository;
+
+import org.springframework.transaction.annotation.Transactional;
+import ru.effective.tms.model.enums.Priority;
+import ru.effective.tms.model.enums.Status;
+import ru.effective.tms.repository.query.TaskFilterQuery;
+
+import java.util.Map;
+
+/**
+ * Set-based task changes without loading entities.
+ */
+public interface TaskWriteRepository {
+    /**
+     * Lock matching tasks until end of transaction and read their statuses.
+     *
+     * @param target tasks to lock.
+     * @return current status by task id, in id order.
+     */
+    Map<Long, Status> lockStatuses(TaskFilterQuery target);
+
+    /**
+     * Change status and priority of all matching tasks with one update.
+     *
+     * @param target   tasks to update.
+     * @param status   new status, not changed if null.
+     * @param priority new priority, not changed if null.
+     * @return number of updated tasks.
+     */
+    @Transactional
+    int updateAll(TaskFilterQuery target, Status status, Priority priority);
+}
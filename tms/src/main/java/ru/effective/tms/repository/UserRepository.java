@@ -1,13 +1,29 @@
 package ru.effective.tms.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import ru.effective.tms.model.entity.User;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+    /**
+     * Page without count query.
+     *
+     * @param pageable page to find.
+     * @return {@link Slice} of {@link User}.
+     */
+    Slice<User> findAllBy(Pageable pageable);
+
     /**
      * @param username {@link User} username.
      * @return Optional {@link User}.
@@ -52,4 +68,23 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return true if {@link User} with parameters exist.
      */
     boolean existsByUsernameAndIdNot(String username, Long id);
+
+    /**
+     * @param ids {@link User} ids to find.
+     * @return ids of existing {@link User}.
+     */
+    @Query("select u.id from User u where u.id in :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Update only {@link User} password.
+     * Used for password rehash on sign in.
+     *
+     * @param id       {@link User} id.
+     * @param password encoded password.
+     */
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = :password where u.id = :id")
+    void updatePassword(@Param("id") Long id, @Param("password") String password);
 }
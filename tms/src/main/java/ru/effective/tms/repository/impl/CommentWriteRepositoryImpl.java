@@ -0,0 +1,24 @@
+package ru.effective.tms.repository.impl;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import ru.effective.tms.model.entity.Comment;
+import ru.effective.tms.model.entity.Task;
+import ru.effective.tms.model.entity.User;
+import ru.effective.tms.repository.CommentWriteRepository;
+
+/**
+ * {@link CommentWriteRepository} with entity references.
+ */
+@RequiredArgsConstructor
+public class CommentWriteRepositoryImpl implements CommentWriteRepository {
+    private final EntityManager entityManager;
+
+    @Override
+    public Comment insert(Comment model, Long taskId, Long authorId) {
+        model.setTask(entityManager.getReference(Task.class, taskId));
+        model.setAuthor(entityManager.getReference(User.class, authorId));
+        entityManager.persist(model);
+        return model;
+    }
+}
@@ -0,0 +1,261 @@
+package ru.effective.tms.repository.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+import ru.effective.tms.model.entity.security.RefreshToken;
+import ru.effective.tms.repository.RefreshTokenStore;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * {@link RefreshTokenStore} with direct Redis keys.
+ * <br>
+ * {@value #TOKEN_KEY_PREFIX}{token} - hash with userId, username and expiryDate.
+ * <br>
+ * {@value #USER_KEY_PREFIX}{userId} - set of user tokens.
+ * <br>
+ * Both keys expire with Redis TTL, user set lives as long as
+ * the latest user token. Members of expired tokens are removed
+ * by {@link #sweep(int, long, Duration)}.
+ * Writes are Lua scripts, so token key and user set are changed together.
+ * Scripts get every key they touch in KEYS, key names are not built in Lua.
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(
+        name = "app.security.refresh-token.store",
+        havingValue = "compact"
+)
+public class CompactRefreshTokenStore implements RefreshTokenStore {
+    public static final String TOKEN_KEY_PREFIX = "refresh_token:";
+    public static final String USER_KEY_PREFIX = "user_refresh_tokens:";
+    private static final String FIELD_USER_ID = "userId";
+    private static final String FIELD_USERNAME = "username";
+    private static final String FIELD_EXPIRY_DATE = "expiryDate";
+    /**
+     * KEYS: token key, user key.
+     * ARGV: userId, username, expiry epoch millis, ttl millis, token.
+     */
+    private static final RedisScript<Long> SAVE_SCRIPT = RedisScript.of("""
+            redis.call('HSET', KEYS[1], 'userId', ARGV[1], 'username', ARGV[2],
+                    'expiryDate', ARGV[3])
+            redis.call('PEXPIRE', KEYS[1], ARGV[4])
+            redis.call('SADD', KEYS[2], ARGV[5])
+            if redis.call('PTTL', KEYS[2]) < tonumber(ARGV[4]) then
+                redis.call('PEXPIRE', KEYS[2], ARGV[4])
+            end
+            return 1
+            """, Long.class);
+    /**
+     * KEYS: old token key, new token key, user key.
+     * ARGV: old token, new token, new expiry epoch millis, ttl millis,
+     * now epoch millis, userId read before the script.
+     * Returns userId, username and expiryDate of old token,
+     * nil if token is consumed or belongs to other user.
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> ROTATE_SCRIPT = RedisScript.of("""
+            local old = redis.call('HMGET', KEYS[1], 'userId', 'username', 'expiryDate')
+            if not old[1] or old[1] ~= ARGV[6] then
+                return nil
+            end
+            local username = old[2] or ''
+            redis.call('DEL', KEYS[1])
+            redis.call('SREM', KEYS[3], ARGV[1])
+            if tonumber(old[3]) > tonumber(ARGV[5]) then
+                redis.call('HSET', KEYS[2], 'userId', old[1], 'username', username,
+                        'expiryDate', ARGV[3])
+                redis.call('PEXPIRE', KEYS[2], ARGV[4])
+                redis.call('SADD', KEYS[3], ARGV[2])
+                if redis.call('PTTL', KEYS[3]) < tonumber(ARGV[4]) then
+                    redis.call('PEXPIRE', KEYS[3], ARGV[4])
+                end
+            end
+            return {old[1], username, old[3]}
+            """, List.class);
+    /**
+     * KEYS: token key, user key.
+     * ARGV: token.
+     */
+    private static final RedisScript<Long> DELETE_SCRIPT = RedisScript.of("""
+            redis.call('SREM', KEYS[2], ARGV[1])
+            return redis.call('DEL', KEYS[1])
+            """, Long.class);
+    /**
+     * KEYS: user key, then token keys of user set members.
+     * ARGV: tokens in the same order as token keys.
+     * Tokens added after members were read stay in user set.
+     */
+    private static final RedisScript<Long> DELETE_BY_USER_SCRIPT = RedisScript.of("""
+            for i = 2, #KEYS do
+                redis.call('DEL', KEYS[i])
+                redis.call('SREM', KEYS[1], ARGV[i - 1])
+            end
+            return #KEYS - 1
+            """, Long.class);
+    private final StringRedisTemplate redisTemplate;
+
+    @Override
+    public RefreshToken save(RefreshToken refreshToken) {
+        long expiryMillis = refreshToken.getExpiryDate().toEpochMilli();
+        long ttlMillis = expiryMillis - System.currentTimeMillis();
+        if (ttlMillis <= 0) {
+            return refreshToken;
+        }
+        redisTemplate.execute(
+                SAVE_SCRIPT,
+                List.of(tokenKey(refreshToken.getToken()),
+                        userKey(refreshToken.getUserId())),
+                refreshToken.getUserId().toString(),
+                nullToEmpty(refreshToken.getUsername()),
+                String.valueOf(expiryMillis),
+                String.valueOf(ttlMillis),
+                refreshToken.getToken()
+        );
+        return refreshToken;
+    }
+
+    @Override
+    public Optional<RefreshToken> findByToken(String token) {
+        Map<Object, Object> fields =
+                redisTemplate.opsForHash().entries(tokenKey(token));
+        if (fields.isEmpty()) {
+            return Optional.empty();
+        }
+        Object username = fields.get(FIELD_USERNAME);
+        return Optional.of(toRefreshToken(
+                token,
+                fields.get(FIELD_USER_ID).toString(),
+                username == null ? null : username.toString(),
+                fields.get(FIELD_EXPIRY_DATE).toString()
+        ));
+    }
+
+    @Override
+    public Optional<RefreshToken> rotate(String oldToken,
+                                         RefreshToken newToken,
+                                         Instant now) {
+        Object userId = redisTemplate.opsForHash().get(tokenKey(oldToken), FIELD_USER_ID);
+        if (userId == null) {
+            return Optional.empty();
+        }
+        long expiryMillis = newToken.getExpiryDate().toEpochMilli();
+        List<?> old = redisTemplate.execute(
+                ROTATE_SCRIPT,
+                List.of(tokenKey(oldToken),
+                        tokenKey(newToken.getToken()),
+                        USER_KEY_PREFIX + userId),
+                oldToken,
+                newToken.getToken(),
+                String.valueOf(expiryMillis),
+                String.valueOf(expiryMillis - now.toEpochMilli()),
+                String.valueOf(now.toEpochMilli()),
+                userId.toString()
+        );
+        if (old == null || old.isEmpty() || old.get(0) == null) {
+            return Optional.empty();
+        }
+        RefreshToken consumed = toRefreshToken(
+                oldToken,
+                old.get(0).toString(),
+                old.get(1).toString(),
+                old.get(2).toString()
+        );
+        newToken.setUserId(consumed.getUserId());
+        newToken.setUsername(consumed.getUsername());
+        return Optional.of(consumed);
+    }
+
+    @Override
+    public boolean existsByUserId(Long userId) {
+        return Boolean.TRUE.equals(redisTemplate.hasKey(userKey(userId)));
+    }
+
+    @Override
+    public void delete(RefreshToken refreshToken) {
+        redisTemplate.execute(
+                DELETE_SCRIPT,
+                List.of(tokenKey(refreshToken.getToken()),
+                        userKey(refreshToken.getUserId())),
+                refreshToken.getToken()
+        );
+    }
+
+    @Override
+    public void deleteAllByUserId(Long userId) {
+        String userKey = userKey(userId);
+        Set<String> members = redisTemplate.opsForSet().members(userKey);
+        if (members == null || members.isEmpty()) {
+            return;
+        }
+        List<String> tokens = List.copyOf(members);
+        List<String> keys = new ArrayList<>(tokens.size() + 1);
+        keys.add(userKey);
+        tokens.forEach(token -> keys.add(tokenKey(token)));
+        redisTemplate.execute(DELETE_BY_USER_SCRIPT, keys, tokens.toArray());
+    }
+
+    /**
+     * Expired tokens leave Redis with TTL.
+     * Only user set members of expired tokens are removed.
+     */
+    @Override
+    public long sweep(int batchSize, long maxKeys, Duration batchPause) {
+        return RedisSweepSupport.scan(
+                redisTemplate,
+                USER_KEY_PREFIX + "*",
+                batchSize,
+                maxKeys,
+                batchPause,
+                this::sweepUserTokens
+        );
+    }
+
+    private long sweepUserTokens(String userKey) {
+        Set<String> tokens = redisTemplate.opsForSet().members(userKey);
+        if (tokens == null) {
+            return 0;
+        }
+        Object[] expired = tokens.stream()
+                .filter(token -> !Boolean.TRUE.equals(redisTemplate.hasKey(tokenKey(token))))
+                .toArray();
+        if (expired.length == 0) {
+            return 0;
+        }
+        Long removed = redisTemplate.opsForSet().remove(userKey, expired);
+        return removed == null ? 0 : removed;
+    }
+
+    private static RefreshToken toRefreshToken(String token,
+                                               String userId,
+                                               String username,
+                                               String expiryDate) {
+        return RefreshToken.builder()
+                .userId(Long.valueOf(userId))
+                .username(username == null || username.isEmpty() ? null : username)
+                .token(token)
+                .expiryDate(Instant.ofEpochMilli(Long.parseLong(expiryDate)))
+                .build();
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    private static String tokenKey(String token) {
+        return TOKEN_KEY_PREFIX + token;
+    }
+
+    private static String userKey(Long userId) {
+        return USER_KEY_PREFIX + userId;
+    }
+}
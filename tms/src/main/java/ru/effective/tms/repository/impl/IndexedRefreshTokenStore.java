@@ -0,0 +1,229 @@
+package ru.effective.tms.repository.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+import ru.effective.tms.model.entity.security.RefreshToken;
+import ru.effective.tms.repository.RefreshTokenRepository;
+import ru.effective.tms.repository.RefreshTokenStore;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * {@link RefreshTokenStore} on {@link RefreshTokenRepository}.
+ * <br>
+ * Tokens are stored as {@code @RedisHash} with secondary indexes
+ * and without Redis expiration.
+ * Default store.
+ * <br>
+ * Keyspace layout of {@code @RedisHash("refresh_tokens")}:
+ * refresh_tokens - set of ids,
+ * refresh_tokens:{id} - token hash,
+ * refresh_tokens:{id}:idx - index keys of token,
+ * refresh_tokens:{field}:{value} - index sets of ids.
+ * <br>
+ * Sweep changes only keys of this layout, other keys are skipped.
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(
+        name = "app.security.refresh-token.store",
+        havingValue = "indexed",
+        matchIfMissing = true
+)
+public class IndexedRefreshTokenStore implements RefreshTokenStore {
+    public static final String KEYSPACE = "refresh_tokens";
+    private static final String KEY_PREFIX = KEYSPACE + ":";
+    private static final Pattern TOKEN_KEY = Pattern.compile("-?\\d+");
+    private static final Pattern TOKEN_INDEX_KEY = Pattern.compile("-?\\d+:idx");
+    /**
+     * Key prefixes of index sets, one per {@code @Indexed} field.
+     */
+    private static final List<String> INDEX_KEY_PREFIXES = Stream.of(
+                    RefreshToken.Fields.id,
+                    RefreshToken.Fields.userId,
+                    RefreshToken.Fields.token,
+                    RefreshToken.Fields.expiryDate)
+            .map(field -> KEY_PREFIX + field + ":")
+            .toList();
+    /**
+     * Rotation claim key prefix, outside of {@link #KEYSPACE}.
+     */
+    private static final String ROTATION_KEY_PREFIX = "refresh_token_rotation:";
+    private static final Duration ROTATION_CLAIM_TTL = Duration.ofMinutes(1);
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final StringRedisTemplate redisTemplate;
+
+    @Override
+    public RefreshToken save(RefreshToken refreshToken) {
+        return refreshTokenRepository.save(refreshToken);
+    }
+
+    @Override
+    public Optional<RefreshToken> findByToken(String token) {
+        return refreshTokenRepository.findByToken(token);
+    }
+
+    /**
+     * Repository writes are not atomic, so old token is claimed
+     * with SET NX first and only claim owner rotates it.
+     */
+    @Override
+    public Optional<RefreshToken> rotate(String oldToken,
+                                         RefreshToken newToken,
+                                         Instant now) {
+        Optional<RefreshToken> found = refreshTokenRepository.findByToken(oldToken);
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        Boolean claimed = redisTemplate.opsForValue().setIfAbsent(
+                ROTATION_KEY_PREFIX + oldToken, "1", ROTATION_CLAIM_TTL
+        );
+        if (!Boolean.TRUE.equals(claimed)) {
+            return Optional.empty();
+        }
+        RefreshToken consumed = found.get();
+        refreshTokenRepository.delete(consumed);
+        if (consumed.getExpiryDate().isAfter(now)) {
+            newToken.setUserId(consumed.getUserId());
+            newToken.setUsername(consumed.getUsername());
+            refreshTokenRepository.save(newToken);
+        }
+        return Optional.of(consumed);
+    }
+
+    @Override
+    public boolean existsByUserId(Long userId) {
+        return Boolean.TRUE.equals(refreshTokenRepository.existsByUserId(userId));
+    }
+
+    @Override
+    public void delete(RefreshToken refreshToken) {
+        refreshTokenRepository.delete(refreshToken);
+    }
+
+    @Override
+    public void deleteAllByUserId(Long userId) {
+        refreshTokenRepository.deleteAll(
+                refreshTokenRepository.findAllByUserId(userId)
+        );
+    }
+
+    /**
+     * Delete expired tokens with Spring Data, so their index entries
+     * are removed too. Then remove ids without token hash
+     * from index sets and from keyspace set.
+     */
+    @Override
+    public long sweep(int batchSize, long maxKeys, Duration batchPause) {
+        Instant now = Instant.now();
+        long reclaimed = RedisSweepSupport.scan(
+                redisTemplate,
+                KEY_PREFIX + "*",
+                batchSize,
+                maxKeys,
+                batchPause,
+                key -> sweepKey(key, now)
+        );
+        return reclaimed + sweepKeyspaceSet(batchSize, maxKeys);
+    }
+
+    private long sweepKey(String key, Instant now) {
+        String suffix = key.substring(KEY_PREFIX.length());
+        if (TOKEN_KEY.matcher(suffix).matches()) {
+            return sweepToken(key, suffix, now);
+        }
+        if (TOKEN_INDEX_KEY.matcher(suffix).matches()) {
+            String tokenKey = key.substring(0, key.length() - ":idx".length());
+            return exists(tokenKey) ? 0 : delete(key);
+        }
+        if (isIndexKey(key)) {
+            return sweepIndex(key);
+        }
+        log.debug("Skip not refresh token key {}.", key);
+        return 0;
+    }
+
+    private static boolean isIndexKey(String key) {
+        for (String prefix : INDEX_KEY_PREFIXES) {
+            if (key.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long sweepToken(String key, String id, Instant now) {
+        Object expiryDate = redisTemplate.opsForHash()
+                .get(key, RefreshToken.Fields.expiryDate);
+        if (expiryDate == null) {
+            return 0;
+        }
+        try {
+            if (Instant.parse(expiryDate.toString()).isAfter(now)) {
+                return 0;
+            }
+        } catch (DateTimeParseException e) {
+            log.warn("Skip refresh token {} with incorrect expiryDate.", key);
+            return 0;
+        }
+        refreshTokenRepository.deleteById(Long.valueOf(id));
+        return 1;
+    }
+
+    private long sweepIndex(String indexKey) {
+        Set<String> ids = redisTemplate.opsForSet().members(indexKey);
+        if (ids == null || ids.isEmpty()) {
+            return 0;
+        }
+        Object[] orphaned = ids.stream()
+                .filter(id -> !exists(KEY_PREFIX + id))
+                .toArray();
+        if (orphaned.length == 0) {
+            return 0;
+        }
+        Long removed = redisTemplate.opsForSet().remove(indexKey, orphaned);
+        return removed == null ? 0 : removed;
+    }
+
+    private long sweepKeyspaceSet(int batchSize, long maxKeys) {
+        List<Object> orphaned = new ArrayList<>();
+        ScanOptions options = ScanOptions.scanOptions().count(batchSize).build();
+        long scanned = 0;
+        try (Cursor<String> cursor = redisTemplate.opsForSet().scan(KEYSPACE, options)) {
+            while (cursor.hasNext() && scanned < maxKeys) {
+                String id = cursor.next();
+                scanned++;
+                if (!exists(KEY_PREFIX + id)) {
+                    orphaned.add(id);
+                }
+            }
+        }
+        if (orphaned.isEmpty()) {
+            return 0;
+        }
+        Long removed = redisTemplate.opsForSet().remove(KEYSPACE, orphaned.toArray());
+        return removed == null ? 0 : removed;
+    }
+
+    private boolean exists(String key) {
+        return Boolean.TRUE.equals(redisTemplate.hasKey(key));
+    }
+
+    private long delete(String key) {
+        return Boolean.TRUE.equals(redisTemplate.delete(key)) ? 1 : 0;
+    }
+}
@@ -0,0 +1,65 @@
+package ru.effective.tms.repository.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.function.ToLongFunction;
+
+/**
+ * Rate limited SCAN loop for refresh token sweeping.
+ */
+@Slf4j
+final class RedisSweepSupport {
+    private RedisSweepSupport() {
+    }
+
+    /**
+     * Scan keys by pattern and apply action to each key.
+     *
+     * @param redisTemplate Redis template.
+     * @param pattern       SCAN match pattern.
+     * @param batchSize     SCAN count hint and keys between pauses.
+     * @param maxKeys       max keys to scan.
+     * @param batchPause    pause between batches.
+     * @param action        key action, returns number of reclaimed entries.
+     * @return sum of reclaimed entries.
+     */
+    static long scan(StringRedisTemplate redisTemplate,
+                     String pattern,
+                     int batchSize,
+                     long maxKeys,
+                     Duration batchPause,
+                     ToLongFunction<String> action) {
+        ScanOptions options = ScanOptions.scanOptions()
+                .match(pattern)
+                .count(batchSize)
+                .build();
+        long scanned = 0;
+        long reclaimed = 0;
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            while (cursor.hasNext() && scanned < maxKeys) {
+                reclaimed += action.applyAsLong(cursor.next());
+                scanned++;
+                if (scanned % batchSize == 0) {
+                    pause(batchPause);
+                }
+            }
+        }
+        log.info("Refresh token sweep scanned {} keys by {}.", scanned, pattern);
+        return reclaimed;
+    }
+
+    private static void pause(Duration batchPause) {
+        if (batchPause.isZero() || batchPause.isNegative()) {
+            return;
+        }
+        try {
+            Thread.sleep(batchPause.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
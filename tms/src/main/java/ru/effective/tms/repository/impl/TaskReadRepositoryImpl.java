@@ -0,0 +1,122 @@
+package ru.effective.tms.repository.impl;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.FlushModeType;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import ru.effective.tms.model.dto.task.TaskResponse;
+import ru.effective.tms.model.entity.Task;
+import ru.effective.tms.model.enums.Priority;
+import ru.effective.tms.model.enums.Status;
+import ru.effective.tms.repository.TaskReadRepository;
+import ru.effective.tms.repository.query.TaskFilterQuery;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * {@link TaskReadRepository} with Criteria API, entity graphs
+ * and projections by {@link TaskFilterQuery} JPQL.
+ */
+@RequiredArgsConstructor
+public class TaskReadRepositoryImpl implements TaskReadRepository {
+    private final EntityManager entityManager;
+
+    @Override
+    public List<Long> findIds(Specification<Task> spec,
+                              Sort sort,
+                              long offset,
+                              int limit) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<Task> root = query.from(Task.class);
+        query.select(root.get(Task.Fields.id));
+        applySpecification(spec, root, query, criteriaBuilder);
+        query.orderBy(QueryUtils.toOrders(sort, root, criteriaBuilder));
+        return entityManager.createQuery(query)
+                .setFirstResult(Math.toIntExact(offset))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<TaskResponse> findResponses(TaskFilterQuery filterQuery,
+                                            long offset,
+                                            int limit) {
+        return filterQuery.bind(entityManager.createQuery(
+                        filterQuery.responsesJpql(), Object[].class))
+                .setFlushMode(FlushModeType.COMMIT)
+                .setFirstResult(Math.toIntExact(offset))
+                .setMaxResults(limit)
+                .getResultStream()
+                .map(row -> new TaskResponse(
+                        (Long) row[0],
+                        (String) row[1],
+                        (String) row[2],
+                        (Status) row[3],
+                        (Priority) row[4],
+                        (Long) row[5],
+                        toPerformerIds((Object[]) row[6])
+                ))
+                .toList();
+    }
+
+    @Override
+    public List<Task> findAllByIds(List<Long> ids, String graphName) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Task> tasksById = entityManager
+                .createQuery("select t from Task t where t.id in :ids", Task.class)
+                .setParameter("ids", ids)
+                .setHint(SpecHints.HINT_SPEC_FETCH_GRAPH,
+                        entityManager.getEntityGraph(graphName))
+                .getResultStream()
+                .collect(Collectors.toMap(Task::getId, Function.identity(),
+                        (first, duplicate) -> first));
+        return ids.stream()
+                .map(tasksById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private static void applySpecification(Specification<Task> spec,
+                                           Root<Task> root,
+                                           CriteriaQuery<?> query,
+                                           CriteriaBuilder criteriaBuilder) {
+        if (spec == null) {
+            return;
+        }
+        Predicate predicate = spec.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+
+    /**
+     * Task without performers is aggregated to array with single null.
+     *
+     * @param performerIds aggregated performer ids.
+     * @return performer ids without nulls.
+     */
+    private static List<Long> toPerformerIds(Object[] performerIds) {
+        if (performerIds == null) {
+            return List.of();
+        }
+        return Arrays.stream(performerIds)
+                .filter(Objects::nonNull)
+                .map(Long.class::cast)
+                .toList();
+    }
+}
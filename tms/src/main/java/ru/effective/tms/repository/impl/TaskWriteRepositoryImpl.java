@@ -0,0 +1,44 @@
+package ru.effective.tms.repository.impl;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.Query;
+import lombok.RequiredArgsConstructor;
+import ru.effective.tms.model.enums.Priority;
+import ru.effective.tms.model.enums.Status;
+import ru.effective.tms.repository.TaskWriteRepository;
+import ru.effective.tms.repository.query.TaskFilterQuery;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@link TaskWriteRepository} with {@link TaskFilterQuery} JPQL updates.
+ */
+@RequiredArgsConstructor
+public class TaskWriteRepositoryImpl implements TaskWriteRepository {
+    private final EntityManager entityManager;
+
+    @Override
+    public Map<Long, Status> lockStatuses(TaskFilterQuery target) {
+        Map<Long, Status> statuses = new LinkedHashMap<>();
+        target.bind(entityManager.createQuery(target.statusesJpql(), Object[].class))
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultStream()
+                .forEach(row -> statuses.put((Long) row[0], (Status) row[1]));
+        return statuses;
+    }
+
+    @Override
+    public int updateAll(TaskFilterQuery target, Status status, Priority priority) {
+        Query query = target.bind(entityManager.createQuery(
+                target.updateJpql(status != null, priority != null)));
+        if (status != null) {
+            query.setParameter(TaskFilterQuery.NEW_STATUS, status);
+        }
+        if (priority != null) {
+            query.setParameter(TaskFilterQuery.NEW_PRIORITY, priority);
+        }
+        return query.executeUpdate();
+    }
+}
@@ -0,0 +1,402 @@
+package ru.effective.tms.repository.query;
+
+import jakarta.persistence.Query;
+import ru.effective.tms.config.AnyArrayFunctionContributor;
+import ru.effective.tms.config.TaskSearchFunctionContributor;
+import ru.effective.tms.model.dto.TaskCursor;
+import ru.effective.tms.model.dto.TaskFilter;
+import ru.effective.tms.model.entity.Task;
+import ru.effective.tms.model.enums.TaskSortField;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * {@link TaskFilter} as JPQL with parameters.
+ * <br>
+ * Shape is set of present filter fields and page order.
+ * JPQL of recently used shapes is cached, at most {@value #MAX_CACHED_SHAPES}
+ * per query kind, so Hibernate reuses query plan and JDBC driver
+ * reuses server side prepared statement.
+ * Values are always bound as parameters,
+ * multi-value fields as one array parameter.
+ */
+public final class TaskFilterQuery {
+    /**
+     * Task response projection, performer ids are aggregated by array_agg.
+     * Hibernate accepts array_agg only with within group clause.
+     */
+    private static final String SELECT_RESPONSES = """
+            select t.id, t.title, t.description, t.currentStatus,
+                   t.currentPriority, t.author.id,
+                   array_agg(pl.id) within group (order by pl.id)
+            from Task t left join t.performerList pl""";
+    /**
+     * Group by columns of {@link #SELECT_RESPONSES}.
+     */
+    private static final String GROUP_BY_RESPONSES = """
+            t.id, t.title, t.description, t.currentStatus,
+            t.currentPriority, t.author.id""";
+    /**
+     * Cache size of every query kind, least recently used shape is evicted.
+     */
+    private static final int MAX_CACHED_SHAPES = 1 << 7;
+    /**
+     * JPQL by shape key.
+     *
+     * @see #shapeKey()
+     */
+    private static final Map<Integer, String> JPQL_BY_SHAPE = boundedCache();
+    /**
+     * Update JPQL by conditions bits and set fields.
+     *
+     * @see #updateJpql(boolean, boolean)
+     */
+    private static final Map<Integer, String> UPDATE_JPQL_BY_SHAPE = boundedCache();
+    /**
+     * Status select JPQL by conditions bits.
+     *
+     * @see #statusesJpql()
+     */
+    private static final Map<Integer, String> STATUSES_JPQL_BY_SHAPE = boundedCache();
+    /**
+     * Parameter of new status in {@link #updateJpql(boolean, boolean)}.
+     */
+    public static final String NEW_STATUS = "newStatus";
+    /**
+     * Parameter of new priority in {@link #updateJpql(boolean, boolean)}.
+     */
+    public static final String NEW_PRIORITY = "newPriority";
+    private final Set<Condition> conditions;
+    private final Order order;
+    private final Map<String, Object> parameters;
+
+    private TaskFilterQuery(Set<Condition> conditions,
+                            Order order,
+                            Map<String, Object> parameters) {
+        this.conditions = conditions;
+        this.order = order;
+        this.parameters = parameters;
+    }
+
+    /**
+     * Query of all tasks ordered by id.
+     *
+     * @return query without conditions.
+     */
+    public static TaskFilterQuery all() {
+        return new TaskFilterQuery(EnumSet.noneOf(Condition.class), Order.ID, Map.of());
+    }
+
+    /**
+     * Query of tasks by ids, one array parameter for any number of ids.
+     *
+     * @param ids task ids.
+     * @return query with ids condition.
+     */
+    public static TaskFilterQuery ofIds(Collection<Long> ids) {
+        Set<Condition> conditions = EnumSet.noneOf(Condition.class);
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        add(conditions, parameters, Condition.IDS, ids.toArray(Long[]::new));
+        return new TaskFilterQuery(conditions, Order.ID, parameters);
+    }
+
+    /**
+     * Query of filtered tasks ordered by id,
+     * by relevance if search query is present.
+     *
+     * @param filter task filter.
+     * @return query with filter conditions.
+     */
+    public static TaskFilterQuery of(TaskFilter filter) {
+        return create(filter, null, toPrefixTsQuery(filter.getQ()) == null
+                ? Order.ID
+                : Order.RELEVANCE);
+    }
+
+    /**
+     * Query of filtered tasks after keyset cursor.
+     *
+     * @param filter task filter.
+     * @param cursor decoded cursor, null for the first page.
+     * @param sortBy keyset sort key.
+     * @return query with filter and cursor conditions.
+     */
+    public static TaskFilterQuery of(TaskFilter filter, TaskCursor cursor, TaskSortField sortBy) {
+        return create(filter, cursor, switch (sortBy) {
+            case ID -> Order.ID;
+            case TITLE -> Order.TITLE;
+        });
+    }
+
+    private static TaskFilterQuery create(TaskFilter filter, TaskCursor cursor, Order order) {
+        Set<Condition> conditions = EnumSet.noneOf(Condition.class);
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        add(conditions, parameters, Condition.ID, filter.getId());
+        add(conditions, parameters, Condition.TITLE, filter.getTitle());
+        add(conditions, parameters, Condition.DESCRIPTION, filter.getDescription());
+        add(conditions, parameters, Condition.CURRENT_STATUS, filter.getCurrentStatus());
+        add(conditions, parameters, Condition.CURRENT_PRIORITY, filter.getCurrentPriority());
+        add(conditions, parameters, Condition.AUTHOR_ID, filter.getAuthorId());
+        add(conditions, parameters, Condition.PERFORMER_ID, filter.getPerformerId());
+        add(conditions, parameters, Condition.CURRENT_STATUSES,
+                toNames(filter.getCurrentStatuses()));
+        add(conditions, parameters, Condition.CURRENT_PRIORITIES,
+                toNames(filter.getCurrentPriorities()));
+        add(conditions, parameters, Condition.PERFORMER_IDS,
+                filter.getPerformerIds() == null || filter.getPerformerIds().isEmpty()
+                        ? null
+                        : filter.getPerformerIds().toArray(Long[]::new));
+        String tsQuery = toPrefixTsQuery(filter.getQ());
+        add(conditions, parameters, Condition.SEARCH, tsQuery);
+        if (order == Order.RELEVANCE && tsQuery == null) {
+            order = Order.ID;
+        }
+        if (cursor != null) {
+            Condition after = cursor.sortBy() == TaskSortField.ID
+                    ? Condition.AFTER_ID
+                    : cursor.title() == null
+                    ? Condition.AFTER_NULL_TITLE
+                    : Condition.AFTER_TITLE;
+            conditions.add(after);
+            parameters.put("cursorId", cursor.id());
+            if (after == Condition.AFTER_TITLE) {
+                parameters.put("cursorTitle", cursor.title());
+            }
+        }
+        return new TaskFilterQuery(conditions, order, parameters);
+    }
+
+    /**
+     * @return JPQL of {@link #SELECT_RESPONSES} rows for the shape.
+     */
+    public String responsesJpql() {
+        return JPQL_BY_SHAPE.computeIfAbsent(shapeKey(), key ->
+                SELECT_RESPONSES + whereClause()
+                        + " group by " + GROUP_BY_RESPONSES + order.jpql);
+    }
+
+    /**
+     * Same query restricted to tasks of author.
+     *
+     * @param authorId task author id.
+     * @return new query with owner condition.
+     */
+    public TaskFilterQuery ownedBy(Long authorId) {
+        Set<Condition> ownedConditions = EnumSet.copyOf(conditions);
+        Map<String, Object> ownedParameters = new LinkedHashMap<>(parameters);
+        add(ownedConditions, ownedParameters, Condition.OWNER_ID, authorId);
+        return new TaskFilterQuery(ownedConditions, order, ownedParameters);
+    }
+
+    /**
+     * Set-based update of tasks matching conditions.
+     * New values are parameters {@value #NEW_STATUS} and {@value #NEW_PRIORITY}.
+     *
+     * @param setStatus   update status.
+     * @param setPriority update priority.
+     * @return JPQL update for the shape.
+     */
+    public String updateJpql(boolean setStatus, boolean setPriority) {
+        if (!setStatus && !setPriority) {
+            throw new IllegalArgumentException("Nothing to update.");
+        }
+        int key = conditionBits() * 4 + (setStatus ? 2 : 0) + (setPriority ? 1 : 0);
+        return UPDATE_JPQL_BY_SHAPE.computeIfAbsent(key, k -> {
+            StringBuilder jpql = new StringBuilder("update Task t set ");
+            if (setStatus) {
+                jpql.append("t.currentStatus = :" + NEW_STATUS);
+            }
+            if (setPriority) {
+                jpql.append(setStatus ? ", " : "")
+                        .append("t.currentPriority = :" + NEW_PRIORITY);
+            }
+            return jpql.append(whereClause()).toString();
+        });
+    }
+
+    /**
+     * Ids and statuses of tasks matching conditions, ordered by id,
+     * so rows are locked in the same order by concurrent updates.
+     *
+     * @return JPQL of id and currentStatus rows for the shape.
+     */
+    public String statusesJpql() {
+        return STATUSES_JPQL_BY_SHAPE.computeIfAbsent(conditionBits(), key ->
+                "select t.id, t.currentStatus from Task t" + whereClause() + " order by t.id");
+    }
+
+    /**
+     * Bind filter values to query created from {@link #responsesJpql()},
+     * {@link #statusesJpql()} or {@link #updateJpql(boolean, boolean)}.
+     *
+     * @param query query to bind.
+     * @param <Q>   query type.
+     * @return the same query.
+     */
+    public <Q extends Query> Q bind(Q query) {
+        parameters.forEach(query::setParameter);
+        return query;
+    }
+
+    public Order order() {
+        return order;
+    }
+
+    /**
+     * @return true if query selects not all tasks.
+     */
+    public boolean hasConditions() {
+        return !conditions.isEmpty();
+    }
+
+    /**
+     * Search query to prefix tsquery: {@code "word1:* & word2:*"}.
+     * Only letters and digits are kept, so tsquery syntax can not be injected.
+     *
+     * @param q search query.
+     * @return tsquery or null if query has no words.
+     */
+    public static String toPrefixTsQuery(String q) {
+        if (q == null) {
+            return null;
+        }
+        String tsQuery = Arrays.stream(q.split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .map(word -> word.toLowerCase(Locale.ROOT) + ":*")
+                .collect(Collectors.joining(" & "));
+        return tsQuery.isEmpty() ? null : tsQuery;
+    }
+
+    /**
+     * Synchronized access ordered map of {@value #MAX_CACHED_SHAPES} entries.
+     */
+    private static Map<Integer, String> boundedCache() {
+        return Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, String> eldest) {
+                return size() > MAX_CACHED_SHAPES;
+            }
+        });
+    }
+
+    /**
+     * Conditions bits, then order.
+     */
+    private int shapeKey() {
+        return conditionBits() * Order.values().length + order.ordinal();
+    }
+
+    private int conditionBits() {
+        int bits = 0;
+        for (Condition condition : conditions) {
+            bits |= 1 << condition.ordinal();
+        }
+        return bits;
+    }
+
+    private String whereClause() {
+        if (conditions.isEmpty()) {
+            return "";
+        }
+        return conditions.stream()
+                .map(condition -> condition.jpql)
+                .collect(Collectors.joining(" and ", " where ", ""));
+    }
+
+    private static void add(Set<Condition> conditions,
+                            Map<String, Object> parameters,
+                            Condition condition,
+                            Object value) {
+        if (value != null) {
+            conditions.add(condition);
+            parameters.put(condition.parameter, value);
+        }
+    }
+
+    /**
+     * Enum values as names for array parameter of enum string column.
+     */
+    private static String[] toNames(Collection<? extends Enum<?>> values) {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        return values.stream()
+                .map(Enum::name)
+                .toArray(String[]::new);
+    }
+
+    /**
+     * Page order.
+     */
+    public enum Order {
+        ID(" order by t.id"),
+        /**
+         * Tasks without title are last as in Postgres ascending order.
+         */
+        TITLE(" order by t.title asc nulls last, t.id"),
+        /**
+         * Search query relevance, only with {@link Condition#SEARCH}.
+         */
+        RELEVANCE(" order by " + TaskSearchFunctionContributor.RANK + "(t.id, :q) desc, t.id");
+
+        private final String jpql;
+
+        Order(String jpql) {
+            this.jpql = jpql;
+        }
+    }
+
+    /**
+     * Filter condition of {@link Task} with alias t.
+     * Ordinal is bit of shape key.
+     */
+    private enum Condition {
+        ID("id", "t.id = :id"),
+        TITLE("title", "t.title = :title"),
+        DESCRIPTION("description", "t.description = :description"),
+        CURRENT_STATUS("currentStatus", "t.currentStatus = :currentStatus"),
+        CURRENT_PRIORITY("currentPriority", "t.currentPriority = :currentPriority"),
+        AUTHOR_ID("authorId", "t.author.id = :authorId"),
+        /**
+         * EXISTS on user_task, task rows are not multiplied by join.
+         */
+        PERFORMER_ID("performerId",
+                "exists (select 1 from t.performerList p where p.id = :performerId)"),
+        CURRENT_STATUSES("currentStatuses", AnyArrayFunctionContributor.ANY_OF
+                + "(t.currentStatus, :currentStatuses) = true"),
+        CURRENT_PRIORITIES("currentPriorities", AnyArrayFunctionContributor.ANY_OF
+                + "(t.currentPriority, :currentPriorities) = true"),
+        PERFORMER_IDS("performerIds", "exists (select 1 from t.performerList p where "
+                + AnyArrayFunctionContributor.ANY_OF + "(p.id, :performerIds) = true)"),
+        /**
+         * Full-text search, uses GIN index on tasks.search_vector.
+         */
+        SEARCH("q", TaskSearchFunctionContributor.MATCH + "(t.id, :q) = true"),
+        AFTER_ID("cursorId", "t.id > :cursorId"),
+        AFTER_TITLE("cursorTitle", "(t.title > :cursorTitle"
+                + " or (t.title = :cursorTitle and t.id > :cursorId)"
+                + " or t.title is null)"),
+        AFTER_NULL_TITLE("cursorId", "(t.title is null and t.id > :cursorId)"),
+        IDS("ids", AnyArrayFunctionContributor.ANY_OF + "(t.id, :ids) = true"),
+        /**
+         * Ownership check in SQL instead of loading every task.
+         */
+        OWNER_ID("ownerId", "t.author.id = :ownerId");
+
+        private final String parameter;
+        private final String jpql;
+
+        Condition(String parameter, String jpql) {
+            this.parameter = parameter;
+            this.jpql = jpql;
+        }
+    }
+}
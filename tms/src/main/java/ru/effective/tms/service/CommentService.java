@@ -1,6 +1,32 @@
 package ru.effective.tms.service;
 
+import ru.effective.tms.model.dto.CursorPage;
 import ru.effective.tms.model.entity.Comment;
 
 public interface CommentService extends CrudService<Comment> {
+    /**
+     * Find author id of {@link Comment} without loading comment.
+     *
+     * @param id {@link Comment} id.
+     * @return author id of {@link Comment}.
+     */
+    Long findAuthorIdById(Long id);
+
+    /**
+     * Find keyset page of task comments ordered by creation time and id.
+     *
+     * @param taskId   {@link Comment} task id.
+     * @param cursor   cursor from previous page, empty for the first page.
+     * @param pageSize page size, default page size if null.
+     * @return {@link CursorPage} of {@link Comment} with authors.
+     */
+    CursorPage<Comment> findByTask(Long taskId, String cursor, Integer pageSize);
+
+    /**
+     * Count task comments without loading them.
+     *
+     * @param taskId {@link Comment} task id.
+     * @return number of task comments.
+     */
+    long countByTask(Long taskId);
 }
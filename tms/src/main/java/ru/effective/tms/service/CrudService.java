@@ -1,5 +1,7 @@
 package ru.effective.tms.service;
 
+import org.springframework.data.domain.Slice;
+
 import java.util.List;
 
 /**
@@ -15,6 +17,22 @@ public interface CrudService<T> {
      */
     List<T> findAll();
 
+    /**
+     * Find page of objects of type {@link T} without total count.
+     *
+     * @param pageNumber page number, default page number if null.
+     * @param pageSize   page size, default page size if null.
+     * @return {@link Slice} of objects of type {@link T}.
+     */
+    Slice<T> findAll(Integer pageNumber, Integer pageSize);
+
+    /**
+     * Count all objects of type {@link T}.
+     *
+     * @return total count of objects of type {@link T}.
+     */
+    long count();
+
     /**
      * Find object of type {@link T} where T.id equals id.
      *
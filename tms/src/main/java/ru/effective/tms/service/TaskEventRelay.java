@@ -0,0 +1,15 @@
+package ru.effective.tms.service;
+
+import org.springframework.dao.DataAccessException;
+import ru.effective.tms.model.dto.TaskEvent;
+
+public interface TaskEventRelay {
+    /**
+     * Send committed event to task stream subscribers.
+     *
+     * @param eventId event id sent to client, null if relay assigns it.
+     * @param event   {@link TaskEvent} to send.
+     * @throws DataAccessException if event is not sent.
+     */
+    void relay(String eventId, TaskEvent event);
+}
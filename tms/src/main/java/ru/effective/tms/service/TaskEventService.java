@@ -0,0 +1,23 @@
+package ru.effective.tms.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.effective.tms.model.dto.TaskEvent;
+
+public interface TaskEventService {
+    /**
+     * Subscribe to {@link TaskEvent} stream.
+     *
+     * @param authorId    only tasks of this author, any author if null.
+     * @param performerId only tasks with this performer, any performer if null.
+     * @return {@link SseEmitter} with task events.
+     */
+    SseEmitter subscribe(Long authorId, Long performerId);
+
+    /**
+     * Send event to matching subscribers of current node.
+     *
+     * @param eventId stream event id, null if event has no id.
+     * @param event   {@link TaskEvent} to send.
+     */
+    void dispatch(String eventId, TaskEvent event);
+}
@@ -1,18 +1,44 @@
 package ru.effective.tms.service;
 
+import org.springframework.data.domain.Slice;
+import ru.effective.tms.model.dto.CursorPage;
 import ru.effective.tms.model.dto.TaskFilter;
+import ru.effective.tms.model.dto.task.TaskBulkUpdateRequest;
+import ru.effective.tms.model.dto.task.TaskResponse;
 import ru.effective.tms.model.entity.Task;
 
 import java.util.List;
 
 public interface TaskService extends CrudService<Task> {
     /**
-     * Get all {@link Task} by {@link TaskFilter}.
+     * Get page of {@link Task} as {@link TaskResponse} projection
+     * without loading entities.
+     *
+     * @param pageNumber page number, default if null.
+     * @param pageSize   page size, default if null.
+     * @return {@link TaskResponse} slice.
+     */
+    Slice<TaskResponse> findAllResponses(Integer pageNumber, Integer pageSize);
+
+    /**
+     * Get all {@link Task} by {@link TaskFilter}
+     * as {@link TaskResponse} projection.
      *
      * @param filter filter for selection task with required parameters.
-     * @return {@link Task} list with required parameters.
+     * @return {@link TaskResponse} list with required parameters.
      */
-    List<Task> filterBy(TaskFilter filter);
+    List<TaskResponse> filterBy(TaskFilter filter);
+
+    /**
+     * Get keyset page of {@link Task} by {@link TaskFilter}
+     * after {@link TaskFilter#getCursor()}
+     * as {@link TaskResponse} projection.
+     * Total count is not calculated.
+     *
+     * @param filter filter for selection task with required parameters.
+     * @return {@link TaskResponse} page with next page cursor.
+     */
+    CursorPage<TaskResponse> filterByCursor(TaskFilter filter);
 
     /**
      * Add new performer to {@link Task} with id to performer task list.
@@ -23,6 +49,32 @@ public interface TaskService extends CrudService<Task> {
      */
     Task addNewPerformer(Long id, Long performerId);
 
+    /**
+     * Save all tasks in one transaction with batched inserts.
+     * Authors of all tasks are checked by one query.
+     *
+     * @param models tasks to save.
+     * @return saved tasks in the same order.
+     */
+    List<Task> saveAll(List<Task> models);
+
+    /**
+     * Change status and priority of tasks by ids or filter with one update.
+     *
+     * @param request tasks and new values.
+     * @param ownerId only tasks of this author are updated, any task if null.
+     * @return number of updated tasks.
+     */
+    int updateAll(TaskBulkUpdateRequest request, Long ownerId);
+
+    /**
+     * Find author id of {@link Task} without loading task.
+     *
+     * @param id {@link Task} id.
+     * @return author id of {@link Task}.
+     */
+    Long findAuthorIdById(Long id);
+
     /**
      * Check {@link Task} existence by id.
      *
@@ -2,6 +2,8 @@ package ru.effective.tms.service;
 
 import ru.effective.tms.model.entity.User;
 
+import java.util.Collection;
+
 public interface UserService extends CrudService<User> {
     /**
      * Find {@link User} by string username.
@@ -25,4 +27,11 @@ public interface UserService extends CrudService<User> {
      * @param id id to find.
      */
     void existsById(Long id);
+
+    /**
+     * Check existence of all {@link User} by ids with one query.
+     *
+     * @param ids ids to find.
+     */
+    void existsAllById(Collection<Long> ids);
 }
@@ -2,18 +2,24 @@ package ru.effective.tms.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.effective.tms.exception.EntityNotFoundException;
+import ru.effective.tms.model.dto.CommentCursor;
+import ru.effective.tms.model.dto.CursorPage;
+import ru.effective.tms.model.dto.TaskEvent;
 import ru.effective.tms.model.entity.Comment;
-import ru.effective.tms.model.entity.User;
+import ru.effective.tms.model.entity.security.AppUserDetails;
 import ru.effective.tms.repository.CommentRepository;
 import ru.effective.tms.service.CommentService;
-import ru.effective.tms.service.TaskService;
-import ru.effective.tms.service.UserService;
 
 import java.text.MessageFormat;
 import java.util.List;
@@ -22,43 +28,64 @@ import java.util.List;
 @Service
 @Slf4j
 public class CommentServiceImpl implements CommentService {
+    /**
+     * Foreign key of comment task, violated if task not found.
+     * Named in V8 migration, so name does not depend on schema origin.
+     */
+    public static final String TASK_FOREIGN_KEY = "comments_task_id_fkey";
     /**
      * {@link Comment} Repository.
      */
     private final CommentRepository commentRepository;
     /**
-     * Service for working with users.
+     * Entities loaded in current request.
      */
-    private final UserService userService;
+    private final RequestEntityCache requestEntityCache;
     /**
-     * Service for working with tasks.
+     * Publisher of {@link TaskEvent}.
      */
-    private final TaskService taskService;
+    private final ApplicationEventPublisher eventPublisher;
     /**
      * Default page size.
      *
-     * @see #findAll()
+     * @see #findAll(Integer, Integer)
      */
     @Value("${app.service.comment.defaultPageSize}")
     private int defaultPageSize = 10;
     /**
      * Default page number.
      *
-     * @see #findAll()
+     * @see #findAll(Integer, Integer)
      */
     @Value("${app.service.comment.defaultPageNumber}")
     private int defaultPageNumber;
 
     @Override
     public List<Comment> findAll() {
+        return findAll(null, null).getContent();
+    }
+
+    @Override
+    public Slice<Comment> findAll(Integer pageNumber, Integer pageSize) {
         log.info("Try to get all comments without filter.");
-        return commentRepository.findAll(
-                PageRequest.of(defaultPageNumber, defaultPageSize)
-        ).getContent();
+        return commentRepository.findAllBy(PageRequest.of(
+                pageNumber == null ? defaultPageNumber : pageNumber,
+                pageSize == null ? defaultPageSize : pageSize
+        ));
+    }
+
+    @Override
+    public long count() {
+        log.info("Try to count all comments.");
+        return commentRepository.count();
     }
 
     @Override
     public Comment findById(Long id) {
+        return requestEntityCache.get(Comment.class, id, this::loadById);
+    }
+
+    private Comment loadById(Long id) {
         log.info("find comment with id {}.", id);
         return commentRepository.findById(id).orElseThrow(
                 EntityNotFoundException.create(
@@ -71,31 +98,97 @@ public class CommentServiceImpl implements CommentService {
     }
 
     @Override
-    public Comment save(Comment model) {
-        log.warn("Try to create new comment.");
-        taskService.existsById(model.getTask().getId());
-        Comment modelWithAuthor = addAuthorToCommentFromPrincipal(model);
-        return commentRepository.save(modelWithAuthor);
+    public Long findAuthorIdById(Long id) {
+        log.info("find author id of comment with id {}.", id);
+        return commentRepository.findAuthorIdById(id).orElseThrow(
+                EntityNotFoundException.create(
+                        MessageFormat.format(
+                                "Comment with id {0} not found!",
+                                id
+                        )
+                )
+        );
+    }
+
+    @Override
+    public CursorPage<Comment> findByTask(Long taskId, String cursor, Integer pageSize) {
+        log.info("find comments of task with id {} after cursor.", taskId);
+        int size = pageSize == null ? defaultPageSize : pageSize;
+        Limit limit = Limit.of(size + 1);
+        List<Comment> comments;
+        if (cursor == null || cursor.isBlank()) {
+            comments = commentRepository.findPageByTaskId(taskId, limit);
+        } else {
+            CommentCursor after = CommentCursor.decode(cursor);
+            comments = commentRepository.findPageByTaskIdAfter(
+                    taskId, after.creationTime(), after.id(), limit);
+        }
+        if (comments.size() <= size) {
+            return new CursorPage<>(comments, null);
+        }
+        List<Comment> content = comments.subList(0, size);
+        return new CursorPage<>(
+                content,
+                CommentCursor.after(content.get(size - 1)).encode()
+        );
     }
 
-    private Comment addAuthorToCommentFromPrincipal(Comment model) {
-        UserDetails principal = (UserDetails) SecurityContextHolder
+    @Override
+    public long countByTask(Long taskId) {
+        log.info("count comments of task with id {}.", taskId);
+        return commentRepository.countByTaskId(taskId);
+    }
+
+    /**
+     * Save comment of current user with single insert.
+     * <br>
+     * Author id is taken from principal, task and author are not loaded.
+     * Missing task is reported by {@value #TASK_FOREIGN_KEY} constraint,
+     * other integrity violations are rethrown.
+     * Event is published in the insert transaction.
+     *
+     * @param model {@link Comment} with task id.
+     * @return saved {@link Comment} with task and author references.
+     * @throws EntityNotFoundException if task not found.
+     */
+    @Override
+    @Transactional
+    public Comment save(Comment model) {
+        log.warn("Try to create new comment.");
+        Long taskId = model.getTask().getId();
+        AppUserDetails principal = (AppUserDetails) SecurityContextHolder
                 .getContext()
                 .getAuthentication()
                 .getPrincipal();
-        String username = principal.getUsername();
-        User author = userService.findByUsername(username);
-        log.warn("add author with username {} to comment from principal.", username);
-        author.getComments().add(model);
-        userService.update(author.getId(), author);
-        model.setAuthor(author);
-        return model;
+        Comment saved;
+        try {
+            saved = commentRepository.insert(model, taskId, principal.getUserId());
+        } catch (DataIntegrityViolationException e) {
+            if (!isTaskForeignKeyViolation(e)) {
+                throw e;
+            }
+            throw new EntityNotFoundException(
+                    MessageFormat.format("Task with id {0} not found!", taskId)
+            );
+        }
+        eventPublisher.publishEvent(TaskEvent.commentAdded(saved));
+        return saved;
+    }
+
+    private static boolean isTaskForeignKeyViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return TASK_FOREIGN_KEY.equalsIgnoreCase(violation.getConstraintName());
+            }
+        }
+        return false;
     }
 
     @Override
     public Comment update(Long id, Comment model) {
         log.warn("Try to update comment with id: " + id);
         findById(id);
+        requestEntityCache.evict(Comment.class, id);
         model.setId(id);
         return commentRepository.save(model);
     }
@@ -104,6 +197,7 @@ public class CommentServiceImpl implements CommentService {
     public void deleteById(Long id) {
         log.warn("Try to delete comment with id {}.", id);
         existsById(id);
+        requestEntityCache.evict(Comment.class, id);
         commentRepository.deleteById(id);
     }
 
@@ -0,0 +1,38 @@
+package ru.effective.tms.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.effective.tms.model.dto.TaskEvent;
+import ru.effective.tms.service.TaskEventRelay;
+import ru.effective.tms.service.TaskEventService;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends {@link TaskEvent} to subscribers of current node only.
+ * <br>
+ * For single node, several nodes use {@link RedisStreamTaskEventRelay}.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(
+        name = "app.task-events.fan-out",
+        havingValue = "local",
+        matchIfMissing = true
+)
+public class LocalTaskEventRelay implements TaskEventRelay {
+    private final TaskEventService taskEventService;
+    /**
+     * Stream event id, if event has no id.
+     */
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Override
+    public void relay(String eventId, TaskEvent event) {
+        taskEventService.dispatch(
+                eventId == null ? Long.toString(sequence.incrementAndGet()) : eventId,
+                event
+        );
+    }
+}
@@ -0,0 +1,182 @@
+package ru.effective.tms.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStreamCommands.XAddOptions;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.stream.StreamListener;
+import org.springframework.data.redis.stream.StreamMessageListenerContainer;
+import org.springframework.data.redis.stream.StreamMessageListenerContainer.StreamMessageListenerContainerOptions;
+import org.springframework.data.redis.stream.StreamMessageListenerContainer.StreamReadRequest;
+import org.springframework.stereotype.Component;
+import ru.effective.tms.model.dto.TaskEvent;
+import ru.effective.tms.service.TaskEventRelay;
+import ru.effective.tms.service.TaskEventService;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fan-out of {@link TaskEvent} to all nodes through Redis Stream {@value #STREAM_KEY}.
+ * <br>
+ * Event is added to stream by {@link TaskEventAfterCommitListener}
+ * or {@link TaskEventOutboxRelay}, stream is trimmed
+ * to about app.task-events.redis.max-len entries.
+ * Every node reads the whole stream without consumer group
+ * and sends events to its own subscribers, events of this node too.
+ * Event id given to relay is sent to client as event id,
+ * stream entry id if event has no id.
+ * <br>
+ * Reading starts after the last stream entry on startup
+ * and continues from the last seen id after Redis reconnect.
+ * Entries trimmed while node was disconnected are lost.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(
+        name = "app.task-events.fan-out",
+        havingValue = "redis"
+)
+public class RedisStreamTaskEventRelay implements TaskEventRelay,
+        StreamListener<String, MapRecord<String, String, String>> {
+    public static final String STREAM_KEY = "task_events";
+    /**
+     * Stream entry field with event json.
+     */
+    public static final String FIELD_EVENT = "event";
+    /**
+     * Stream entry field with event id, absent if event has no id.
+     */
+    public static final String FIELD_ID = "id";
+    /**
+     * Start offset when stream is empty.
+     */
+    private static final String STREAM_START = "0-0";
+    private final TaskEventService taskEventService;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisConnectionFactory connectionFactory;
+    private final ObjectMapper objectMapper;
+    private final XAddOptions addOptions;
+    /**
+     * Max blocking read time.
+     */
+    private final Duration pollTimeout;
+    private StreamMessageListenerContainer<String, MapRecord<String, String, String>> container;
+
+    public RedisStreamTaskEventRelay(
+            TaskEventService taskEventService,
+            StringRedisTemplate redisTemplate,
+            RedisConnectionFactory connectionFactory,
+            ObjectMapper objectMapper,
+            @Value("${app.task-events.redis.max-len:10000}") long maxLen,
+            @Value("${app.task-events.redis.poll-timeout:2s}") Duration pollTimeout) {
+        this.taskEventService = taskEventService;
+        this.redisTemplate = redisTemplate;
+        this.connectionFactory = connectionFactory;
+        this.objectMapper = objectMapper;
+        this.addOptions = XAddOptions.maxlen(maxLen).approximateTrimming(true);
+        this.pollTimeout = pollTimeout;
+    }
+
+    /**
+     * Start reading stream after its last entry.
+     * Read errors do not cancel reading,
+     * next read continues from the last seen id.
+     */
+    @PostConstruct
+    public void start() {
+        container = StreamMessageListenerContainer.create(
+                connectionFactory,
+                StreamMessageListenerContainerOptions.builder()
+                        .pollTimeout(pollTimeout)
+                        .build()
+        );
+        container.register(
+                StreamReadRequest.builder(StreamOffset.create(STREAM_KEY, startOffset()))
+                        .cancelOnError(e -> false)
+                        .errorHandler(e -> log.warn(
+                                "Task event stream read failed, retry from last seen id: {}",
+                                e.getMessage()))
+                        .build(),
+                this
+        );
+        container.start();
+    }
+
+    /**
+     * Offset after the last stream entry.
+     *
+     * @return last entry id, stream start if stream is empty,
+     * or latest if Redis is not available.
+     */
+    private ReadOffset startOffset() {
+        try {
+            List<MapRecord<String, Object, Object>> last = redisTemplate.opsForStream()
+                    .reverseRange(STREAM_KEY, Range.unbounded(), Limit.limit().count(1));
+            return last == null || last.isEmpty()
+                    ? ReadOffset.from(STREAM_START)
+                    : ReadOffset.from(last.get(0).getId());
+        } catch (DataAccessException e) {
+            log.warn("Unable to read last task event id, read new events only.", e);
+            return ReadOffset.latest();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (container != null) {
+            container.stop();
+        }
+    }
+
+    /**
+     * Add event to stream.
+     *
+     * @param eventId event id, null if stream entry id is used.
+     * @param event   {@link TaskEvent} to send.
+     * @throws DataAccessException if Redis is not available.
+     */
+    @Override
+    public void relay(String eventId, TaskEvent event) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to write task event json.", e);
+        }
+        Map<String, String> fields = eventId == null
+                ? Map.of(FIELD_EVENT, json)
+                : Map.of(FIELD_EVENT, json, FIELD_ID, eventId);
+        redisTemplate.opsForStream().add(
+                StreamRecords.string(fields).withStreamKey(STREAM_KEY),
+                addOptions
+        );
+    }
+
+    @Override
+    public void onMessage(MapRecord<String, String, String> message) {
+        String value = message.getValue().get(FIELD_EVENT);
+        try {
+            taskEventService.dispatch(
+                    message.getValue().getOrDefault(FIELD_ID, message.getId().getValue()),
+                    objectMapper.readValue(value, TaskEvent.class)
+            );
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            log.warn("Skip incorrect task event {}.", message.getId());
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package ru.effective.tms.service.impl;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Cache of entities loaded during current http request.
+ * <br>
+ * Entity loaded for access check in {@code CheckUserIdAspect}
+ * is reused by controller handler without second query.
+ * Entities are kept in request attributes and dropped with request.
+ * Outside of http request every call goes to loader.
+ */
+@Component
+public class RequestEntityCache {
+    /**
+     * Request attribute with cached entities.
+     */
+    private static final String ATTRIBUTE = RequestEntityCache.class.getName();
+
+    /**
+     * Get entity from current request cache or load it.
+     *
+     * @param type   entity type.
+     * @param id     entity id.
+     * @param loader entity loader on cache miss.
+     * @param <T>    entity type.
+     * @return cached or loaded entity.
+     */
+    public <T> T get(Class<T> type, Long id, Function<Long, T> loader) {
+        Map<Key, Object> entities = currentEntities(true);
+        if (entities == null) {
+            return loader.apply(id);
+        }
+        Key key = new Key(type, id);
+        Object cached = entities.get(key);
+        if (cached == null) {
+            cached = loader.apply(id);
+            entities.put(key, cached);
+        }
+        return type.cast(cached);
+    }
+
+    /**
+     * Remove entity from current request cache.
+     * Should be called after entity update or delete.
+     *
+     * @param type entity type.
+     * @param id   entity id.
+     */
+    public void evict(Class<?> type, Long id) {
+        Map<Key, Object> entities = currentEntities(false);
+        if (entities != null) {
+            entities.remove(new Key(type, id));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Key, Object> currentEntities(boolean create) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Object entities = attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (entities == null && create) {
+            entities = new HashMap<Key, Object>();
+            attributes.setAttribute(ATTRIBUTE, entities, RequestAttributes.SCOPE_REQUEST);
+        }
+        return (Map<Key, Object>) entities;
+    }
+
+    private record Key(Class<?> type, Long id) {
+    }
+}
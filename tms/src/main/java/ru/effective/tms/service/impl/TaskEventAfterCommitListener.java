@@ -0,0 +1,45 @@
+package ru.effective.tms.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.effective.tms.model.dto.TaskEvent;
+import ru.effective.tms.service.TaskEventRelay;
+import ru.effective.tms.service.TaskEventService;
+
+/**
+ * Sends published {@link TaskEvent} with {@link TaskEventRelay} after commit.
+ * <br>
+ * Used without outbox, see {@link TaskEventOutboxWriter}.
+ * If event can not be relayed, it is sent to subscribers of this node only.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnProperty(
+        name = "app.task-events.outbox.enabled",
+        havingValue = "false",
+        matchIfMissing = true
+)
+public class TaskEventAfterCommitListener {
+    private final TaskEventRelay taskEventRelay;
+    private final TaskEventService taskEventService;
+
+    /**
+     * Called after commit, or at once without transaction.
+     *
+     * @param event published {@link TaskEvent}.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskEvent(TaskEvent event) {
+        try {
+            taskEventRelay.relay(null, event);
+        } catch (DataAccessException e) {
+            log.warn("Unable to relay task event, send to this node only.", e);
+            taskEventService.dispatch(null, event);
+        }
+    }
+}
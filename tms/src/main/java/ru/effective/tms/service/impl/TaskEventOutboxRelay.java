@@ -0,0 +1,164 @@
+package ru.effective.tms.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.effective.tms.model.dto.TaskEvent;
+import ru.effective.tms.model.entity.OutboxEvent;
+import ru.effective.tms.repository.OutboxRepository;
+import ru.effective.tms.service.TaskEventRelay;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Scheduled relay of {@link OutboxEvent} entries with {@link TaskEventRelay}.
+ * <br>
+ * Every batch is taken with FOR UPDATE SKIP LOCKED, sent
+ * and deleted in one transaction. Entries locked by another node
+ * are skipped, so several nodes relay in parallel.
+ * If relay fails, not sent entries stay in outbox for the next run.
+ * Events of batches relayed in parallel may be sent out of order.
+ * <br>
+ * Delivery is at-least-once: events are sent before commit, so if commit
+ * fails or node stops after send, the batch is sent again on the next run.
+ * Outbox entry id is sent as event id, clients drop repeated ids.
+ * <br>
+ * Relay requires app.task-events.fan-out=redis, with local fan-out
+ * events are sent only to subscribers of the node that took the batch.
+ * <br>
+ * Sent events are counted in {@value #RELAYED_COUNTER},
+ * time from change to send is recorded in {@value #LAG_TIMER},
+ * age of the oldest not sent entry is {@value #OLDEST_AGE_GAUGE} gauge.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(
+        name = "app.task-events.outbox.enabled",
+        havingValue = "true"
+)
+public class TaskEventOutboxRelay {
+    public static final String RELAYED_COUNTER = "task.events.outbox.relayed";
+    public static final String LAG_TIMER = "task.events.outbox.lag";
+    public static final String OLDEST_AGE_GAUGE = "task.events.outbox.oldest.age";
+    /**
+     * Max batches in one run, scheduler thread is shared with other jobs.
+     */
+    private static final int MAX_BATCHES_PER_RUN = 10;
+    private final OutboxRepository outboxRepository;
+    private final TaskEventRelay taskEventRelay;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Counter relayedCounter;
+    private final Timer lagTimer;
+    /**
+     * Age of the oldest not sent entry on the last run, 0 if outbox is empty.
+     */
+    private final AtomicLong oldestAgeMillis = new AtomicLong();
+    /**
+     * Max entries in one transaction.
+     */
+    private final int batchSize;
+
+    public TaskEventOutboxRelay(
+            OutboxRepository outboxRepository,
+            TaskEventRelay taskEventRelay,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${app.task-events.outbox.batch-size:100}") int batchSize) {
+        if (taskEventRelay instanceof LocalTaskEventRelay) {
+            throw new IllegalStateException(
+                    "Task event outbox requires app.task-events.fan-out=redis.");
+        }
+        this.outboxRepository = outboxRepository;
+        this.taskEventRelay = taskEventRelay;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.relayedCounter = Counter.builder(RELAYED_COUNTER)
+                .description("Task events sent from outbox")
+                .register(meterRegistry);
+        this.lagTimer = Timer.builder(LAG_TIMER)
+                .description("Time from task change to event send")
+                .register(meterRegistry);
+        TimeGauge.builder(OLDEST_AGE_GAUGE, oldestAgeMillis,
+                        TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("Age of the oldest not sent outbox entry")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.task-events.outbox.interval:PT0.5S}",
+            fixedDelayString = "${app.task-events.outbox.interval:PT0.5S}"
+    )
+    public void relay() {
+        for (int i = 0; i < MAX_BATCHES_PER_RUN; i++) {
+            Integer relayed = transactionTemplate.execute(status -> relayBatch());
+            if (relayed == null || relayed < batchSize) {
+                break;
+            }
+        }
+        oldestAgeMillis.set(outboxRepository.findFirstByOrderByIdAsc()
+                .map(entry -> Duration.between(entry.getCreatedAt(), Instant.now()).toMillis())
+                .orElse(0L));
+    }
+
+    /**
+     * Send and delete one batch, should be called in transaction.
+     * Entries sent before relay failure are deleted too.
+     *
+     * @return number of sent entries.
+     */
+    private int relayBatch() {
+        List<OutboxEvent> batch = outboxRepository.findBatchForRelay(batchSize);
+        List<Long> sentIds = new ArrayList<>(batch.size());
+        try {
+            for (OutboxEvent entry : batch) {
+                send(entry);
+                sentIds.add(entry.getId());
+            }
+        } catch (DataAccessException e) {
+            log.warn("Task event relay failed, {} outbox entries left for next run.",
+                    batch.size() - sentIds.size(), e);
+        }
+        if (!sentIds.isEmpty()) {
+            outboxRepository.deleteAllByIdInBatch(sentIds);
+            relayedCounter.increment(sentIds.size());
+        }
+        return sentIds.size();
+    }
+
+    /**
+     * Send entry event, incorrect entry is skipped.
+     *
+     * @param entry outbox entry.
+     * @throws DataAccessException if event is not sent.
+     */
+    private void send(OutboxEvent entry) {
+        TaskEvent event;
+        try {
+            event = objectMapper.readValue(entry.getPayload(), TaskEvent.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Skip incorrect outbox entry {}.", entry.getId());
+            return;
+        }
+        taskEventRelay.relay(Long.toString(entry.getId()), event);
+        lagTimer.record(Duration.between(entry.getCreatedAt(), Instant.now()));
+    }
+}
@@ -0,0 +1,52 @@
+package ru.effective.tms.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.effective.tms.model.dto.TaskEvent;
+import ru.effective.tms.model.entity.OutboxEvent;
+import ru.effective.tms.repository.OutboxRepository;
+
+/**
+ * Writes published {@link TaskEvent} to {@link OutboxEvent} table
+ * in the transaction of task or comment change.
+ * <br>
+ * Event is committed or rolled back together with the change,
+ * Redis failure neither loses it nor rolls back the change.
+ * Events are sent by {@link TaskEventOutboxRelay}.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(
+        name = "app.task-events.outbox.enabled",
+        havingValue = "true"
+)
+public class TaskEventOutboxWriter {
+    private final OutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Called before commit, or at once without transaction.
+     *
+     * @param event published {@link TaskEvent}.
+     */
+    @TransactionalEventListener(
+            phase = TransactionPhase.BEFORE_COMMIT,
+            fallbackExecution = true
+    )
+    public void onTaskEvent(TaskEvent event) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to write task event json.", e);
+        }
+        outboxRepository.save(OutboxEvent.builder()
+                .payload(payload)
+                .build());
+    }
+}
@@ -0,0 +1,166 @@
+package ru.effective.tms.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.effective.tms.model.dto.TaskEvent;
+import ru.effective.tms.repository.TaskRepository;
+import ru.effective.tms.service.TaskEventService;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process bus of {@link TaskEvent} with SSE subscribers.
+ * <br>
+ * Services publish task events as application events,
+ * they are relayed after commit by {@link TaskEventAfterCommitListener}
+ * or through outbox by {@link TaskEventOutboxRelay}.
+ * Relay sends them to {@link #dispatch(String, TaskEvent)}:
+ * {@link LocalTaskEventRelay} on single node,
+ * {@link RedisStreamTaskEventRelay} on several nodes.
+ * Every subscriber has bounded buffer with drop-oldest policy,
+ * see {@link TaskEventSubscription}.
+ * Events are sent to clients by {@value #THREAD_PREFIX} threads,
+ * so slow client does not block request thread.
+ * <br>
+ * Subscribers are counted in {@value #SUBSCRIBERS_GAUGE} gauge,
+ * dropped events in {@value #DROPPED_COUNTER} counter.
+ */
+@Service
+@Slf4j
+public class TaskEventServiceImpl implements TaskEventService {
+    public static final String SUBSCRIBERS_GAUGE = "task.events.subscribers";
+    public static final String DROPPED_COUNTER = "task.events.dropped";
+    private static final String THREAD_PREFIX = "task-events-";
+    /**
+     * Resolves author and performers of comment events.
+     */
+    private final TaskRepository taskRepository;
+    private final List<TaskEventSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final ExecutorService sendExecutor;
+    private final Counter droppedCounter;
+    /**
+     * Max not sent events of one subscriber.
+     */
+    private final int bufferSize;
+    /**
+     * Stream is completed after timeout, client reconnects.
+     */
+    private final Duration timeout;
+
+    public TaskEventServiceImpl(
+            TaskRepository taskRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.task-events.buffer-size:256}") int bufferSize,
+            @Value("${app.task-events.timeout:30m}") Duration timeout,
+            @Value("${app.task-events.send-threads:2}") int sendThreads) {
+        this.taskRepository = taskRepository;
+        this.bufferSize = bufferSize;
+        this.timeout = timeout;
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                sendThreads,
+                sendThreads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                new CustomizableThreadFactory(THREAD_PREFIX)
+        );
+        this.sendExecutor = ExecutorServiceMetrics.monitor(
+                meterRegistry, executor, "taskEvents"
+        );
+        this.droppedCounter = Counter.builder(DROPPED_COUNTER)
+                .register(meterRegistry);
+        Gauge.builder(SUBSCRIBERS_GAUGE, subscriptions, List::size)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public SseEmitter subscribe(Long authorId, Long performerId) {
+        log.info("Subscribe to task events with author {} and performer {}.",
+                authorId, performerId);
+        SseEmitter emitter = createEmitter();
+        TaskEventSubscription subscription = new TaskEventSubscription(
+                authorId, performerId, bufferSize, emitter, droppedCounter
+        );
+        emitter.onCompletion(() -> unsubscribe(subscription));
+        emitter.onError(e -> unsubscribe(subscription));
+        emitter.onTimeout(subscription::complete);
+        subscriptions.add(subscription);
+        return emitter;
+    }
+
+    /**
+     * @return emitter of new subscriber, completed after timeout.
+     */
+    protected SseEmitter createEmitter() {
+        return new SseEmitter(timeout.toMillis());
+    }
+
+    private void unsubscribe(TaskEventSubscription subscription) {
+        subscription.close();
+        subscriptions.remove(subscription);
+    }
+
+    /**
+     * Add event to buffers of matching subscribers.
+     * Author and performers of comment event are resolved
+     * only if any subscriber filters by them.
+     *
+     * @param eventId stream event id, null if event has no id.
+     * @param event   {@link TaskEvent} to send.
+     */
+    @Override
+    public void dispatch(String eventId, TaskEvent event) {
+        subscriptions.removeIf(TaskEventSubscription::isClosed);
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        TaskEvent eventToSend = event.hasAudience()
+                || subscriptions.stream().noneMatch(TaskEventSubscription::isFiltered)
+                ? event
+                : withAudience(event);
+        for (TaskEventSubscription subscription : subscriptions) {
+            if (subscription.matches(eventToSend)
+                    && subscription.offer(eventId, eventToSend)) {
+                sendExecutor.execute(subscription::drain);
+            }
+        }
+    }
+
+    /**
+     * Resolve task author and performers with projection queries.
+     *
+     * @param event event without author and performers.
+     * @return event with author and performers,
+     * or the same event if task is deleted.
+     */
+    private TaskEvent withAudience(TaskEvent event) {
+        Optional<Long> authorId = taskRepository.findAuthorIdById(event.taskId());
+        if (authorId.isEmpty()) {
+            return event;
+        }
+        return event.withAudience(authorId.get(),
+                taskRepository.findPerformerIdsById(event.taskId()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscriptions.forEach(TaskEventSubscription::complete);
+        subscriptions.clear();
+        sendExecutor.shutdown();
+    }
+}
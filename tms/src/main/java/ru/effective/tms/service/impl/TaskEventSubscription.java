@@ -0,0 +1,171 @@
+package ru.effective.tms.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import lombok.Getter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.effective.tms.model.dto.TaskEvent;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Task stream subscriber with bounded event buffer.
+ * <br>
+ * Publisher only adds events to buffer, events are sent
+ * to client by {@link #drain()} on other thread.
+ * When buffer is full the oldest event is dropped,
+ * client gets {@value #DROPPED_EVENT} event
+ * with number of dropped events before the next event.
+ */
+public class TaskEventSubscription {
+    /**
+     * Name of event with number of dropped events.
+     */
+    public static final String DROPPED_EVENT = "DROPPED";
+    /**
+     * Only tasks of this author, any author if null.
+     */
+    @Getter
+    private final Long authorId;
+    /**
+     * Only tasks with this performer, any performer if null.
+     */
+    @Getter
+    private final Long performerId;
+    private final int bufferSize;
+    private final SseEmitter emitter;
+    private final Counter droppedCounter;
+    private final Deque<Pending> buffer = new ArrayDeque<>();
+    /**
+     * Dropped events not reported to client yet.
+     */
+    private long dropped;
+    private boolean draining;
+    private volatile boolean closed;
+
+    public TaskEventSubscription(Long authorId,
+                                 Long performerId,
+                                 int bufferSize,
+                                 SseEmitter emitter,
+                                 Counter droppedCounter) {
+        this.authorId = authorId;
+        this.performerId = performerId;
+        this.bufferSize = bufferSize;
+        this.emitter = emitter;
+        this.droppedCounter = droppedCounter;
+    }
+
+    /**
+     * @return true if subscriber filters by author or performer.
+     */
+    public boolean isFiltered() {
+        return authorId != null || performerId != null;
+    }
+
+    /**
+     * @return true if client is gone or stream is completed.
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Check event against subscriber filter.
+     * Event without author and performers matches only not filtered subscriber.
+     *
+     * @param event task event.
+     * @return true if event is sent to this subscriber.
+     */
+    public boolean matches(TaskEvent event) {
+        if (!isFiltered()) {
+            return true;
+        }
+        if (!event.hasAudience()) {
+            return false;
+        }
+        return (authorId == null || authorId.equals(event.authorId()))
+                && (performerId == null || event.performerIds().contains(performerId));
+    }
+
+    /**
+     * Add event to buffer, drop the oldest event if buffer is full.
+     *
+     * @param id    stream event id, null if event has no id.
+     * @param event task event.
+     * @return true if {@link #drain()} should be started.
+     */
+    public synchronized boolean offer(String id, TaskEvent event) {
+        if (closed) {
+            return false;
+        }
+        if (buffer.size() >= bufferSize) {
+            buffer.pollFirst();
+            dropped++;
+            droppedCounter.increment();
+        }
+        buffer.addLast(new Pending(id, event));
+        if (draining) {
+            return false;
+        }
+        draining = true;
+        return true;
+    }
+
+    /**
+     * Send buffered events to client until buffer is empty.
+     * Subscriber is closed if client is gone.
+     */
+    public void drain() {
+        while (true) {
+            Pending next;
+            long droppedBefore;
+            synchronized (this) {
+                next = buffer.pollFirst();
+                if (next == null) {
+                    draining = false;
+                    return;
+                }
+                droppedBefore = dropped;
+                dropped = 0;
+            }
+            try {
+                if (droppedBefore > 0) {
+                    emitter.send(SseEmitter.event()
+                            .name(DROPPED_EVENT)
+                            .data(droppedBefore));
+                }
+                SseEmitter.SseEventBuilder builder = SseEmitter.event();
+                if (next.id() != null) {
+                    builder.id(next.id());
+                }
+                emitter.send(builder
+                        .name(next.event().type().name())
+                        .data(next.event()));
+            } catch (IOException | IllegalStateException e) {
+                close();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Stop buffering events for this subscriber.
+     */
+    public synchronized void close() {
+        closed = true;
+        draining = false;
+        buffer.clear();
+    }
+
+    /**
+     * Complete client stream.
+     */
+    public void complete() {
+        close();
+        emitter.complete();
+    }
+
+    private record Pending(String id, TaskEvent event) {
+    }
+}
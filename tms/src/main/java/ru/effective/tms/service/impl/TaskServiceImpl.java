@@ -3,20 +3,38 @@ package ru.effective.tms.service.impl;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.effective.tms.exception.DeleteEntityWithReferenceException;
 import ru.effective.tms.exception.EntityNotFoundException;
+import ru.effective.tms.exception.IncorrectCursorException;
+import ru.effective.tms.model.dto.CursorPage;
+import ru.effective.tms.model.dto.TaskCursor;
+import ru.effective.tms.model.dto.TaskEvent;
 import ru.effective.tms.model.dto.TaskFilter;
+import ru.effective.tms.model.dto.task.TaskBulkUpdateRequest;
+import ru.effective.tms.model.dto.task.TaskResponse;
 import ru.effective.tms.model.entity.Task;
 import ru.effective.tms.model.entity.User;
+import ru.effective.tms.model.enums.Status;
+import ru.effective.tms.model.enums.TaskEventType;
+import ru.effective.tms.model.enums.TaskSortField;
 import ru.effective.tms.repository.TaskRepository;
-import ru.effective.tms.repository.specification.TaskSpecifications;
+import ru.effective.tms.repository.query.TaskFilterQuery;
 import ru.effective.tms.service.TaskService;
 import ru.effective.tms.service.UserService;
 
 import java.text.MessageFormat;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @RequiredArgsConstructor
 @Service
@@ -30,42 +48,172 @@ public class TaskServiceImpl implements TaskService {
      * Service for working with users.
      */
     private final UserService userService;
+    /**
+     * Entities loaded in current request.
+     */
+    private final RequestEntityCache requestEntityCache;
+    /**
+     * Publisher of {@link TaskEvent}.
+     * Change methods are transactional, so events
+     * are published in the transaction of the change.
+     */
+    private final ApplicationEventPublisher eventPublisher;
     /**
      * Default page size.
      *
-     * @see #findAll()
+     * @see #findAll(Integer, Integer)
      */
     @Value("${app.service.task.defaultPageSize}")
     private int defaultPageSize = 10;
     /**
      * Default page number.
      *
-     * @see #findAll()
+     * @see #findAll(Integer, Integer)
      */
     @Value("${app.service.task.defaultPageNumber}")
     private int defaultPageNumber;
 
     @Override
     public List<Task> findAll() {
+        return findAll(null, null).getContent();
+    }
+
+    @Override
+    public Slice<Task> findAll(Integer pageNumber, Integer pageSize) {
         log.info("Try to get all tasks without filter.");
-        return taskRepository.findAll(
-                PageRequest.of(defaultPageNumber, defaultPageSize)
-        ).getContent();
+        PageRequest pageRequest = PageRequest.of(
+                pageNumber == null ? defaultPageNumber : pageNumber,
+                pageSize == null ? defaultPageSize : pageSize,
+                Sort.by(Task.Fields.id)
+        );
+        List<Task> tasks = findPage(null, pageRequest.getSort(),
+                pageRequest.getOffset(), pageRequest.getPageSize() + 1);
+        boolean hasNext = tasks.size() > pageRequest.getPageSize();
+        return new SliceImpl<>(
+                hasNext ? tasks.subList(0, pageRequest.getPageSize()) : tasks,
+                pageRequest,
+                hasNext
+        );
     }
 
     @Override
-    public List<Task> filterBy(TaskFilter filter) {
+    public Slice<TaskResponse> findAllResponses(Integer pageNumber, Integer pageSize) {
+        log.info("Try to get all task responses without filter.");
+        PageRequest pageRequest = PageRequest.of(
+                pageNumber == null ? defaultPageNumber : pageNumber,
+                pageSize == null ? defaultPageSize : pageSize,
+                Sort.by(Task.Fields.id)
+        );
+        List<TaskResponse> responses = taskRepository.findResponses(
+                TaskFilterQuery.all(), pageRequest.getOffset(),
+                pageRequest.getPageSize() + 1);
+        boolean hasNext = responses.size() > pageRequest.getPageSize();
+        return new SliceImpl<>(
+                hasNext ? responses.subList(0, pageRequest.getPageSize()) : responses,
+                pageRequest,
+                hasNext
+        );
+    }
+
+    @Override
+    public long count() {
+        log.info("Try to count all tasks.");
+        return taskRepository.count();
+    }
+
+    @Override
+    public List<TaskResponse> filterBy(TaskFilter filter) {
         log.info("Try to get all tasks with filter.");
-        return taskRepository.findAll(
-                TaskSpecifications.withFilter(filter),
-                PageRequest.of(filter.getPageNumber(), filter.getPageSize())
-        ).getContent();
+        PageRequest pageRequest = PageRequest.of(
+                filter.getPageNumber(), filter.getPageSize()
+        );
+        return taskRepository.findResponses(TaskFilterQuery.of(filter),
+                pageRequest.getOffset(), pageRequest.getPageSize());
+    }
+
+    @Override
+    public CursorPage<TaskResponse> filterByCursor(TaskFilter filter) {
+        log.info("Try to get tasks with filter after cursor.");
+        TaskSortField sortBy = filter.getSortBy() == null
+                ? TaskSortField.ID
+                : filter.getSortBy();
+        TaskCursor cursor = decodeCursor(filter.getCursor(), sortBy);
+        int pageSize = filter.getPageSize();
+        List<TaskResponse> tasks = taskRepository.findResponses(
+                TaskFilterQuery.of(filter, cursor, sortBy),
+                0,
+                pageSize + 1
+        );
+        if (tasks.size() <= pageSize) {
+            return new CursorPage<>(tasks, null);
+        }
+        List<TaskResponse> content = tasks.subList(0, pageSize);
+        return new CursorPage<>(
+                content,
+                TaskCursor.after(sortBy, content.get(pageSize - 1)).encode()
+        );
+    }
+
+    /**
+     * Decode cursor from previous page.
+     *
+     * @param cursor opaque cursor, empty for the first page.
+     * @param sortBy requested sort key.
+     * @return decoded cursor or null for the first page.
+     * @throws IncorrectCursorException if cursor is incorrect
+     *                                  or was issued for another sort key.
+     */
+    private static TaskCursor decodeCursor(String cursor, TaskSortField sortBy) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        TaskCursor decoded = TaskCursor.decode(cursor);
+        if (decoded.sortBy() != sortBy) {
+            throw new IncorrectCursorException(
+                    "Поле cursor не соответствует полю sortBy");
+        }
+        return decoded;
+    }
+
+    /**
+     * Find page of tasks with {@link Task#AUTHOR_PERFORMERS_GRAPH} fetch plan.
+     * <br>
+     * Ids page is found first, then tasks with author and performers
+     * by ids in one query. Collection fetch join is not paginated in memory
+     * and every task costs no extra queries.
+     *
+     * @param spec   filter, null for all tasks.
+     * @param sort   page order.
+     * @param offset first row.
+     * @param limit  max rows.
+     * @return tasks in page order.
+     */
+    private List<Task> findPage(Specification<Task> spec,
+                                Sort sort,
+                                long offset,
+                                int limit) {
+        List<Long> ids = taskRepository.findIds(spec, sort, offset, limit);
+        return taskRepository.findAllByIds(ids, Task.AUTHOR_PERFORMERS_GRAPH);
     }
 
     @Override
     public Task findById(Long id) {
+        return requestEntityCache.get(Task.class, id, this::loadById);
+    }
+
+    private Task loadById(Long id) {
         log.info("find task with id {}.", id);
-        return taskRepository.findById(id).orElseThrow(
+        return taskRepository.findDetailedById(id).orElseThrow(
+                EntityNotFoundException.create(
+                        MessageFormat.format("Task with id {0} not found!", id)
+                )
+        );
+    }
+
+    @Override
+    public Long findAuthorIdById(Long id) {
+        log.info("find author id of task with id {}.", id);
+        return taskRepository.findAuthorIdById(id).orElseThrow(
                 EntityNotFoundException.create(
                         MessageFormat.format("Task with id {0} not found!", id)
                 )
@@ -73,31 +221,131 @@ public class TaskServiceImpl implements TaskService {
     }
 
     @Override
+    @Transactional
     public Task save(Task model) {
         log.warn("Try to create new task.");
         userService.existsById(model.getAuthor().getId());
-        return taskRepository.save(model);
+        Task saved = taskRepository.save(model);
+        eventPublisher.publishEvent(TaskEvent.of(TaskEventType.CREATED, saved));
+        return saved;
     }
 
+    /**
+     * Save all tasks with one authors check query.
+     * <br>
+     * Ids are allocated from pooled sequence,
+     * so inserts are sent in JDBC batches on commit.
+     *
+     * @param models tasks to save.
+     * @return saved tasks in the same order.
+     * @throws EntityNotFoundException if any author not found.
+     */
     @Override
+    @Transactional
+    public List<Task> saveAll(List<Task> models) {
+        log.warn("Try to create {} new tasks.", models.size());
+        userService.existsAllById(models.stream()
+                .map(model -> model.getAuthor() == null
+                        ? null
+                        : model.getAuthor().getId())
+                .collect(Collectors.toCollection(HashSet::new))
+        );
+        List<Task> saved = taskRepository.saveAll(models);
+        saved.forEach(task ->
+                eventPublisher.publishEvent(TaskEvent.of(TaskEventType.CREATED, task)));
+        return saved;
+    }
+
+    /**
+     * Change tasks with one set-based update, entities are not loaded.
+     * Ownership is checked by select condition,
+     * tasks of other authors are not counted.
+     * <br>
+     * Matching tasks are locked and their statuses read first,
+     * then updated by ids, so every updated task gets
+     * {@link TaskEventType#STATUS_CHANGED} if status is changed,
+     * {@link TaskEventType#UPDATED} otherwise.
+     *
+     * @param request tasks and new values.
+     * @param ownerId only tasks of this author are updated, any task if null.
+     * @return number of updated tasks.
+     */
+    @Override
+    @Transactional
+    public int updateAll(TaskBulkUpdateRequest request, Long ownerId) {
+        log.warn("Try to update status {} and priority {} of tasks.",
+                request.currentStatus(), request.currentPriority());
+        TaskFilterQuery target = request.filter() == null
+                ? TaskFilterQuery.ofIds(request.ids())
+                : TaskFilterQuery.of(request.filter());
+        if (ownerId != null) {
+            target = target.ownedBy(ownerId);
+        }
+        Map<Long, Status> previousStatuses = taskRepository.lockStatuses(target);
+        if (previousStatuses.isEmpty()) {
+            return 0;
+        }
+        Status newStatus = request.currentStatus();
+        int updated = taskRepository.updateAll(
+                TaskFilterQuery.ofIds(previousStatuses.keySet()),
+                newStatus, request.currentPriority());
+        previousStatuses.forEach((id, previousStatus) -> eventPublisher.publishEvent(
+                newStatus == null || newStatus == previousStatus
+                        ? TaskEvent.bulkUpdated(TaskEventType.UPDATED, id, previousStatus)
+                        : TaskEvent.bulkUpdated(TaskEventType.STATUS_CHANGED, id, newStatus)));
+        return updated;
+    }
+
+    /**
+     * Update task and publish {@link TaskEventType#STATUS_CHANGED}
+     * if status is changed, {@link TaskEventType#UPDATED} otherwise.
+     *
+     * @param id    task id to update.
+     * @param model {@link Task} with partially updated fields.
+     * @return updated {@link Task}.
+     * @throws EntityNotFoundException if task not found.
+     */
+    @Override
+    @Transactional
     public Task update(Long id, Task model) {
         log.warn("Try to update task with id: {}.", id);
-        Task updatedModel = insert(id, model);
-        return taskRepository.save(updatedModel);
+        Task modelToUpdate = findById(id);
+        Status previousStatus = modelToUpdate.getCurrentStatus();
+        Task updatedModel = insert(id, model, modelToUpdate);
+        return saveUpdated(updatedModel,
+                previousStatus == updatedModel.getCurrentStatus()
+                        ? TaskEventType.UPDATED
+                        : TaskEventType.STATUS_CHANGED
+        );
+    }
+
+    /**
+     * Save updated task and publish event with its author and performers.
+     *
+     * @param updatedModel full version of {@link Task}.
+     * @param eventType    change type.
+     * @return saved {@link Task}.
+     */
+    private Task saveUpdated(Task updatedModel, TaskEventType eventType) {
+        requestEntityCache.evict(Task.class, updatedModel.getId());
+        Task saved = taskRepository.save(updatedModel);
+        eventPublisher.publishEvent(TaskEvent.of(eventType, updatedModel));
+        return saved;
     }
     /**
      * Update model to full version.
      * If the model has no field values, then the values are taken
      * from a previously existing entity with the same id.
+     * Empty performers are not a change: partial model
+     * has empty performers by default.
      *
-     * @param model   {@link Task} with partially updated fields.
-     * @param modelId user id to update {@link Task}.
+     * @param model         {@link Task} with partially updated fields.
+     * @param modelId       user id to update {@link Task}.
+     * @param modelToUpdate existing {@link Task} with the same id.
      * @return Updated {@link Task}.
      */
-    private Task insert(Long modelId, Task model) {
+    private Task insert(Long modelId, Task model, Task modelToUpdate) {
         log.warn("insert in model with id: {}.", modelId);
-        Task modelToUpdate = findById(modelId);
-
         return Task.builder()
                 .id(modelId)
                 .title(model.getTitle() == null
@@ -121,6 +369,7 @@ public class TaskServiceImpl implements TaskService {
                         : model.getAuthor()
                 )
                 .performerList(model.getPerformerList() == null
+                        || model.getPerformerList().isEmpty()
                         ? modelToUpdate.getPerformerList()
                         : model.getPerformerList()
                 )
@@ -128,11 +377,14 @@ public class TaskServiceImpl implements TaskService {
     }
 
     @Override
+    @Transactional
     public void deleteById(Long id) {
         log.warn("Try to delete task with id {}.", id);
         Task taskToDelete = findById(id);
         checkTaskCommentsReference(taskToDelete);
+        requestEntityCache.evict(Task.class, id);
         taskRepository.deleteById(id);
+        eventPublisher.publishEvent(TaskEvent.of(TaskEventType.DELETED, taskToDelete));
     }
 
     /**
@@ -155,6 +407,8 @@ public class TaskServiceImpl implements TaskService {
 
     /**
      * Add performer id to add into performerList.
+     * Published {@link TaskEventType#PERFORMER_ADDED} event
+     * has the new performer in its performers.
      *
      * @param id          task id to update.
      * @param performerId performer id to add into performerList.
@@ -162,6 +416,7 @@ public class TaskServiceImpl implements TaskService {
      * @see #insert
      */
     @Override
+    @Transactional
     public Task addNewPerformer(Long id, Long performerId) {
         Task modelToUpdate = findById(id);
         User performerForTask = userService.findById(performerId);
@@ -171,7 +426,8 @@ public class TaskServiceImpl implements TaskService {
         );
         performerForTask.getTakenTask().add(modelToUpdate);
         modelToUpdate.getPerformerList().add(performerForTask);
-        return update(id, modelToUpdate);
+        return saveUpdated(insert(id, modelToUpdate, modelToUpdate),
+                TaskEventType.PERFORMER_ADDED);
     }
 
     /**
@@ -4,17 +4,23 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import ru.effective.tms.exception.DeleteEntityWithReferenceException;
 import ru.effective.tms.model.entity.User;
+import ru.effective.tms.model.entity.security.RoleType;
 import ru.effective.tms.repository.UserRepository;
 import ru.effective.tms.service.UserService;
+import ru.effective.tms.service.security.TokenRevocationService;
 import ru.effective.tms.exception.AlreadyExitsException;
 import ru.effective.tms.exception.EntityNotFoundException;
 
 import java.text.MessageFormat;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @RequiredArgsConstructor
 @Service
@@ -27,14 +33,14 @@ public class UserServiceImpl implements UserService {
     /**
      * Default page size.
      *
-     * @see #findAll()
+     * @see #findAll(Integer, Integer)
      */
     @Value("${app.service.user.defaultPageSize}")
     private int defaultPageSize = 10;
     /**
      * Default page number.
      *
-     * @see #findAll()
+     * @see #findAll(Integer, Integer)
      */
     @Value("${app.service.user.defaultPageNumber}")
     private int defaultPageNumber;
@@ -43,16 +49,33 @@ public class UserServiceImpl implements UserService {
      * Needed to define and update the field password in {@link User}.
      *
      * @see #encode(User)
-     * @see #insert(User, Long)
+     * @see #applyChanges(User, User)
      */
     private final PasswordEncoder passwordEncoder;
+    /**
+     * To revoke stateless jwt tokens
+     * after roles change or user deletion.
+     */
+    private final TokenRevocationService tokenRevocationService;
 
     @Override
     public List<User> findAll() {
+        return findAll(null, null).getContent();
+    }
+
+    @Override
+    public Slice<User> findAll(Integer pageNumber, Integer pageSize) {
         log.info("Try to get all users without filter.");
-        return userRepository.findAll(
-                PageRequest.of(defaultPageNumber, defaultPageSize)
-        ).getContent();
+        return userRepository.findAllBy(PageRequest.of(
+                pageNumber == null ? defaultPageNumber : pageNumber,
+                pageSize == null ? defaultPageSize : pageSize
+        ));
+    }
+
+    @Override
+    public long count() {
+        log.info("Try to count all users.");
+        return userRepository.count();
     }
 
     @Override
@@ -105,10 +128,18 @@ public class UserServiceImpl implements UserService {
     @Override
     public User update(Long id, User model) {
         log.warn("Try to update user with id {}.", id);
-        User updatedUser = insert(model, id);
-        checkDuplicateUsername(updatedUser.getUsername(), updatedUser.getId());
-        checkDuplicateEmail(updatedUser.getEmail(), updatedUser.getId());
-        return userRepository.save(updatedUser);
+        User userToUpdate = findById(id);
+        Set<RoleType> previousRoles = Set.copyOf(userToUpdate.getRoles());
+        if (!applyChanges(model, userToUpdate)) {
+            return userToUpdate;
+        }
+        checkDuplicateUsername(userToUpdate.getUsername(), id);
+        checkDuplicateEmail(userToUpdate.getEmail(), id);
+        User savedUser = userRepository.save(userToUpdate);
+        if (!previousRoles.equals(userToUpdate.getRoles())) {
+            tokenRevocationService.revoke(id);
+        }
+        return savedUser;
     }
 
     /**
@@ -122,40 +153,37 @@ public class UserServiceImpl implements UserService {
     }
 
     /**
-     * Update model to full version.
-     * If the model has no field values, then the values are taken
-     * from a previously existing entity with the same id.
+     * Apply changed fields of model to existing {@link User}.
+     * Fields without value are not changed.
+     * Password is encoded only if new password is present.
+     * Created and taken tasks and comments are not changed by user update.
      *
-     * @param model   {@link User} with partially updated fields.
-     * @param modelId user id to update {@link User}.
-     * @return Updated {@link User}.
+     * @param model        {@link User} with partially updated fields.
+     * @param userToUpdate existing {@link User} to update.
+     * @return true if any field was changed.
      */
-    private User insert(User model, Long modelId) {
-        User userToUpdate = findById(modelId);
-        return User.builder()
-                .id(modelId)
-                .username(model.getUsername() == null
-                        ? userToUpdate.getUsername()
-                        : model.getUsername())
-                .password(model.getPassword() == null
-                        ? passwordEncoder.encode(userToUpdate.getPassword())
-                        : passwordEncoder.encode(model.getPassword()))
-                .roles(model.getRoles() == null
-                        ? userToUpdate.getRoles()
-                        : model.getRoles())
-                .email(model.getEmail() == null
-                        ? userToUpdate.getEmail()
-                        : model.getEmail())
-                .createdTask(model.getCreatedTask() == null
-                        ? userToUpdate.getCreatedTask()
-                        : model.getCreatedTask())
-                .takenTask(model.getTakenTask() == null
-                        ? userToUpdate.getTakenTask()
-                        : model.getTakenTask())
-                .comments(model.getComments() == null
-                        ? userToUpdate.getComments()
-                        : model.getComments())
-                .build();
+    private boolean applyChanges(User model, User userToUpdate) {
+        boolean changed = false;
+        if (model.getUsername() != null
+                && !model.getUsername().equals(userToUpdate.getUsername())) {
+            userToUpdate.setUsername(model.getUsername());
+            changed = true;
+        }
+        if (model.getEmail() != null
+                && !model.getEmail().equals(userToUpdate.getEmail())) {
+            userToUpdate.setEmail(model.getEmail());
+            changed = true;
+        }
+        if (model.getRoles() != null && !model.getRoles().isEmpty()
+                && !model.getRoles().equals(userToUpdate.getRoles())) {
+            userToUpdate.setRoles(new HashSet<>(model.getRoles()));
+            changed = true;
+        }
+        if (model.getPassword() != null) {
+            userToUpdate.setPassword(passwordEncoder.encode(model.getPassword()));
+            changed = true;
+        }
+        return changed;
     }
 
     /**
@@ -240,6 +268,7 @@ public class UserServiceImpl implements UserService {
         User userToDelete = findById(id);
         checkUserReference(userToDelete);
         userRepository.deleteById(id);
+        tokenRevocationService.revoke(id);
     }
 
     private void checkUserReference(User model) {
@@ -296,4 +325,30 @@ public class UserServiceImpl implements UserService {
             );
         }
     }
+
+    /**
+     * Check existence of all users by ids with one query.
+     *
+     * @param ids ids to find.
+     * @throws EntityNotFoundException if any user not found.
+     */
+    @Override
+    public void existsAllById(Collection<Long> ids) {
+        Set<Long> missingIds = new HashSet<>(ids);
+        boolean hasNullId = missingIds.remove(null);
+        if (!missingIds.isEmpty()) {
+            missingIds.removeAll(userRepository.findExistingIds(Set.copyOf(missingIds)));
+        }
+        if (hasNullId) {
+            missingIds.add(null);
+        }
+        if (!missingIds.isEmpty()) {
+            throw new EntityNotFoundException(
+                    MessageFormat.format(
+                            "Users with ids {0} not found!",
+                            missingIds
+                    )
+            );
+        }
+    }
 }
@@ -0,0 +1,185 @@
+package ru.effective.tms.service.impl.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import ru.effective.tms.exception.security.LoginThrottledException;
+import ru.effective.tms.model.entity.User;
+import ru.effective.tms.model.entity.security.AppUserDetails;
+import ru.effective.tms.model.entity.security.EmailPasswordAuthenticationToken;
+import ru.effective.tms.repository.UserRepository;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * {@link AuthenticationProvider} for sign in by email.
+ * <br>
+ * User is loaded once by email.
+ * Password hashing runs on bounded executor, so sign in storm
+ * can not take all request threads. Sign in is rejected
+ * with {@link LoginThrottledException} when executor queue is full.
+ * <br>
+ * Password with outdated encoding is rehashed after successful sign in.
+ * Sign in latency is recorded in {@value #LOGIN_TIMER} timer.
+ */
+@Component
+@Slf4j
+public class EmailAuthenticationProvider implements AuthenticationProvider {
+    public static final String LOGIN_TIMER = "auth.signin";
+    private static final String BAD_CREDENTIALS = "Bad credentials";
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final ExecutorService hashExecutor;
+    private final Timer successTimer;
+    private final Timer failureTimer;
+    /**
+     * Max wait for password hashing.
+     */
+    private final Duration hashTimeout;
+    /**
+     * Hash to check password for unknown email,
+     * so unknown and known emails take the same time.
+     */
+    private volatile String userNotFoundPassword;
+
+    public EmailAuthenticationProvider(
+            UserRepository userRepository,
+            PasswordEncoder passwordEncoder,
+            MeterRegistry meterRegistry,
+            @Value("${app.security.password.hash-threads:0}") int hashThreads,
+            @Value("${app.security.password.hash-queue-capacity:100}") int queueCapacity,
+            @Value("${app.security.password.hash-timeout:5s}") Duration hashTimeout) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.hashTimeout = hashTimeout;
+        int poolSize = hashThreads > 0
+                ? hashThreads
+                : Runtime.getRuntime().availableProcessors();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("password-hash-"),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.hashExecutor = ExecutorServiceMetrics.monitor(
+                meterRegistry, executor, "passwordHash"
+        );
+        this.successTimer = Timer.builder(LOGIN_TIMER)
+                .tag("outcome", "success")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.failureTimer = Timer.builder(LOGIN_TIMER)
+                .tag("outcome", "failure")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            Authentication result = authenticateByEmail(
+                    authentication.getName(),
+                    String.valueOf(authentication.getCredentials())
+            );
+            success = true;
+            return result;
+        } finally {
+            (success ? successTimer : failureTimer)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return EmailPasswordAuthenticationToken.class.isAssignableFrom(authentication);
+    }
+
+    private Authentication authenticateByEmail(String email, String rawPassword) {
+        Optional<User> found = userRepository.findByEmail(email);
+        if (found.isEmpty()) {
+            runHashing(() -> passwordEncoder.matches(rawPassword, getUserNotFoundPassword()));
+            throw new BadCredentialsException(BAD_CREDENTIALS);
+        }
+        User user = found.get();
+        String encodedPassword = user.getPassword();
+        Optional<String> rehashed = runHashing(() -> {
+            if (!passwordEncoder.matches(rawPassword, encodedPassword)) {
+                throw new BadCredentialsException(BAD_CREDENTIALS);
+            }
+            return passwordEncoder.upgradeEncoding(encodedPassword)
+                    ? Optional.of(passwordEncoder.encode(rawPassword))
+                    : Optional.empty();
+        });
+        rehashed.ifPresent(password -> {
+            log.info("Rehash password for user with id {}.", user.getId());
+            userRepository.updatePassword(user.getId(), password);
+            user.setPassword(password);
+        });
+        return EmailPasswordAuthenticationToken.authenticated(new AppUserDetails(user));
+    }
+
+    private String getUserNotFoundPassword() {
+        if (userNotFoundPassword == null) {
+            userNotFoundPassword = passwordEncoder.encode("userNotFoundPassword");
+        }
+        return userNotFoundPassword;
+    }
+
+    private <T> T runHashing(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = hashExecutor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new LoginThrottledException(
+                    "Too many sign in requests. Repeat signin action later!");
+        }
+        try {
+            return future.get(hashTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof AuthenticationException authException) {
+                throw authException;
+            }
+            throw new InternalAuthenticationServiceException(
+                    e.getCause().getMessage(), e.getCause());
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new LoginThrottledException(
+                    "Sign in took too long. Repeat signin action later!");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InternalAuthenticationServiceException(
+                    "Sign in was interrupted.", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashExecutor.shutdown();
+    }
+}
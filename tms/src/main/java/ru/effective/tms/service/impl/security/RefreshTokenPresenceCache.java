@@ -0,0 +1,106 @@
+package ru.effective.tms.service.impl.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import ru.effective.tms.repository.RefreshTokenStore;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.function.Predicate;
+
+/**
+ * Local near cache for "user has refresh token" checks.
+ * <br>
+ * Bounded and time limited cache in front of
+ * {@link RefreshTokenStore#existsByUserId(Long)}.
+ * Only users with refresh token are cached,
+ * so new signin is visible at once on every node.
+ * Concurrent checks for one user share single Redis lookup.
+ * <br>
+ * Invalidation is published to other nodes
+ * with Redis pub/sub on {@link #INVALIDATION_CHANNEL}.
+ * Hit and miss metrics are exported as cache {@value #CACHE_NAME}.
+ */
+@Component
+@Slf4j
+public class RefreshTokenPresenceCache implements MessageListener {
+    /**
+     * Redis pub/sub channel with invalidated user ids.
+     */
+    public static final String INVALIDATION_CHANNEL = "refresh_tokens:invalidation";
+    /**
+     * Cache name for metrics.
+     */
+    public static final String CACHE_NAME = "refreshTokenPresence";
+    private final Cache<Long, Boolean> cache;
+    /**
+     * To publish invalidation to other nodes.
+     */
+    private final StringRedisTemplate redisTemplate;
+
+    public RefreshTokenPresenceCache(
+            StringRedisTemplate redisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${app.security.refresh-token.presence-cache.max-size:10000}")
+            long maxSize,
+            @Value("${app.security.refresh-token.presence-cache.ttl:30s}")
+            Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Check user refresh token presence.
+     *
+     * @param userId user id to check.
+     * @param loader Redis lookup on cache miss.
+     * @return true if user has refresh token.
+     */
+    public boolean contains(Long userId, Predicate<Long> loader) {
+        Boolean present = cache.get(userId,
+                id -> loader.test(id) ? Boolean.TRUE : null);
+        return Boolean.TRUE.equals(present);
+    }
+
+    /**
+     * Mark user as having refresh token on current node.
+     *
+     * @param userId user id with new refresh token.
+     */
+    public void put(Long userId) {
+        cache.put(userId, Boolean.TRUE);
+    }
+
+    /**
+     * Invalidate user on current node and publish invalidation to others.
+     *
+     * @param userId user id to invalidate.
+     */
+    public void invalidate(Long userId) {
+        cache.invalidate(userId);
+        redisTemplate.convertAndSend(INVALIDATION_CHANNEL, userId.toString());
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String userId = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            cache.invalidate(Long.valueOf(userId));
+        } catch (NumberFormatException e) {
+            log.warn("Skip incorrect refresh token invalidation message {}.", userId);
+        }
+    }
+}
@@ -4,41 +4,66 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import ru.effective.tms.model.entity.security.RefreshToken;
-import ru.effective.tms.repository.RefreshTokenRepository;
+import ru.effective.tms.repository.RefreshTokenStore;
 import ru.effective.tms.exception.security.RefreshTokenException;
 import ru.effective.tms.service.security.RefreshTokenService;
 
 import java.time.Duration;
 import java.time.Instant;
-import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @RequiredArgsConstructor
 @Service
 public class RefreshTokenServiceImpl implements RefreshTokenService {
-    private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenStore refreshTokenStore;
+    /**
+     * Near cache for {@link #checkByUserId(Long)}.
+     */
+    private final RefreshTokenPresenceCache presenceCache;
     @Value("${app.security.jwt.refresh-token.expiration}")
     private Duration refreshTokenExpiry;
 
     public Optional<RefreshToken> findByRefreshToken(String token) {
-        return refreshTokenRepository.findByToken(token);
+        return refreshTokenStore.findByToken(token);
     }
 
-    public RefreshToken createRefreshToken(Long userId) {
+    public RefreshToken createRefreshToken(Long userId, String username) {
         RefreshToken refreshToken = RefreshToken.builder()
                 .userId(userId)
+                .username(username)
                 .expiryDate(Instant.now().plusMillis(refreshTokenExpiry.toMillis()))
                 .token(UUID.randomUUID().toString())
                 .build();
 
-        refreshToken = refreshTokenRepository.save(refreshToken);
+        refreshToken = refreshTokenStore.save(refreshToken);
+        presenceCache.put(userId);
         return refreshToken;
     }
 
+    @Override
+    public RefreshToken rotateRefreshToken(String token) {
+        Instant now = Instant.now();
+        RefreshToken newToken = RefreshToken.builder()
+                .expiryDate(now.plusMillis(refreshTokenExpiry.toMillis()))
+                .token(UUID.randomUUID().toString())
+                .build();
+        RefreshToken consumed = refreshTokenStore.rotate(token, newToken, now)
+                .orElseThrow(() -> new RefreshTokenException(token,
+                        "refresh token not found"));
+        if (!consumed.getExpiryDate().isAfter(now)) {
+            presenceCache.invalidate(consumed.getUserId());
+            throw new RefreshTokenException(token,
+                    "Refresh token was expired. Repeat signin action!");
+        }
+        presenceCache.put(newToken.getUserId());
+        return newToken;
+    }
+
     public RefreshToken checkRefreshToken(RefreshToken token) {
         if (token.getExpiryDate().compareTo(Instant.now()) < 0) {
-            refreshTokenRepository.delete(token);
+            refreshTokenStore.delete(token);
+            presenceCache.invalidate(token.getUserId());
             throw new RefreshTokenException(token.getToken(),
                     "Refresh token was expired. Repeat signin action!");
         }
@@ -46,13 +71,13 @@ public class RefreshTokenServiceImpl implements RefreshTokenService {
     }
 
     public void deleteByUserId(Long userId) {
-        List<RefreshToken> tokens = refreshTokenRepository.findAllByUserId(userId);
-        refreshTokenRepository.deleteAll(tokens);
+        refreshTokenStore.deleteAllByUserId(userId);
+        presenceCache.invalidate(userId);
     }
 
     @Override
     public boolean checkByUserId(Long userId) {
-        return refreshTokenRepository.existsByUserId(userId);
+        return presenceCache.contains(userId, refreshTokenStore::existsByUserId);
     }
 
     public void setRefreshTokenExpiry(Duration refreshTokenExpiry) {
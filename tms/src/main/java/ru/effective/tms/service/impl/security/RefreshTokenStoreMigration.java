@@ -0,0 +1,121 @@
+package ru.effective.tms.service.impl.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import ru.effective.tms.model.entity.security.RefreshToken;
+import ru.effective.tms.repository.RefreshTokenRepository;
+import ru.effective.tms.repository.RefreshTokenStore;
+import ru.effective.tms.repository.impl.CompactRefreshTokenStore;
+import ru.effective.tms.repository.impl.IndexedRefreshTokenStore;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Move tokens from {@code @RedisHash} keyspace
+ * to {@link CompactRefreshTokenStore} on startup.
+ * <br>
+ * Token ids are read from keyspace set with SSCAN in batches,
+ * so tokens are not loaded at once.
+ * Live tokens are copied with remaining time to live,
+ * expired tokens are dropped. Only read tokens are deleted with their indexes,
+ * tokens written by not updated nodes during migration
+ * are moved on the next start.
+ * Migration is idempotent, so it is safe to run on every node
+ * and to restart after rolling update.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(
+        name = "app.security.refresh-token.store",
+        havingValue = "compact"
+)
+public class RefreshTokenStoreMigration implements ApplicationRunner {
+    /**
+     * Legacy {@code @RedisHash} repository.
+     */
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenStore refreshTokenStore;
+    private final StringRedisTemplate redisTemplate;
+    /**
+     * Migration switch.
+     */
+    private final boolean migrateLegacy;
+    /**
+     * SSCAN count hint.
+     */
+    private final int batchSize;
+
+    public RefreshTokenStoreMigration(
+            RefreshTokenRepository refreshTokenRepository,
+            RefreshTokenStore refreshTokenStore,
+            StringRedisTemplate redisTemplate,
+            @Value("${app.security.refresh-token.migrate-legacy:true}") boolean migrateLegacy,
+            @Value("${app.security.refresh-token.migrate-batch-size:500}") int batchSize) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.refreshTokenStore = refreshTokenStore;
+        this.redisTemplate = redisTemplate;
+        this.migrateLegacy = migrateLegacy;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!migrateLegacy || refreshTokenRepository.count() == 0) {
+            return;
+        }
+        log.warn("Try to migrate legacy refresh tokens.");
+        Instant now = Instant.now();
+        int migrated = 0;
+        int dropped = 0;
+        ScanOptions options = ScanOptions.scanOptions().count(batchSize).build();
+        try (Cursor<String> cursor = redisTemplate.opsForSet()
+                .scan(IndexedRefreshTokenStore.KEYSPACE, options)) {
+            while (cursor.hasNext()) {
+                if (migrate(cursor.next(), now)) {
+                    migrated++;
+                } else {
+                    dropped++;
+                }
+            }
+        }
+        log.warn("Legacy refresh tokens migrated: {}, expired dropped: {}.",
+                migrated, dropped);
+    }
+
+    /**
+     * Copy live token and delete it from legacy keyspace.
+     *
+     * @param id  token id from keyspace set.
+     * @param now migration time.
+     * @return true if token is copied.
+     */
+    private boolean migrate(String id, Instant now) {
+        Optional<RefreshToken> found;
+        try {
+            found = refreshTokenRepository.findById(Long.valueOf(id));
+        } catch (NumberFormatException e) {
+            log.warn("Skip legacy refresh token with incorrect id {}.", id);
+            return false;
+        }
+        if (found.isEmpty()) {
+            redisTemplate.opsForSet().remove(IndexedRefreshTokenStore.KEYSPACE, id);
+            return false;
+        }
+        RefreshToken token = found.get();
+        boolean live = token.getExpiryDate() != null
+                && token.getExpiryDate().isAfter(now);
+        if (live) {
+            refreshTokenStore.save(token);
+        }
+        refreshTokenRepository.delete(token);
+        return live;
+    }
+}
@@ -0,0 +1,104 @@
+package ru.effective.tms.service.impl.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.effective.tms.repository.RefreshTokenStore;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Scheduled cleanup of {@link RefreshTokenStore}.
+ * <br>
+ * Only one node sweeps at a time: run is guarded
+ * by Redis lock {@value #LOCK_KEY}.
+ * Reclaimed keys are counted in {@value #RECLAIMED_METRIC}.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(
+        name = "app.security.refresh-token.sweeper.enabled",
+        havingValue = "true",
+        matchIfMissing = true
+)
+public class RefreshTokenSweeper {
+    /**
+     * Outside of refresh token keyspaces, so sweep SCAN does not return it.
+     */
+    public static final String LOCK_KEY = "refresh_token_sweeper:lock";
+    public static final String RECLAIMED_METRIC = "refresh_tokens.sweeper.reclaimed";
+    /**
+     * Delete lock only if it is still owned by this node.
+     */
+    private static final RedisScript<Long> UNLOCK_SCRIPT = RedisScript.of("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+    private final RefreshTokenStore refreshTokenStore;
+    private final StringRedisTemplate redisTemplate;
+    private final Counter reclaimedCounter;
+    /**
+     * Lock owner id of current node.
+     */
+    private final String nodeId = UUID.randomUUID().toString();
+    /**
+     * SCAN count hint and keys between pauses.
+     */
+    @Value("${app.security.refresh-token.sweeper.batch-size:500}")
+    private int batchSize;
+    /**
+     * Max keys to check in one run.
+     */
+    @Value("${app.security.refresh-token.sweeper.max-keys-per-run:50000}")
+    private long maxKeysPerRun;
+    /**
+     * Pause between batches.
+     */
+    @Value("${app.security.refresh-token.sweeper.batch-pause:50ms}")
+    private Duration batchPause;
+    /**
+     * Lock time to live, should be longer than one run.
+     */
+    @Value("${app.security.refresh-token.sweeper.lock-ttl:5m}")
+    private Duration lockTtl;
+
+    public RefreshTokenSweeper(RefreshTokenStore refreshTokenStore,
+                               StringRedisTemplate redisTemplate,
+                               MeterRegistry meterRegistry) {
+        this.refreshTokenStore = refreshTokenStore;
+        this.redisTemplate = redisTemplate;
+        this.reclaimedCounter = Counter.builder(RECLAIMED_METRIC)
+                .description("Expired refresh tokens and index entries removed by sweeper")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.security.refresh-token.sweeper.interval:PT10M}",
+            fixedDelayString = "${app.security.refresh-token.sweeper.interval:PT10M}"
+    )
+    public void sweep() {
+        Boolean locked = redisTemplate.opsForValue()
+                .setIfAbsent(LOCK_KEY, nodeId, lockTtl);
+        if (!Boolean.TRUE.equals(locked)) {
+            log.info("Refresh token sweep is running on another node.");
+            return;
+        }
+        try {
+            long reclaimed = refreshTokenStore.sweep(batchSize, maxKeysPerRun, batchPause);
+            reclaimedCounter.increment(reclaimed);
+            log.info("Refresh token sweep reclaimed {} entries.", reclaimed);
+        } finally {
+            redisTemplate.execute(UNLOCK_SCRIPT, List.of(LOCK_KEY), nodeId);
+        }
+    }
+}
@@ -3,12 +3,10 @@ package ru.effective.tms.service.impl.security;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
-import ru.effective.tms.exception.security.RefreshTokenException;
 import ru.effective.tms.jwt.JwtUtils;
 import ru.effective.tms.model.dto.security.AuthResponse;
 import ru.effective.tms.model.dto.security.LoginRequest;
@@ -16,10 +14,12 @@ import ru.effective.tms.model.dto.security.RefreshTokenRequest;
 import ru.effective.tms.model.dto.security.RefreshTokenResponse;
 import ru.effective.tms.model.entity.User;
 import ru.effective.tms.model.entity.security.AppUserDetails;
+import ru.effective.tms.model.entity.security.EmailPasswordAuthenticationToken;
 import ru.effective.tms.model.entity.security.RefreshToken;
 import ru.effective.tms.service.UserService;
 import ru.effective.tms.service.security.RefreshTokenService;
 import ru.effective.tms.service.security.SecurityService;
+import ru.effective.tms.service.security.TokenRevocationService;
 
 import java.util.List;
 
@@ -39,7 +39,7 @@ public class SecurityServiceImpl implements SecurityService {
      */
     private final RefreshTokenService refreshTokenService;
     /**
-     * To authentication user by password and username.
+     * To authentication user by email and password.
      *
      * @see #getAuthenticationFromLoginRequest(LoginRequest)
      */
@@ -48,6 +48,10 @@ public class SecurityServiceImpl implements SecurityService {
      * To generate jwt token.
      */
     private final JwtUtils jwtUtils;
+    /**
+     * To revoke stateless jwt tokens on logout.
+     */
+    private final TokenRevocationService tokenRevocationService;
 
     public AuthResponse authenticationUser(LoginRequest loginRequest) {
         Authentication authentication =
@@ -59,7 +63,10 @@ public class SecurityServiceImpl implements SecurityService {
                 .map(GrantedAuthority::getAuthority)
                 .toList();
         RefreshToken refreshToken =
-                refreshTokenService.createRefreshToken(userDetails.getUserId());
+                refreshTokenService.createRefreshToken(
+                        userDetails.getUserId(),
+                        userDetails.getUsername()
+                );
 
         return AuthResponse.builder()
                 .token(jwtUtils.generateJwtToken(userDetails))
@@ -71,12 +78,9 @@ public class SecurityServiceImpl implements SecurityService {
     }
 
     private Authentication getAuthenticationFromLoginRequest(LoginRequest loginRequest) {
-        String username = userService
-                .findByEmail(loginRequest.getEmail())
-                .getUsername();
         return authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        username,
+                new EmailPasswordAuthenticationToken(
+                        loginRequest.getEmail(),
                         loginRequest.getPassword()
                 )
         );
@@ -86,20 +90,35 @@ public class SecurityServiceImpl implements SecurityService {
         return userService.save(user);
     }
 
+    /**
+     * Rotate refresh token and generate new jwt token.
+     * Old refresh token is consumed, so it can be used only once.
+     * Jwt subject is username from refresh token, User is not loaded.
+     * User is loaded only in stateless principal mode, to issue jwt token
+     * with the same claims as on login and with current roles,
+     * or for token saved without username.
+     *
+     * @param request refresh token request.
+     * @return new jwt token and new refresh token.
+     */
     public RefreshTokenResponse refreshToken(RefreshTokenRequest request) {
-        String refreshTokenRequest = request.getRefreshToken();
-        return refreshTokenService.findByRefreshToken(refreshTokenRequest)
-                .map(refreshTokenService::checkRefreshToken)
-                .map(RefreshToken::getUserId)
-                .map(userId -> {
-                    User tokenOwner = userService.findById(userId);
-                    String token = jwtUtils.generateTokenFromUsername(tokenOwner.getUsername());
-                    return new RefreshTokenResponse(
-                            token,
-                            refreshTokenService.createRefreshToken(userId).getToken()
-                    );
-                }).orElseThrow(() -> new RefreshTokenException(refreshTokenRequest,
-                        "refresh token not found"));
+        RefreshToken refreshToken =
+                refreshTokenService.rotateRefreshToken(request.getRefreshToken());
+        if (!jwtUtils.isStatelessPrincipal() && refreshToken.getUsername() != null) {
+            return new RefreshTokenResponse(
+                    refreshToken.getToken(),
+                    jwtUtils.generateTokenFromUsername(refreshToken.getUsername())
+            );
+        }
+        User user = userService.findById(refreshToken.getUserId());
+        return new RefreshTokenResponse(
+                refreshToken.getToken(),
+                jwtUtils.generateTokenFromUsername(
+                        user.getUsername(),
+                        user.getId(),
+                        user.getRoles()
+                )
+        );
     }
 
     public void logout() {
@@ -109,6 +128,7 @@ public class SecurityServiceImpl implements SecurityService {
         if (currentPrincipal instanceof AppUserDetails userDetails) {
             Long userId = userDetails.getUserId();
             refreshTokenService.deleteByUserId(userId);
+            tokenRevocationService.revoke(userId);
         }
     }
 }
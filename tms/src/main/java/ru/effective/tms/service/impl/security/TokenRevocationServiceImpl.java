@@ -0,0 +1,60 @@
+package ru.effective.tms.service.impl.security;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import ru.effective.tms.service.security.TokenRevocationService;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+/**
+ * Revocation set for stateless jwt tokens.
+ * <br>
+ * Key per revoked user with revocation time.
+ * Key lives as long as jwt token,
+ * after that all revoked tokens are expired anyway.
+ * <br>
+ * Jwt issue time has second precision, so tokens issued
+ * in the same second as revocation stay valid.
+ * Otherwise signin right after logout would be rejected.
+ */
+@RequiredArgsConstructor
+@Service
+@Slf4j
+public class TokenRevocationServiceImpl implements TokenRevocationService {
+    /**
+     * Revocation key prefix.
+     */
+    private static final String KEY_PREFIX = "revoked_users:";
+    private final StringRedisTemplate redisTemplate;
+    /**
+     * Jwt token Expiration.
+     * Used as revocation key time to live.
+     */
+    @Value("${app.security.jwt.expiration}")
+    private Duration tokenExpiration;
+
+    @Override
+    public void revoke(Long userId) {
+        log.warn("revoke jwt tokens for user with id {}.", userId);
+        redisTemplate.opsForValue().set(
+                KEY_PREFIX + userId,
+                String.valueOf(Instant.now().getEpochSecond()),
+                tokenExpiration
+        );
+    }
+
+    @Override
+    public boolean isRevoked(Long userId, Date issuedAt) {
+        String revokedAt = redisTemplate.opsForValue().get(KEY_PREFIX + userId);
+        if (revokedAt == null) {
+            return false;
+        }
+        return issuedAt == null
+                || issuedAt.toInstant().getEpochSecond() < Long.parseLong(revokedAt);
+    }
+}
@@ -16,10 +16,21 @@ public interface RefreshTokenService {
     /**
      * Create new {@link RefreshToken} by user id.
      *
-     * @param userId user to create token.
+     * @param userId   user to create token.
+     * @param username user username, kept in token for refresh.
      * @return created {@link RefreshToken}.
      */
-    RefreshToken createRefreshToken(Long userId);
+    RefreshToken createRefreshToken(Long userId, String username);
+
+    /**
+     * Consume {@link RefreshToken} and create new one for the same user.
+     *
+     * @param token old token string value.
+     * @return new {@link RefreshToken} with owner id and username.
+     * @throws ru.effective.tms.exception.security.RefreshTokenException
+     *         if token not found, already used or expired.
+     */
+    RefreshToken rotateRefreshToken(String token);
 
     /**
      * Check {@link RefreshToken} to expiry.
@@ -0,0 +1,24 @@
+package ru.effective.tms.service.security;
+
+import java.util.Date;
+
+/**
+ * Service interface for revocation of stateless jwt tokens.
+ */
+public interface TokenRevocationService {
+    /**
+     * Revoke all jwt tokens of user issued before now.
+     *
+     * @param userId user id to revoke tokens.
+     */
+    void revoke(Long userId);
+
+    /**
+     * Check jwt token revocation.
+     *
+     * @param userId   token owner id.
+     * @param issuedAt token issue date.
+     * @return true if token was issued before user revocation.
+     */
+    boolean isRevoked(Long userId, Date issuedAt);
+}
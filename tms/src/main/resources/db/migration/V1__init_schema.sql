@@ -0,0 +1,47 @@
+-- Schema as it was created by Hibernate DDL.
+-- Existing databases are baselined on this version.
+
+CREATE TABLE users
+(
+    id       BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username VARCHAR(255),
+    password VARCHAR(255),
+    email    VARCHAR(255)
+);
+CREATE UNIQUE INDEX idx_users_username ON users (username);
+CREATE UNIQUE INDEX idx_users_email ON users (email);
+
+CREATE TABLE user_roles
+(
+    user_id BIGINT NOT NULL REFERENCES users (id),
+    roles   VARCHAR(255)
+);
+
+CREATE TABLE tasks
+(
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title            VARCHAR(255),
+    description      VARCHAR(255),
+    current_status   VARCHAR(255),
+    current_priority VARCHAR(255),
+    author_id        BIGINT REFERENCES users (id)
+);
+
+-- Columns are swapped by mapping: task_id holds user id,
+-- performer_id holds task id. Fixed in V2.
+CREATE TABLE user_task
+(
+    task_id      BIGINT NOT NULL REFERENCES users (id),
+    performer_id BIGINT NOT NULL REFERENCES tasks (id),
+    PRIMARY KEY (task_id, performer_id)
+);
+
+CREATE TABLE comments
+(
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    content       VARCHAR(255),
+    creation_time TIMESTAMP(6) WITH TIME ZONE,
+    updated_time  TIMESTAMP(6) WITH TIME ZONE,
+    task_id       BIGINT REFERENCES tasks (id),
+    author_id     BIGINT REFERENCES users (id)
+);
@@ -0,0 +1,6 @@
+-- performer_id holds user id, task_id holds task id.
+-- Foreign keys follow renamed columns.
+
+ALTER TABLE user_task RENAME COLUMN task_id TO swap_id;
+ALTER TABLE user_task RENAME COLUMN performer_id TO task_id;
+ALTER TABLE user_task RENAME COLUMN swap_id TO performer_id;
@@ -0,0 +1,17 @@
+-- Indexes for TaskSpecifications filter shapes.
+
+-- authorId with or without currentStatus.
+CREATE INDEX idx_tasks_author_status ON tasks (author_id, current_status);
+-- currentStatus with or without currentPriority.
+CREATE INDEX idx_tasks_status_priority ON tasks (current_status, current_priority);
+CREATE INDEX idx_tasks_priority ON tasks (current_priority);
+-- title equality, tasks without title are not indexed.
+CREATE INDEX idx_tasks_title_id ON tasks (title, id) WHERE title IS NOT NULL;
+-- description equality only.
+CREATE INDEX idx_tasks_description ON tasks USING hash (description);
+-- performerId filter is served by primary key (performer_id, task_id).
+-- Performers of task for list fetch and array_agg projection.
+CREATE INDEX idx_user_task_task_performer ON user_task (task_id, performer_id);
+
+CREATE INDEX idx_comments_task ON comments (task_id);
+CREATE INDEX idx_comments_author ON comments (author_id);
@@ -0,0 +1,9 @@
+-- Full-text search on title and description, TaskFilter.q.
+-- 'simple' configuration: prefix match works for any language.
+
+ALTER TABLE tasks
+    ADD COLUMN search_vector TSVECTOR GENERATED ALWAYS AS (
+        to_tsvector('simple', coalesce(title, '') || ' ' || coalesce(description, ''))
+        ) STORED;
+
+CREATE INDEX idx_tasks_search_vector ON tasks USING gin (search_vector);
@@ -0,0 +1,15 @@
+-- Task ids from pooled sequence instead of identity,
+-- Hibernate allocates 50 ids per nextval and batches inserts.
+-- Sequence value is the upper bound of allocated block.
+
+ALTER TABLE tasks
+    ALTER COLUMN id DROP IDENTITY;
+
+CREATE SEQUENCE tasks_seq INCREMENT BY 50 OWNED BY tasks.id;
+
+SELECT setval('tasks_seq', coalesce(max(id), 0) + 50, false)
+FROM tasks;
+
+-- Inserts without id (scripts, tests) take values of the same sequence.
+ALTER TABLE tasks
+    ALTER COLUMN id SET DEFAULT nextval('tasks_seq');
@@ -0,0 +1,6 @@
+-- Comments of task page by keyset (creation_time, id).
+-- Replaces idx_comments_task, task_id is its prefix.
+
+CREATE INDEX idx_comments_task_creation_time ON comments (task_id, creation_time, id);
+
+DROP INDEX idx_comments_task;
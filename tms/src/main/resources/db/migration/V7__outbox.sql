@@ -0,0 +1,9 @@
+-- Task events written in the transaction of task or comment change.
+-- Relay reads the oldest entries by id and deletes sent ones.
+
+CREATE TABLE outbox
+(
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    payload    TEXT                        NOT NULL,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL DEFAULT now()
+);
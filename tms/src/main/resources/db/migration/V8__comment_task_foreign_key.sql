@@ -0,0 +1,27 @@
+-- Foreign key of comment task with the same name in every database.
+-- Schema baselined from Hibernate DDL has generated FK... name,
+-- CommentServiceImpl detects missing task by comments_task_id_fkey.
+
+DO
+$$
+    DECLARE
+        task_foreign_key RECORD;
+    BEGIN
+        FOR task_foreign_key IN
+            SELECT c.conname
+            FROM pg_constraint c
+                     JOIN pg_attribute a
+                          ON a.attrelid = c.conrelid AND a.attnum = ANY (c.conkey)
+            WHERE c.conrelid = 'comments'::regclass
+              AND c.confrelid = 'tasks'::regclass
+              AND c.contype = 'f'
+              AND a.attname = 'task_id'
+            LOOP
+                EXECUTE format('ALTER TABLE comments DROP CONSTRAINT %I',
+                               task_foreign_key.conname);
+            END LOOP;
+    END
+$$;
+
+ALTER TABLE comments
+    ADD CONSTRAINT comments_task_id_fkey FOREIGN KEY (task_id) REFERENCES tasks (id);
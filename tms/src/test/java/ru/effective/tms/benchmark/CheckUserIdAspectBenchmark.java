@@ -0,0 +1,140 @@
+package ru.effective.tms.benchmark;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.effective.tms.aop.CheckUserIdPrivacy;
+import ru.effective.tms.aop.CheckUserIdRegistry;
+import ru.effective.tms.model.aop.EntityType;
+import ru.effective.tms.model.entity.User;
+import ru.effective.tms.model.entity.security.AppUserDetails;
+import ru.effective.tms.model.entity.security.RoleType;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ru.effective.tms.aop.CheckUserIdAspect} overhead
+ * for simple user with USER entity type, without owner query.
+ * <br>
+ * legacyRequestLookup repeats the former aspect work:
+ * path variables from request, id parsing and authority allocation per role.
+ * <br>
+ * Run: mvn test-compile exec:java
+ * -Dexec.mainClass=ru.effective.tms.benchmark.CheckUserIdAspectBenchmark
+ * -Dexec.classpathScope=test
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CheckUserIdAspectBenchmark {
+    private static final Long USER_ID = 1L;
+    private Method handlerMethod;
+    private CheckUserIdRegistry registry;
+    private Object[] handlerArgs;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        handlerMethod = CheckedHandler.class.getMethod("getById", Long.class);
+        registry = new CheckUserIdRegistry(null, null, null);
+        registry.getChecker(handlerMethod);
+        handlerArgs = new Object[]{USER_ID};
+
+        User user = new User();
+        user.setId(USER_ID);
+        user.setRoles(Set.of(RoleType.ROLE_USER));
+        AppUserDetails principal = new AppUserDetails(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(
+                        principal, null, principal.getAuthorities()
+                )
+        );
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/user/1");
+        request.setAttribute(
+                HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE,
+                Map.of("id", USER_ID.toString())
+        );
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public boolean legacyRequestLookup() {
+        CheckUserIdPrivacy param = handlerMethod.getAnnotation(CheckUserIdPrivacy.class);
+        var authorities =
+                SecurityContextHolder.getContext().getAuthentication().getAuthorities();
+        if (Arrays.stream(param.alwaysAccessRoles()).anyMatch(e ->
+                authorities.contains(new SimpleGrantedAuthority(e.toString())))) {
+            return true;
+        }
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        HttpServletRequest request =
+                ((ServletRequestAttributes) requestAttributes).getRequest();
+        Map<String, String> pathVariable = (Map<String, String>)
+                request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        Long pathId = Long.valueOf(pathVariable.get("id"));
+        AppUserDetails userDetails = (AppUserDetails) SecurityContextHolder
+                .getContext()
+                .getAuthentication()
+                .getPrincipal();
+        return userDetails.getUserId().equals(pathId);
+    }
+
+    @Benchmark
+    public Authentication precompiledChecker() {
+        Authentication authentication =
+                SecurityContextHolder.getContext().getAuthentication();
+        registry.getChecker(handlerMethod).check(handlerArgs, authentication);
+        return authentication;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CheckUserIdAspectBenchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+
+    public static class CheckedHandler {
+        @CheckUserIdPrivacy(entityType = EntityType.USER,
+                alwaysAccessRoles = RoleType.ROLE_ADMIN)
+        @GetMapping(path = "/{id}")
+        public void getById(@PathVariable("id") Long id) {
+        }
+    }
+}
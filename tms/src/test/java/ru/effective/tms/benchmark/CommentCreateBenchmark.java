@@ -0,0 +1,166 @@
+package ru.effective.tms.benchmark;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import redis.embedded.RedisServer;
+import ru.effective.tms.TaskManagementSystemsApplication;
+import ru.effective.tms.model.entity.Comment;
+import ru.effective.tms.model.entity.Task;
+import ru.effective.tms.model.entity.User;
+import ru.effective.tms.model.entity.security.AppUserDetails;
+import ru.effective.tms.model.entity.security.RoleType;
+import ru.effective.tms.repository.CommentRepository;
+import ru.effective.tms.repository.TaskRepository;
+import ru.effective.tms.repository.UserRepository;
+import ru.effective.tms.service.CommentService;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Comment creation of one POST /api/comment request
+ * in application context on embedded Postgres and Redis.
+ * <br>
+ * serviceSave is {@code CommentServiceImpl#save}: single INSERT
+ * with task and author references in service transaction, event is published.
+ * loadedReferencesSave is the former repository path: task and author
+ * are loaded and comment is saved with {@code CommentRepository#save}.
+ * <br>
+ * Run: mvn test-compile exec:java
+ * -Dexec.mainClass=ru.effective.tms.benchmark.CommentCreateBenchmark
+ * -Dexec.classpathScope=test
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CommentCreateBenchmark {
+    private static final int AUTHOR_COMMENT_COUNT = 200;
+    private EmbeddedPostgres postgres;
+    private RedisServer redisServer;
+    private ConfigurableApplicationContext context;
+    private CommentService commentService;
+    private CommentRepository commentRepository;
+    private TaskRepository taskRepository;
+    private UserRepository userRepository;
+    private TransactionTemplate transactionTemplate;
+    private long authorId;
+    private long taskId;
+
+    @Setup
+    public void setUp() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        int redisPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            redisPort = socket.getLocalPort();
+        }
+        redisServer = new RedisServer(redisPort);
+        redisServer.start();
+        context = new SpringApplicationBuilder(TaskManagementSystemsApplication.class)
+                .run("--server.port=0",
+                        "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                        "--spring.datasource.username=postgres",
+                        "--spring.datasource.password=postgres",
+                        "--spring.data.redis.host=localhost",
+                        "--spring.data.redis.port=" + redisPort,
+                        "--app.security.refresh-token.sweeper.enabled=false");
+        commentService = context.getBean(CommentService.class);
+        commentRepository = context.getBean(CommentRepository.class);
+        taskRepository = context.getBean(TaskRepository.class);
+        userRepository = context.getBean(UserRepository.class);
+        transactionTemplate = new TransactionTemplate(
+                context.getBean(PlatformTransactionManager.class));
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.execute("""
+                insert into users (username, password, email)
+                values ('author', 'password', 'author@mail.ru')""");
+        jdbcTemplate.execute("""
+                insert into user_roles (user_id, roles)
+                select id, 'ROLE_USER' from users""");
+        jdbcTemplate.execute("""
+                insert into tasks (title, description, current_status, current_priority, author_id)
+                select 'title', 'description', 'OPEN', 'MEDIUM', id from users""");
+        jdbcTemplate.execute("""
+                insert into comments (content, creation_time, updated_time, task_id, author_id)
+                select 'comment ' || n, now(), now(), t.id, t.author_id
+                from tasks t, generate_series(1, %d) n"""
+                .formatted(AUTHOR_COMMENT_COUNT));
+        jdbcTemplate.execute("analyze");
+        taskId = jdbcTemplate.queryForObject("select id from tasks", Long.class);
+        authorId = jdbcTemplate.queryForObject("select author_id from tasks", Long.class);
+
+        User author = new User();
+        author.setId(authorId);
+        author.setRoles(Set.of(RoleType.ROLE_USER));
+        AppUserDetails principal = new AppUserDetails(author);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(
+                        principal, null, principal.getAuthorities()
+                )
+        );
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        SecurityContextHolder.clearContext();
+        context.close();
+        redisServer.stop();
+        postgres.close();
+    }
+
+    @Benchmark
+    public Comment serviceSave() {
+        return commentService.save(newComment());
+    }
+
+    @Benchmark
+    public Comment loadedReferencesSave() {
+        return transactionTemplate.execute(status -> {
+            Comment comment = newComment();
+            comment.setTask(taskRepository.findById(taskId).orElseThrow());
+            comment.setAuthor(userRepository.findById(authorId).orElseThrow());
+            return commentRepository.save(comment);
+        });
+    }
+
+    private Comment newComment() {
+        Task task = new Task();
+        task.setId(taskId);
+        return Comment.builder()
+                .content("content")
+                .task(task)
+                .build();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CommentCreateBenchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+}
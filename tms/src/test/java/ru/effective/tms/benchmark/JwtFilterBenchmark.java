@@ -0,0 +1,77 @@
+package ru.effective.tms.benchmark;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.effective.tms.jwt.JwtUtils;
+
+import java.security.Key;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request jwt cost in {@link ru.effective.tms.jwt.JwtTokenFilter}.
+ * <br>
+ * legacyValidateThenParse repeats the former filter work:
+ * key decoding and parser building for validation and again for username.
+ * <br>
+ * Run: mvn test-compile exec:java
+ * -Dexec.mainClass=ru.effective.tms.benchmark.JwtFilterBenchmark
+ * -Dexec.classpathScope=test
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtFilterBenchmark {
+    private static final String SECRET =
+            "635266556A586E32743777217A25432A462D4A614E72357538782F413F442847";
+    private JwtUtils jwtUtils;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = new JwtUtils(null, null);
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "tokenExpiration", Duration.ofDays(1));
+        jwtUtils.init();
+        token = jwtUtils.generateTokenFromUsername("user");
+    }
+
+    @Benchmark
+    public String legacyValidateThenParse() {
+        Key validationKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        Jwts.parserBuilder().setSigningKey(validationKey).build().parse(token);
+        Key usernameKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        return Jwts.parserBuilder().setSigningKey(usernameKey).build()
+                .parseClaimsJws(token).getBody().getSubject();
+    }
+
+    @Benchmark
+    public String cachedSingleParse() {
+        return jwtUtils.parse(token).getUsername();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtFilterBenchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+}
@@ -0,0 +1,68 @@
+package ru.effective.tms.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Password check cost per sign in
+ * for app.security.password.encoder settings.
+ * <br>
+ * Run: mvn test-compile exec:java
+ * -Dexec.mainClass=ru.effective.tms.benchmark.PasswordHashBenchmark
+ * -Dexec.classpathScope=test
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordHashBenchmark {
+    @Param({"bcrypt-8", "bcrypt-10", "bcrypt-12", "argon2", "pbkdf2"})
+    private String encoderSetting;
+    private PasswordEncoder encoder;
+    private String encodedPassword;
+
+    @Setup
+    public void setUp() {
+        encoder = switch (encoderSetting) {
+            case "bcrypt-8" -> new BCryptPasswordEncoder(8);
+            case "bcrypt-10" -> new BCryptPasswordEncoder(10);
+            case "bcrypt-12" -> new BCryptPasswordEncoder(12);
+            case "argon2" -> Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8();
+            case "pbkdf2" -> Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8();
+            default -> throw new IllegalArgumentException(encoderSetting);
+        };
+        encodedPassword = encoder.encode("password");
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches("password", encodedPassword);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PasswordHashBenchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+}
@@ -0,0 +1,134 @@
+package ru.effective.tms.benchmark;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ru.effective.tms.repository.query.TaskFilterQuery;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Task search by q on synthetic dataset of one million tasks.
+ * <br>
+ * fullTextSearch is the query of {@code TaskFilterQuery} SEARCH condition
+ * ordered by relevance, substringScan is ILIKE on title and description.
+ * <br>
+ * Run: mvn test-compile exec:java
+ * -Dexec.mainClass=ru.effective.tms.benchmark.TaskSearchBenchmark
+ * -Dexec.classpathScope=test
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskSearchBenchmark {
+    private static final int TASK_COUNT = 1_000_000;
+    private static final int PAGE_SIZE = 20;
+    private static final String FULL_TEXT_SEARCH = """
+            select t.id from tasks t
+            where t.search_vector @@ to_tsquery('simple', ?)
+            order by ts_rank(t.search_vector, to_tsquery('simple', ?)) desc, t.id
+            limit ?""";
+    private static final String SUBSTRING_SCAN = """
+            select t.id from tasks t
+            where t.title ilike ? or t.description ilike ?
+            order by t.id
+            limit ?""";
+    @Param({"migration", "deploy fail", "rep"})
+    private String q;
+    private EmbeddedPostgres postgres;
+    private Connection connection;
+    private PreparedStatement fullTextSearch;
+    private PreparedStatement substringScan;
+
+    @Setup
+    public void setUp() throws IOException, SQLException {
+        postgres = EmbeddedPostgres.start();
+        Flyway.configure()
+                .dataSource(postgres.getPostgresDatabase())
+                .load()
+                .migrate();
+        connection = postgres.getPostgresDatabase().getConnection();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    insert into tasks (title, description, current_status, current_priority)
+                    select w[mod(n, 17) + 1] || ' ' || w[mod(n, 13) + 1] || ' ' || n,
+                           w[mod(n, 11) + 1] || ' ' || w[mod(n, 7) + 1] || ' ' || md5(n::text),
+                           'OPEN', 'MEDIUM'
+                    from generate_series(1, %d) n,
+                         lateral (select array['deploy', 'report', 'migration', 'fail',
+                                 'release', 'review', 'database', 'index', 'search',
+                                 'cache', 'login', 'token', 'comment', 'refactor',
+                                 'upgrade', 'metrics', 'alert'] w) words"""
+                    .formatted(TASK_COUNT));
+            statement.execute("analyze tasks");
+        }
+        String tsQuery = TaskFilterQuery.toPrefixTsQuery(q);
+        fullTextSearch = connection.prepareStatement(FULL_TEXT_SEARCH);
+        fullTextSearch.setString(1, tsQuery);
+        fullTextSearch.setString(2, tsQuery);
+        fullTextSearch.setInt(3, PAGE_SIZE);
+        String pattern = "%" + q + "%";
+        substringScan = connection.prepareStatement(SUBSTRING_SCAN);
+        substringScan.setString(1, pattern);
+        substringScan.setString(2, pattern);
+        substringScan.setInt(3, PAGE_SIZE);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException, IOException {
+        connection.close();
+        postgres.close();
+    }
+
+    @Benchmark
+    public List<Long> fullTextSearch() throws SQLException {
+        return ids(fullTextSearch);
+    }
+
+    @Benchmark
+    public List<Long> substringScan() throws SQLException {
+        return ids(substringScan);
+    }
+
+    private static List<Long> ids(PreparedStatement statement) throws SQLException {
+        List<Long> ids = new ArrayList<>(PAGE_SIZE);
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                ids.add(resultSet.getLong(1));
+            }
+        }
+        return ids;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TaskSearchBenchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+}
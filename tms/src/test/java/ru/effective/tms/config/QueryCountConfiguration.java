@@ -0,0 +1,35 @@
+package ru.effective.tms.config;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+
+/**
+ * Test configuration with query counting {@link DataSource}.
+ * <br>
+ * Counts are per thread and read with
+ * {@link net.ttddyy.dsproxy.QueryCountHolder}.
+ */
+@TestConfiguration
+public class QueryCountConfiguration {
+    @Bean
+    public static BeanPostProcessor queryCountDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource
+                        && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .countQuery()
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
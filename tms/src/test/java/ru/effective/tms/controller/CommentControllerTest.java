@@ -27,10 +27,12 @@ import java.util.Collections;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -48,6 +50,7 @@ public class CommentControllerTest {
     private MockMvc mockMvc;
     private static final String getAllUrl = urlTemplate;
     private static final String getByIdUrl = urlTemplate + "/1";
+    private static final String createUrl = urlTemplate;
     private static final String updateUrl = urlTemplate + "/1";
     private static final String deleteUrl = urlTemplate + "/1";
     private static final User DEFAULT_USER = new User(
@@ -118,7 +121,7 @@ public class CommentControllerTest {
                 new ArrayList<>(List.of(COMMENT_RESPONSE))
         );
 
-        when(commentMapper.modelListToModelListResponse(any(List.class)))
+        when(commentMapper.sliceToModelListResponse(any(), any()))
                 .thenReturn(commentListResponse);
 
         mockMvc.perform(get(getAllUrl))
@@ -126,7 +129,9 @@ public class CommentControllerTest {
                 .andExpect(status().isOk());
 
         verify(commentService, times(1))
-                .findAll();
+                .findAll(any(), any());
+        verify(commentService, times(0))
+                .count();
     }
 
     @Test
@@ -168,6 +173,31 @@ public class CommentControllerTest {
                 .andExpect(status().isUnauthorized());
     }
 
+    @Test
+    @DisplayName("create test: create comment with principal username.")
+    void givenSimpleUserWhenCreateUrlThenCommentResponse()
+            throws Exception {
+        when(commentMapper.requestToModel(any(CommentRequest.class)))
+                .thenReturn(DEFAULT_COMMENT);
+        when(commentService.save(any(Comment.class)))
+                .thenReturn(DEFAULT_COMMENT);
+        when(commentMapper.modelToResponse(any(Comment.class), eq("user")))
+                .thenReturn(COMMENT_RESPONSE);
+
+        mockMvc.perform(post(createUrl)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(SIMPLE_REQUEST_COMMENT_JSON)
+                        .with(user(principalWithSameId))
+                )
+                .andExpect(jsonPath("$.userName").value("user"))
+                .andExpect(status().isCreated());
+
+        verify(commentService, times(1))
+                .save(any());
+        verify(commentMapper, times(0))
+                .modelToResponse(any());
+    }
+
     @Test
     @WithMockUser()
     @DisplayName("update test: update comment data " +
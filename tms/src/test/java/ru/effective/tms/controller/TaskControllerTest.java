@@ -10,18 +10,24 @@ import org.springframework.security.test.context.support.WithAnonymousUser;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.effective.tms.exception.EntityNotFoundException;
 import ru.effective.tms.mapper.TaskMapper;
+import ru.effective.tms.model.dto.CursorPage;
 import ru.effective.tms.model.dto.comment.CommentResponse;
 import ru.effective.tms.model.dto.task.TaskListResponse;
 import ru.effective.tms.model.dto.task.TaskRequest;
 import ru.effective.tms.model.dto.task.TaskResponse;
 import ru.effective.tms.model.dto.task.TaskResponseWith;
+import ru.effective.tms.model.entity.Comment;
 import ru.effective.tms.model.entity.Task;
 import ru.effective.tms.model.entity.User;
 import ru.effective.tms.model.entity.security.AppUserDetails;
 import ru.effective.tms.model.entity.security.RoleType;
 import ru.effective.tms.model.enums.Priority;
 import ru.effective.tms.model.enums.Status;
+import ru.effective.tms.service.CommentService;
+import ru.effective.tms.service.TaskEventService;
 import ru.effective.tms.service.TaskService;
 
 import java.time.Instant;
@@ -30,10 +36,14 @@ import java.util.Collections;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -45,12 +55,20 @@ public class TaskControllerTest {
     private TaskService taskService;
     @MockitoBean
     private TaskMapper taskMapper;
+    @MockitoBean
+    private CommentService commentService;
+    @MockitoBean
+    private TaskEventService taskEventService;
     @Autowired
     private MockMvc mockMvc;
     private static final String getAllUrl = urlTemplate;
     private static final String getByIdUrl = urlTemplate + "/1";
     private static final String updateUrl = urlTemplate + "/1";
     private static final String deleteUrl = urlTemplate + "/1";
+    private static final String createAllUrl = urlTemplate + "/batch";
+    private static final String updateAllUrl = urlTemplate + "/bulk";
+    private static final String getCommentsUrl = urlTemplate + "/1/comments";
+    private static final String streamUrl = urlTemplate + "/stream";
     private static final User defaultUser = new User(
             1L,
             "user",
@@ -70,6 +88,8 @@ public class TaskControllerTest {
                 "authorId": 11,
                 "performerIds": [6,8]
             }""";
+    private static final String TASK_BATCH_REQUEST_JSON =
+            "{\"tasks\": [" + TASK_REQUEST_JSON + "," + TASK_REQUEST_JSON + "]}";
     private static final Task defaultTask = new Task(
             1L,
             "title",
@@ -100,7 +120,9 @@ public class TaskControllerTest {
             Priority.MEDIUM,
             1L,
             Collections.singletonList(2L),
-            List.of(COMMENT_RESPONSE)
+            List.of(COMMENT_RESPONSE),
+            1L,
+            null
     );
     private static final AppUserDetails principalWithSameId =
             new AppUserDetails(new User(
@@ -152,7 +174,7 @@ public class TaskControllerTest {
                 new ArrayList<>(List.of(TASK_RESPONSE))
         );
 
-        when(taskMapper.modelListToModelListResponse(any(List.class)))
+        when(taskMapper.responseSliceToListResponse(any(), any()))
                 .thenReturn(taskListResponse);
 
         mockMvc.perform(get(getAllUrl))
@@ -160,7 +182,37 @@ public class TaskControllerTest {
                 .andExpect(status().isOk());
 
         verify(taskService, times(1))
-                .findAll();
+                .findAllResponses(any(), any());
+        verify(taskService, times(0))
+                .count();
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("getAll test: get tasks page with requested total count.")
+    void givenWithTotalWhenGetAllUrlThenCountQuery()
+            throws Exception {
+        TaskListResponse taskListResponse = new TaskListResponse(
+                new ArrayList<>(List.of(TASK_RESPONSE))
+        );
+        taskListResponse.setTotalCount(1L);
+
+        when(taskService.count()).thenReturn(1L);
+        when(taskMapper.responseSliceToListResponse(any(), eq(1L)))
+                .thenReturn(taskListResponse);
+
+        mockMvc.perform(get(getAllUrl)
+                        .param("pageNumber", "0")
+                        .param("pageSize", "5")
+                        .param("withTotal", "true"))
+                .andExpect(jsonPath("$.totalCount").value(1))
+                .andExpect(jsonPath("$.hasNext").isBoolean())
+                .andExpect(status().isOk());
+
+        verify(taskService, times(1))
+                .findAllResponses(0, 5);
+        verify(taskService, times(1))
+                .count();
     }
 
     @Test
@@ -194,7 +246,7 @@ public class TaskControllerTest {
             throws Exception {
         when(taskService.findById(any(Long.class)))
                 .thenReturn(defaultTask);
-        when(taskMapper.modelToResponseWith(any(Task.class)))
+        when(taskMapper.modelToResponseWith(any(Task.class), any(), anyLong()))
                 .thenReturn(TASK_RESPONSE_WITH);
 
         mockMvc.perform(get(getByIdUrl)
@@ -209,7 +261,7 @@ public class TaskControllerTest {
                 .andExpect(status().isOk());
 
         verify(taskMapper, times(1))
-                .modelToResponseWith(any());
+                .modelToResponseWith(any(), any(), anyLong());
         verify(taskService, times(2))
                 .findById(any());
     }
@@ -221,7 +273,7 @@ public class TaskControllerTest {
             throws Exception {
         when(taskService.findById(any(Long.class)))
                 .thenReturn(defaultTask);
-        when(taskMapper.modelToResponseWith(any(Task.class)))
+        when(taskMapper.modelToResponseWith(any(Task.class), any(), anyLong()))
                 .thenReturn(TASK_RESPONSE_WITH);
 
         mockMvc.perform(get(getByIdUrl))
@@ -235,7 +287,7 @@ public class TaskControllerTest {
                 .andExpect(status().isOk());
 
         verify(taskMapper, times(1))
-                .modelToResponseWith(any());
+                .modelToResponseWith(any(), any(), anyLong());
         verify(taskService, times(1))
                 .findById(any());
     }
@@ -326,5 +378,344 @@ public class TaskControllerTest {
         verify(taskService, times(0))
                 .findById(any());
     }
-}
 
+    @Test
+    @WithMockUser()
+    @DisplayName("createAll test: create tasks from simple user.")
+    void givenSimpleUserWhenCreateAllUrlThenStatusForbidden()
+            throws Exception {
+        mockMvc.perform(post(createAllUrl)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(TASK_BATCH_REQUEST_JSON)
+                )
+                .andExpect(status().isForbidden());
+        verify(taskService, times(0))
+                .saveAll(any());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("createAll test: create tasks in one call from admin user.")
+    void givenAdminUserWhenCreateAllUrlThenTaskListResponse()
+            throws Exception {
+        List<Task> tasks = List.of(defaultTask, defaultTask);
+
+        when(taskMapper.requestListToModelList(any()))
+                .thenReturn(tasks);
+        when(taskService.saveAll(tasks))
+                .thenReturn(tasks);
+        when(taskMapper.modelListToModelListResponse(tasks))
+                .thenReturn(new TaskListResponse(List.of(TASK_RESPONSE, TASK_RESPONSE)));
+
+        mockMvc.perform(post(createAllUrl)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(TASK_BATCH_REQUEST_JSON)
+                )
+                .andExpect(jsonPath("$.tasks").isArray())
+                .andExpect(jsonPath("$.tasks.length()").value(2))
+                .andExpect(status().isCreated());
+
+        verify(taskService, times(1))
+                .saveAll(tasks);
+        verify(taskService, times(0))
+                .save(any());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("createAll test: create empty list of tasks.")
+    void givenEmptyTasksWhenCreateAllUrlThenBadRequest()
+            throws Exception {
+        mockMvc.perform(post(createAllUrl)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"tasks\": []}")
+                )
+                .andExpect(status().isBadRequest());
+        verify(taskService, times(0))
+                .saveAll(any());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("createAll test: create list of tasks with null task.")
+    void givenNullTaskWhenCreateAllThenBadRequest()
+            throws Exception {
+        mockMvc.perform(post(createAllUrl)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"tasks\": [" + TASK_REQUEST_JSON + ", null]}")
+                )
+                .andExpect(status().isBadRequest());
+
+        verify(taskService, times(0))
+                .saveAll(any());
+    }
+
+    @Test
+    @DisplayName("updateAll test: change status of own tasks from simple user.")
+    void givenUserPrincipalWhenUpdateAllStatusThenOwnerRestricted()
+            throws Exception {
+        when(taskService.updateAll(any(), any()))
+                .thenReturn(2);
+
+        mockMvc.perform(put(updateAllUrl)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"ids": [1, 2, 3], "currentStatus": "DONE"}""")
+                        .with(user(principalWithSameId))
+                )
+                .andExpect(jsonPath("$.updatedCount").value(2))
+                .andExpect(status().isOk());
+
+        verify(taskService, times(1))
+                .updateAll(any(), eq(principalWithSameId.getUserId()));
+        verify(taskService, times(0))
+                .update(any(), any());
+    }
+
+    @Test
+    @DisplayName("updateAll test: change priority from simple user.")
+    void givenUserPrincipalWhenUpdateAllPriorityThenForbidden()
+            throws Exception {
+        mockMvc.perform(put(updateAllUrl)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"ids": [1], "currentPriority": "HIGH"}""")
+                        .with(user(principalWithSameId))
+                )
+                .andExpect(status().isForbidden());
+
+        verify(taskService, times(0))
+                .updateAll(any(), any());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("updateAll test: change tasks by filter from admin user.")
+    void givenAdminUserWhenUpdateAllByFilterThenAnyOwner()
+            throws Exception {
+        when(taskService.updateAll(any(), any()))
+                .thenReturn(10);
+
+        mockMvc.perform(put(updateAllUrl)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"filter": {"authorId": 1},
+                                 "currentStatus": "CLOSED",
+                                 "currentPriority": "LOW"}""")
+                )
+                .andExpect(jsonPath("$.updatedCount").value(10))
+                .andExpect(status().isOk());
+
+        verify(taskService, times(1))
+                .updateAll(any(), isNull());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("updateAll test: change tasks without ids and filter.")
+    void givenNoTargetWhenUpdateAllThenBadRequest()
+            throws Exception {
+        mockMvc.perform(put(updateAllUrl)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"currentStatus": "CLOSED"}""")
+                )
+                .andExpect(status().isBadRequest());
+
+        verify(taskService, times(0))
+                .updateAll(any(), any());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("updateAll test: change tasks by filter without conditions.")
+    void givenEmptyFilterWhenUpdateAllThenBadRequest()
+            throws Exception {
+        mockMvc.perform(put(updateAllUrl)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"filter": {}, "currentStatus": "CLOSED"}""")
+                )
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(put(updateAllUrl)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"filter": {"q": " !? ", "pageSize": 10},
+                                 "currentStatus": "CLOSED"}""")
+                )
+                .andExpect(status().isBadRequest());
+
+        verify(taskService, times(0))
+                .updateAll(any(), any());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("updateAll test: change tasks by incorrect filter.")
+    void givenIncorrectFilterWhenUpdateAllThenBadRequest()
+            throws Exception {
+        String tooLongQuery = "q".repeat(201);
+
+        mockMvc.perform(put(updateAllUrl)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"filter\": {\"q\": \"" + tooLongQuery + "\"},"
+                                + " \"currentStatus\": \"CLOSED\"}")
+                )
+                .andExpect(status().isBadRequest());
+
+        verify(taskService, times(0))
+                .updateAll(any(), any());
+    }
+
+    @Test
+    @DisplayName("getComments test: get task comments page " +
+            "from simple user with same id.")
+    void givenSameUserWhenGetCommentsUrlThenCommentPage()
+            throws Exception {
+        Comment comment = Comment.builder()
+                .id(1L)
+                .content("content")
+                .creationTime(Instant.now())
+                .author(defaultUser)
+                .task(defaultTask)
+                .build();
+
+        when(taskService.findById(any(Long.class)))
+                .thenReturn(defaultTask);
+        when(commentService.findByTask(1L, "cursor", 1))
+                .thenReturn(new CursorPage<>(List.of(comment), "next"));
+
+        mockMvc.perform(get(getCommentsUrl)
+                        .param("cursor", "cursor")
+                        .param("pageSize", "1")
+                        .with(user(principalWithSameId)))
+                .andExpect(jsonPath("$.comments").isArray())
+                .andExpect(jsonPath("$.comments[0].userName").value("user"))
+                .andExpect(jsonPath("$.nextCursor").value("next"))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(status().isOk());
+
+        verify(taskService, times(1))
+                .existsById(1L);
+        verify(commentService, times(1))
+                .findByTask(1L, "cursor", 1);
+        verify(commentService, times(0))
+                .countByTask(any());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("getComments test: get comments of not existing task.")
+    void givenNotExistingTaskWhenGetCommentsUrlThenStatusBadRequest()
+            throws Exception {
+        doThrow(new EntityNotFoundException("Task with id 1 not found!"))
+                .when(taskService).existsById(1L);
+
+        mockMvc.perform(get(getCommentsUrl))
+                .andExpect(status().isBadRequest());
+
+        verify(taskService, times(0))
+                .findById(any());
+        verify(commentService, times(0))
+                .findByTask(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("getComments test: get task comments page " +
+            "from simple user with another id.")
+    void givenAnotherUserWhenGetCommentsUrlThenStatusBadRequest()
+            throws Exception {
+        when(taskService.findById(any(Long.class)))
+                .thenReturn(defaultTask);
+
+        mockMvc.perform(get(getCommentsUrl)
+                        .with(user(principalWithAnotherId)))
+                .andExpect(status().isBadRequest());
+
+        verify(commentService, times(0))
+                .findByTask(any(), any(), any());
+    }
+
+    @Test
+    @WithAnonymousUser
+    @DisplayName("stream test: subscribe to task events from anonymous user.")
+    void givenAnonymousUserWhenStreamUrlThenStatusUnauthorized()
+            throws Exception {
+        mockMvc.perform(get(streamUrl))
+                .andExpect(status().isUnauthorized());
+
+        verify(taskEventService, times(0))
+                .subscribe(any(), any());
+    }
+
+    @Test
+    @DisplayName("stream test: subscribe to own task events by performer.")
+    void givenSimpleUserWhenStreamUrlThenAsyncStarted()
+            throws Exception {
+        when(taskEventService.subscribe(isNull(), eq(2L)))
+                .thenReturn(new SseEmitter());
+
+        mockMvc.perform(get(streamUrl)
+                        .param("performerId", "2")
+                        .with(user(principalWithAnotherId))
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                )
+                .andExpect(request().asyncStarted())
+                .andExpect(status().isOk());
+
+        verify(taskEventService, times(1))
+                .subscribe(null, 2L);
+    }
+
+    @Test
+    @DisplayName("stream test: simple user without filter "
+            + "subscribes to tasks performed by him.")
+    void givenSimpleUserWithoutFilterWhenStreamUrlThenBoundToUser()
+            throws Exception {
+        when(taskEventService.subscribe(isNull(), eq(1L)))
+                .thenReturn(new SseEmitter());
+
+        mockMvc.perform(get(streamUrl)
+                        .with(user(principalWithSameId))
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                )
+                .andExpect(request().asyncStarted())
+                .andExpect(status().isOk());
+
+        verify(taskEventService, times(1))
+                .subscribe(null, 1L);
+    }
+
+    @Test
+    @DisplayName("stream test: simple user subscribes to tasks of another author.")
+    void givenSimpleUserWithAnotherAuthorIdWhenStreamUrlThenStatusForbidden()
+            throws Exception {
+        mockMvc.perform(get(streamUrl)
+                        .param("authorId", "2")
+                        .with(user(principalWithSameId))
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                )
+                .andExpect(status().isForbidden());
+
+        verify(taskEventService, times(0))
+                .subscribe(any(), any());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("stream test: admin subscribes to all task events.")
+    void givenAdminWithoutFilterWhenStreamUrlThenAllTasks()
+            throws Exception {
+        when(taskEventService.subscribe(isNull(), isNull()))
+                .thenReturn(new SseEmitter());
+
+        mockMvc.perform(get(streamUrl)
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                )
+                .andExpect(request().asyncStarted())
+                .andExpect(status().isOk());
+
+        verify(taskEventService, times(1))
+                .subscribe(null, null);
+    }
+}
@@ -12,6 +12,7 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.effective.tms.mapper.UserMapper;
 import ru.effective.tms.model.dto.user.UserListResponse;
+import ru.effective.tms.model.dto.user.UserPatchRequest;
 import ru.effective.tms.model.dto.user.UserRequest;
 import ru.effective.tms.model.dto.user.UserResponse;
 import ru.effective.tms.model.entity.User;
@@ -45,6 +46,11 @@ public class UserControllerTest {
     private static final String getByIdUrl = urlTemplate + "/1";
     private static final String updateUrl = urlTemplate + "/1";
     private static final String deleteUrl = urlTemplate + "/1";
+    private static final String patchUrl = urlTemplate + "/1";
+    private static final String PATCH_REQUEST_USER_JSON = """
+            {
+               "email" : "newEmail"
+            }""";
     private static final String SIMPLE_REQUEST_USER_JSON = """
             {
                "username": "user",
@@ -149,7 +155,7 @@ public class UserControllerTest {
                 new ArrayList<>(List.of(adminUserResponse))
         );
 
-        when(userMapper.modelListToModelListResponse(any(List.class)))
+        when(userMapper.sliceToModelListResponse(any(), any()))
                 .thenReturn(userListResponse);
 
         mockMvc.perform(get(getAllUrl))
@@ -157,7 +163,9 @@ public class UserControllerTest {
                 .andExpect(status().isOk());
 
         verify(userService, times(1))
-                .findAll();
+                .findAll(any(), any());
+        verify(userService, times(0))
+                .count();
     }
 
     @Test
@@ -193,10 +201,10 @@ public class UserControllerTest {
         verify(userMapper, times(1))
                 .modelToResponse(any());
         /*
-         1 - in controller.getById(id) method,
-         2 - in @CheckUserIdPrivacy annotation
+         only in controller.getById(id) method,
+         @CheckUserIdPrivacy annotation compares path id with principal id
          */
-        verify(userService, times(2))
+        verify(userService, times(1))
                 .findById(any());
     }
 
@@ -206,9 +214,6 @@ public class UserControllerTest {
             "from simple user with another id.")
     void givenUserWithAnotherIdWhenGetByIdUrlThenBadRequest()
             throws Exception {
-        //@CheckUserIdPrivacy annotation
-        when(userService.findById(any(Long.class)))
-                .thenReturn(defaultUser);
         when(userMapper.modelToResponse(any(User.class)))
                 .thenReturn(simpleUserResponseJson);
         mockMvc.perform(get(getByIdUrl)
@@ -219,7 +224,7 @@ public class UserControllerTest {
 
         verify(userMapper, times(0))
                 .modelToResponse(any());
-        verify(userService, times(1))
+        verify(userService, times(0))
                 .findById(any());
     }
 
@@ -265,10 +270,6 @@ public class UserControllerTest {
             "from user with another id.")
     void givenUserWithAnotherIdWhenUpdateUrlThenBadRequest()
             throws Exception {
-        //@CheckUserIdPrivacy annotation
-        when(userService.findById(any(Long.class)))
-                .thenReturn(defaultAdmin);
-
         mockMvc.perform(put(updateUrl)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(ADMIN_REQUEST_USER_JSON)
@@ -276,10 +277,7 @@ public class UserControllerTest {
                 )
                 .andExpect(jsonPath("$.errorMessage").isString())
                 .andExpect(status().isBadRequest());
-        /*
-         1 - in @CheckUserIdPrivacy annotation
-         */
-        verify(userService, times(1))
+        verify(userService, times(0))
                 .findById(any());
     }
 
@@ -288,9 +286,6 @@ public class UserControllerTest {
     @DisplayName("update test: update user data by id from user with same id.")
     void givenUserWithSameIdWhenUpdateUrlThenUserResponse()
             throws Exception {
-        //@CheckUserIdPrivacy annotation
-        when(userService.findById(any(Long.class)))
-                .thenReturn(defaultAdmin);
         when(userMapper.requestToModel(any(UserRequest.class)))
                 .thenReturn(defaultAdmin);
         when(userMapper.modelToResponse(any(User.class)))
@@ -314,7 +309,7 @@ public class UserControllerTest {
                 .modelToResponse(any());
         verify(userMapper, times(1))
                 .requestToModel(any());
-        verify(userService, times(1))
+        verify(userService, times(0))
                 .findById(any());
         verify(userService, times(1))
                 .update(any(), any());
@@ -351,6 +346,47 @@ public class UserControllerTest {
                 .update(any(), any());
     }
 
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("patch test: partial update user data by id from admin user.")
+    void givenAdminUserWhenPatchUrlThenUserResponse()
+            throws Exception {
+        when(userMapper.patchRequestToModel(any(UserPatchRequest.class)))
+                .thenReturn(defaultAdmin);
+        when(userMapper.modelToResponse(any(User.class)))
+                .thenReturn(adminUserResponse);
+        when(userService.update(any(Long.class), any(User.class)))
+                .thenReturn(defaultAdmin);
+
+        mockMvc.perform(patch(patchUrl)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(PATCH_REQUEST_USER_JSON)
+                )
+                .andExpect(jsonPath("$.id").isNumber())
+                .andExpect(jsonPath("$.email").isString())
+                .andExpect(status().isOk());
+
+        verify(userMapper, times(1))
+                .patchRequestToModel(any());
+        verify(userService, times(1))
+                .update(any(), any());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("patch test: reject blank password.")
+    void givenBlankPasswordWhenPatchUrlThenBadRequest()
+            throws Exception {
+        mockMvc.perform(patch(patchUrl)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"password\": \" \"}")
+                )
+                .andExpect(status().isBadRequest());
+
+        verify(userService, times(0))
+                .update(any(), any());
+    }
+
     @Test
     @WithAnonymousUser
     @DisplayName("delete test: delete user data by id from anonymous user.")
@@ -0,0 +1,80 @@
+package ru.effective.tms.jwt;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.effective.tms.model.enums.JwtFailureReason;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("JwtUtilsTest Tests")
+public class JwtUtilsTest {
+    private static final String SECRET =
+            "635266556A586E32743777217A25432A462D4A614E72357538782F413F442847";
+    private JwtUtils jwtUtils;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtils = createJwtUtils(Duration.ofMinutes(30));
+    }
+
+    private JwtUtils createJwtUtils(Duration expiration) {
+        JwtUtils utils = new JwtUtils(null, null);
+        ReflectionTestUtils.setField(utils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(utils, "tokenExpiration", expiration);
+        utils.init();
+        return utils;
+    }
+
+    @Test
+    @DisplayName("parse test: get username from valid token.")
+    void givenValidTokenWhenParseThenValidResultWithUsername() {
+        String token = jwtUtils.generateTokenFromUsername("user");
+
+        JwtParseResult actual = jwtUtils.parse(token);
+
+        assertTrue(actual.isValid());
+        assertEquals("user", actual.getUsername());
+    }
+
+    @Test
+    @DisplayName("parse test: reject expired token.")
+    void givenExpiredTokenWhenParseThenExpired() {
+        String token = createJwtUtils(Duration.ofMillis(-1000))
+                .generateTokenFromUsername("user");
+
+        JwtParseResult actual = jwtUtils.parse(token);
+
+        assertFalse(actual.isValid());
+        assertEquals(JwtFailureReason.EXPIRED, actual.failureReason());
+    }
+
+    @Test
+    @DisplayName("parse test: reject token with changed signature.")
+    void givenTamperedTokenWhenParseThenInvalidSignature() {
+        String token = jwtUtils.generateTokenFromUsername("user");
+        int position = token.lastIndexOf('.') + 5;
+        char replacement = token.charAt(position) == 'A' ? 'B' : 'A';
+        String tampered = token.substring(0, position)
+                + replacement
+                + token.substring(position + 1);
+
+        JwtParseResult actual = jwtUtils.parse(tampered);
+
+        assertEquals(JwtFailureReason.INVALID_SIGNATURE, actual.failureReason());
+    }
+
+    @Test
+    @DisplayName("parse test: reject malformed and empty token.")
+    void givenMalformedOrEmptyTokenWhenParseThenFailureReason() {
+        assertEquals(JwtFailureReason.MALFORMED,
+                jwtUtils.parse("not.a.token").failureReason());
+        assertEquals(JwtFailureReason.EMPTY,
+                jwtUtils.parse("").failureReason());
+    }
+}
@@ -0,0 +1,216 @@
+package ru.effective.tms.repository;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+import ru.effective.tms.model.entity.security.RefreshToken;
+import ru.effective.tms.repository.impl.CompactRefreshTokenStore;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Lua scripts of {@link CompactRefreshTokenStore} on embedded Redis.
+ */
+@DisplayName("CompactRefreshTokenStoreTest Tests")
+public class CompactRefreshTokenStoreTest {
+    private static final String TOKEN_KEY = CompactRefreshTokenStore.TOKEN_KEY_PREFIX;
+    private static final String USER_KEY = CompactRefreshTokenStore.USER_KEY_PREFIX + 7;
+    private static RedisServer redisServer;
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+    private CompactRefreshTokenStore store;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = new RedisServer(port);
+        redisServer.start();
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration("localhost", port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void tearDown() throws IOException {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void flush() {
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        });
+        store = new CompactRefreshTokenStore(redisTemplate);
+    }
+
+    @Test
+    @DisplayName("save test: token hash and user set are written with ttl.")
+    void givenLiveTokenWhenSaveThenFoundWithTtl() {
+        Instant expiryDate = Instant.now().plusSeconds(600).truncatedTo(ChronoUnit.MILLIS);
+
+        store.save(token("token", expiryDate));
+
+        Optional<RefreshToken> actual = store.findByToken("token");
+        assertTrue(actual.isPresent());
+        assertEquals(7L, actual.get().getUserId());
+        assertEquals("user", actual.get().getUsername());
+        assertEquals(expiryDate, actual.get().getExpiryDate());
+        assertTrue(Boolean.TRUE.equals(
+                redisTemplate.opsForSet().isMember(USER_KEY, "token")));
+        long tokenTtl = redisTemplate.getExpire(TOKEN_KEY + "token", TimeUnit.SECONDS);
+        assertTrue(tokenTtl > 0 && tokenTtl <= 600);
+        assertTrue(redisTemplate.getExpire(USER_KEY, TimeUnit.SECONDS) >= tokenTtl);
+        assertTrue(store.existsByUserId(7L));
+    }
+
+    @Test
+    @DisplayName("save test: expired token is not written.")
+    void givenExpiredTokenWhenSaveThenNotWritten() {
+        store.save(token("token", Instant.now().minusSeconds(1)));
+
+        assertTrue(store.findByToken("token").isEmpty());
+        assertFalse(store.existsByUserId(7L));
+    }
+
+    @Test
+    @DisplayName("rotate test: old token is consumed once and new token is written.")
+    void givenLiveTokenWhenRotateThenReplaced() {
+        Instant now = Instant.now();
+        store.save(token("old", now.plusSeconds(600)));
+        RefreshToken newToken = RefreshToken.builder()
+                .token("new")
+                .expiryDate(now.plusSeconds(1200))
+                .build();
+
+        Optional<RefreshToken> consumed = store.rotate("old", newToken, now);
+        Optional<RefreshToken> replayed = store.rotate("old", RefreshToken.builder()
+                .token("replay")
+                .expiryDate(now.plusSeconds(1200))
+                .build(), now);
+
+        assertTrue(consumed.isPresent());
+        assertEquals(7L, consumed.get().getUserId());
+        assertEquals(7L, newToken.getUserId());
+        assertEquals("user", newToken.getUsername());
+        assertTrue(replayed.isEmpty());
+        assertTrue(store.findByToken("old").isEmpty());
+        assertTrue(store.findByToken("new").isPresent());
+        assertTrue(store.findByToken("replay").isEmpty());
+        assertFalse(Boolean.TRUE.equals(
+                redisTemplate.opsForSet().isMember(USER_KEY, "old")));
+        assertTrue(Boolean.TRUE.equals(
+                redisTemplate.opsForSet().isMember(USER_KEY, "new")));
+    }
+
+    @Test
+    @DisplayName("rotate test: expired old token is consumed without new token.")
+    void givenExpiredNotEvictedTokenWhenRotateThenNoNewToken() {
+        Instant now = Instant.now();
+        redisTemplate.opsForHash().putAll(TOKEN_KEY + "old", Map.of(
+                "userId", "7",
+                "username", "",
+                "expiryDate", String.valueOf(now.minusSeconds(1).toEpochMilli())));
+        redisTemplate.opsForSet().add(USER_KEY, "old");
+
+        Optional<RefreshToken> consumed = store.rotate("old", RefreshToken.builder()
+                .token("new")
+                .expiryDate(now.plusSeconds(600))
+                .build(), now);
+
+        assertTrue(consumed.isPresent());
+        assertNull(consumed.get().getUsername());
+        assertTrue(store.findByToken("old").isEmpty());
+        assertTrue(store.findByToken("new").isEmpty());
+        assertFalse(Boolean.TRUE.equals(redisTemplate.hasKey(USER_KEY)));
+    }
+
+    @Test
+    @DisplayName("rotate test: unknown token is not found and new token is not written.")
+    void givenUnknownTokenWhenRotateThenEmpty() {
+        Optional<RefreshToken> consumed = store.rotate("unknown", RefreshToken.builder()
+                .token("new")
+                .expiryDate(Instant.now().plusSeconds(600))
+                .build(), Instant.now());
+
+        assertTrue(consumed.isEmpty());
+        assertTrue(store.findByToken("new").isEmpty());
+    }
+
+    @Test
+    @DisplayName("delete test: token hash and user set member are removed.")
+    void givenTokensWhenDeleteThenOnlyDeletedRemoved() {
+        RefreshToken deleted = token("deleted", Instant.now().plusSeconds(600));
+        store.save(deleted);
+        store.save(token("kept", Instant.now().plusSeconds(600)));
+
+        store.delete(deleted);
+
+        assertTrue(store.findByToken("deleted").isEmpty());
+        assertTrue(store.findByToken("kept").isPresent());
+        assertFalse(Boolean.TRUE.equals(
+                redisTemplate.opsForSet().isMember(USER_KEY, "deleted")));
+    }
+
+    @Test
+    @DisplayName("deleteAllByUserId test: all user tokens and user set are removed.")
+    void givenUserTokensWhenDeleteAllByUserIdThenRemoved() {
+        store.save(token("first", Instant.now().plusSeconds(600)));
+        store.save(token("second", Instant.now().plusSeconds(600)));
+
+        store.deleteAllByUserId(7L);
+
+        assertTrue(store.findByToken("first").isEmpty());
+        assertTrue(store.findByToken("second").isEmpty());
+        assertFalse(store.existsByUserId(7L));
+    }
+
+    @Test
+    @DisplayName("sweep test: members of expired tokens are removed from user set.")
+    void givenExpiredMemberWhenSweepThenRemoved() {
+        store.save(token("live", Instant.now().plusSeconds(600)));
+        redisTemplate.opsForSet().add(USER_KEY, "expired");
+
+        long reclaimed = store.sweep(100, 10_000, Duration.ZERO);
+
+        assertEquals(1, reclaimed);
+        assertFalse(Boolean.TRUE.equals(
+                redisTemplate.opsForSet().isMember(USER_KEY, "expired")));
+        assertTrue(Boolean.TRUE.equals(
+                redisTemplate.opsForSet().isMember(USER_KEY, "live")));
+    }
+
+    private static RefreshToken token(String token, Instant expiryDate) {
+        return RefreshToken.builder()
+                .userId(7L)
+                .username("user")
+                .token(token)
+                .expiryDate(expiryDate)
+                .build();
+    }
+}
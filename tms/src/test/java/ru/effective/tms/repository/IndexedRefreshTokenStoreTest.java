@@ -0,0 +1,137 @@
+package ru.effective.tms.repository;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisKeyValueAdapter;
+import org.springframework.data.redis.core.RedisKeyValueTemplate;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.mapping.RedisMappingContext;
+import org.springframework.data.redis.repository.support.RedisRepositoryFactory;
+import redis.embedded.RedisServer;
+import ru.effective.tms.model.entity.security.RefreshToken;
+import ru.effective.tms.repository.impl.IndexedRefreshTokenStore;
+import ru.effective.tms.service.impl.security.RefreshTokenSweeper;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Sweep of {@link IndexedRefreshTokenStore} on embedded Redis.
+ */
+@DisplayName("IndexedRefreshTokenStoreTest Tests")
+public class IndexedRefreshTokenStoreTest {
+    private static final Instant NOW = Instant.now();
+    private static RedisServer redisServer;
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+    private static RefreshTokenRepository refreshTokenRepository;
+    private IndexedRefreshTokenStore store;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = new RedisServer(port);
+        redisServer.start();
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration("localhost", port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+        RedisTemplate<byte[], byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.afterPropertiesSet();
+        RedisMappingContext mappingContext = new RedisMappingContext();
+        refreshTokenRepository = new RedisRepositoryFactory(new RedisKeyValueTemplate(
+                new RedisKeyValueAdapter(template, mappingContext), mappingContext)
+        ).getRepository(RefreshTokenRepository.class);
+    }
+
+    @AfterAll
+    static void tearDown() throws IOException {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void flush() {
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        });
+        store = new IndexedRefreshTokenStore(refreshTokenRepository, redisTemplate);
+    }
+
+    @Test
+    @DisplayName("sweep test: expired token is deleted with its index entries.")
+    void givenExpiredAndValidTokensWhenSweepThenExpiredDeleted() {
+        store.save(token(1L, "expired", NOW.minusSeconds(60)));
+        store.save(token(2L, "valid", NOW.plusSeconds(600)));
+
+        long reclaimed = store.sweep(100, 10_000, Duration.ZERO);
+
+        assertTrue(reclaimed >= 1);
+        assertTrue(store.findByToken("expired").isEmpty());
+        assertTrue(store.findByToken("valid").isPresent());
+        assertFalse(Boolean.TRUE.equals(redisTemplate.hasKey("refresh_tokens:1")));
+        assertFalse(Boolean.TRUE.equals(redisTemplate.hasKey("refresh_tokens:1:idx")));
+        assertFalse(Boolean.TRUE.equals(
+                redisTemplate.opsForSet().isMember(IndexedRefreshTokenStore.KEYSPACE, "1")));
+    }
+
+    @Test
+    @DisplayName("sweep test: not token keys are skipped, negative ids are swept.")
+    void givenForeignKeysInKeyspaceWhenSweepThenSkipped() {
+        redisTemplate.opsForValue().set("refresh_tokens:sweeper:lock", "node");
+        store.save(token(-5L, "negative", NOW.minusSeconds(60)));
+        store.save(token(2L, "valid", NOW.plusSeconds(600)));
+
+        store.sweep(1, 10_000, Duration.ZERO);
+
+        assertEquals("node", redisTemplate.opsForValue().get("refresh_tokens:sweeper:lock"));
+        assertTrue(store.findByToken("negative").isEmpty());
+        assertTrue(store.findByToken("valid").isPresent());
+        assertFalse(RefreshTokenSweeper.LOCK_KEY
+                .startsWith(IndexedRefreshTokenStore.KEYSPACE + ":"));
+    }
+
+    @Test
+    @DisplayName("sweep test: ids without token are removed from index sets.")
+    void givenOrphanedIndexEntriesWhenSweepThenRemoved() {
+        redisTemplate.opsForSet().add("refresh_tokens:userId:7", "99");
+        redisTemplate.opsForSet().add(IndexedRefreshTokenStore.KEYSPACE, "99");
+
+        long reclaimed = store.sweep(100, 10_000, Duration.ZERO);
+
+        assertEquals(2, reclaimed);
+        assertFalse(Boolean.TRUE.equals(
+                redisTemplate.opsForSet().isMember("refresh_tokens:userId:7", "99")));
+        assertFalse(Boolean.TRUE.equals(
+                redisTemplate.opsForSet().isMember(IndexedRefreshTokenStore.KEYSPACE, "99")));
+    }
+
+    private static RefreshToken token(Long id, String token, Instant expiryDate) {
+        return RefreshToken.builder()
+                .id(id)
+                .userId(7L)
+                .username("user")
+                .token(token)
+                .expiryDate(expiryDate)
+                .build();
+    }
+}
@@ -0,0 +1,343 @@
+package ru.effective.tms.repository;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import redis.embedded.RedisServer;
+import ru.effective.tms.TaskManagementSystemsApplication;
+import ru.effective.tms.model.dto.TaskFilter;
+import ru.effective.tms.model.enums.Priority;
+import ru.effective.tms.model.enums.Status;
+import ru.effective.tms.repository.query.TaskFilterQuery;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.net.ServerSocket;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Task filter queries use indexes from migrations.
+ * <br>
+ * Queries are the SQL Hibernate generates from {@link TaskFilterQuery}
+ * and comment keyset queries, executed by repositories in application context
+ * on embedded Postgres. Every executed statement is repeated
+ * as EXPLAIN ANALYZE on the same connection with the same parameters,
+ * planner settings are not changed.
+ * <br>
+ * Data: 10 000 users, 100 000 tasks, 2 performers and 3 comments per task.
+ * Most tasks are done, open and high priority tasks are few.
+ * Transactions are rolled back, so data is the same for every test.
+ */
+@DisplayName("TaskFilterIndexTest Tests")
+public class TaskFilterIndexTest {
+    private static final String EXPLAIN = "explain (analyze) ";
+    private static final int USER_COUNT = 10_000;
+    private static final int TASK_COUNT = 100_000;
+    private static final int PAGE_LIMIT = 11;
+    /**
+     * Plan of statements executed by current thread, null if not explained.
+     */
+    private static final ThreadLocal<StringBuilder> PLAN = new ThreadLocal<>();
+    private static EmbeddedPostgres postgres;
+    private static RedisServer redisServer;
+    private static ConfigurableApplicationContext context;
+    private static TaskRepository taskRepository;
+    private static CommentRepository commentRepository;
+    private static JdbcTemplate jdbcTemplate;
+    private static TransactionTemplate transactionTemplate;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        int redisPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            redisPort = socket.getLocalPort();
+        }
+        redisServer = new RedisServer(redisPort);
+        redisServer.start();
+        context = new SpringApplicationBuilder(TaskManagementSystemsApplication.class)
+                .initializers(applicationContext -> applicationContext.getBeanFactory()
+                        .addBeanPostProcessor(explainDataSourcePostProcessor()))
+                .run("--server.port=0",
+                        "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                        "--spring.datasource.username=postgres",
+                        "--spring.datasource.password=postgres",
+                        "--spring.data.redis.host=localhost",
+                        "--spring.data.redis.port=" + redisPort,
+                        "--app.security.refresh-token.sweeper.enabled=false");
+        taskRepository = context.getBean(TaskRepository.class);
+        commentRepository = context.getBean(CommentRepository.class);
+        transactionTemplate = new TransactionTemplate(
+                context.getBean(PlatformTransactionManager.class));
+
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.execute("""
+                insert into users (username, password, email)
+                select 'user' || n, 'password', 'user' || n || '@mail.ru'
+                from generate_series(1, %d) n""".formatted(USER_COUNT));
+        jdbcTemplate.execute("""
+                insert into tasks (title, description, current_status,
+                                   current_priority, author_id)
+                select 'title' || n, 'description' || n,
+                       case when n %% 100 = 0 then 'OPEN'
+                            when n %% 100 < 5 then 'IN_PROGRESS'
+                            else 'DONE' end,
+                       case when n / 100 %% 200 = 0 then 'HIGH'
+                            when n / 100 %% 200 < 60 then 'MEDIUM'
+                            else 'LOW' end,
+                       (select min(id) from users) + n %% %d
+                from generate_series(1, %d) n""".formatted(USER_COUNT, TASK_COUNT));
+        jdbcTemplate.execute("""
+                insert into user_task (performer_id, task_id)
+                select u.min_id + (t.id + shift) %% %d, t.id
+                from tasks t,
+                     (select min(id) min_id from users) u,
+                     (values (0), (%d)) s(shift)""".formatted(USER_COUNT, USER_COUNT / 2));
+        jdbcTemplate.execute("""
+                insert into comments (content, creation_time, task_id, author_id)
+                select 'content' || n, now() - n * interval '1 minute',
+                       t.id, t.author_id
+                from tasks t, generate_series(1, 3) n""");
+        jdbcTemplate.execute("analyze");
+    }
+
+    @AfterAll
+    static void tearDown() throws IOException {
+        context.close();
+        redisServer.stop();
+        postgres.close();
+    }
+
+    @Test
+    @DisplayName("explain test: filter by author and status.")
+    void givenAuthorAndStatusFilterWhenExplainThenAuthorStatusIndex() {
+        assertIndexUsed("idx_tasks_author_status", explainResponses(TaskFilter.builder()
+                .authorId(anyUserId())
+                .currentStatus(Status.DONE)
+                .build()));
+    }
+
+    @Test
+    @DisplayName("explain test: filter by author.")
+    void givenAuthorFilterWhenExplainThenAuthorStatusIndex() {
+        assertIndexUsed("idx_tasks_author_status", explainResponses(TaskFilter.builder()
+                .authorId(anyUserId())
+                .build()));
+    }
+
+    @Test
+    @DisplayName("explain test: filter by status and priority.")
+    void givenStatusAndPriorityFilterWhenExplainThenStatusPriorityIndex() {
+        assertIndexUsed("idx_tasks_status_priority", explainResponses(TaskFilter.builder()
+                .currentStatus(Status.OPEN)
+                .currentPriority(Priority.HIGH)
+                .build()));
+    }
+
+    @Test
+    @DisplayName("explain test: filter by any of statuses and priorities.")
+    void givenStatusesAndPrioritiesFilterWhenExplainThenStatusPriorityIndex() {
+        assertIndexUsed("idx_tasks_status_priority", explainResponses(TaskFilter.builder()
+                .currentStatuses(List.of(Status.OPEN, Status.IN_PROGRESS))
+                .currentPriorities(List.of(Priority.HIGH))
+                .build()));
+    }
+
+    @Test
+    @DisplayName("explain test: bulk update by priority.")
+    void givenPriorityFilterWhenExplainUpdateThenPriorityIndex() {
+        TaskFilterQuery target = TaskFilterQuery.of(TaskFilter.builder()
+                .currentPriority(Priority.HIGH)
+                .build());
+
+        assertIndexUsed("idx_tasks_priority",
+                explain(() -> taskRepository.updateAll(target, Status.DONE, null)));
+    }
+
+    @Test
+    @DisplayName("explain test: filter by title.")
+    void givenTitleFilterWhenExplainThenPartialTitleIndex() {
+        assertIndexUsed("idx_tasks_title_id", explainResponses(TaskFilter.builder()
+                .title("title12345")
+                .build()));
+    }
+
+    @Test
+    @DisplayName("explain test: filter by description.")
+    void givenDescriptionFilterWhenExplainThenDescriptionIndex() {
+        assertIndexUsed("idx_tasks_description", explainResponses(TaskFilter.builder()
+                .description("description12345")
+                .build()));
+    }
+
+    @Test
+    @DisplayName("explain test: filter by performer.")
+    void givenPerformerFilterWhenExplainThenPrimaryKey() {
+        assertIndexUsed("user_task_pkey", explainResponses(TaskFilter.builder()
+                .performerId(anyUserId())
+                .build()));
+    }
+
+    @Test
+    @DisplayName("explain test: filter by any of performers with exists.")
+    void givenPerformerIdsFilterWhenExplainThenPrimaryKey() {
+        long userId = anyUserId();
+
+        assertIndexUsed("user_task_pkey", explainResponses(TaskFilter.builder()
+                .performerIds(List.of(userId, userId + 1, userId + 2))
+                .build()));
+    }
+
+    @Test
+    @DisplayName("explain test: full-text search by q.")
+    void givenSearchQueryWhenExplainThenSearchVectorIndex() {
+        assertIndexUsed("idx_tasks_search_vector", explainResponses(TaskFilter.builder()
+                .q("title12345")
+                .build()));
+    }
+
+    @Test
+    @DisplayName("explain test: filter by id, performers are aggregated by task index.")
+    void givenIdFilterWhenExplainThenPrimaryKeyAndTaskPerformerIndex() {
+        String plan = explainResponses(TaskFilter.builder()
+                .id(anyTaskIds().get(0))
+                .build());
+
+        assertIndexUsed("tasks_pkey", plan);
+        assertIndexUsed("idx_user_task_task_performer", plan);
+    }
+
+    @Test
+    @DisplayName("explain test: bulk update of tasks by ids.")
+    void givenIdsWhenExplainUpdateThenPrimaryKey() {
+        TaskFilterQuery target = TaskFilterQuery.ofIds(anyTaskIds());
+
+        assertIndexUsed("tasks_pkey",
+                explain(() -> taskRepository.updateAll(target, Status.DONE, null)));
+    }
+
+    @Test
+    @DisplayName("explain test: task comments page after cursor.")
+    void givenTaskAndCursorWhenExplainCommentsThenTaskCreationTimeIndex() {
+        Map<String, Object> first = jdbcTemplate.queryForMap("""
+                select task_id, creation_time, id from comments
+                order by task_id, creation_time, id
+                limit 1""");
+
+        assertIndexUsed("idx_comments_task_creation_time",
+                explain(() -> commentRepository.findPageByTaskIdAfter(
+                        (Long) first.get("task_id"),
+                        ((Timestamp) first.get("creation_time")).toInstant(),
+                        (Long) first.get("id"),
+                        Limit.of(PAGE_LIMIT))));
+    }
+
+    private static long anyUserId() {
+        return jdbcTemplate.queryForObject(
+                "select min(id) + %d from users".formatted(USER_COUNT / 3), Long.class);
+    }
+
+    private static List<Long> anyTaskIds() {
+        return jdbcTemplate.queryForList(
+                "select id from tasks order by id limit 3", Long.class);
+    }
+
+    private static String explainResponses(TaskFilter filter) {
+        return explain(() -> taskRepository.findResponses(
+                TaskFilterQuery.of(filter), 0, PAGE_LIMIT));
+    }
+
+    /**
+     * Run repository call in rolled back transaction and collect plans.
+     *
+     * @param repositoryCall call executing generated SQL.
+     * @return EXPLAIN ANALYZE output of executed statements.
+     */
+    private static String explain(Runnable repositoryCall) {
+        StringBuilder plan = new StringBuilder();
+        PLAN.set(plan);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                repositoryCall.run();
+                status.setRollbackOnly();
+            });
+        } finally {
+            PLAN.remove();
+        }
+        return plan.toString();
+    }
+
+    private static BeanPostProcessor explainDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource
+                        && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .afterQuery(TaskFilterIndexTest::explainExecuted)
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Repeat executed statements as EXPLAIN ANALYZE on the same connection,
+     * parameters are set by the same {@link PreparedStatement} methods.
+     */
+    private static void explainExecuted(ExecutionInfo execution, List<QueryInfo> queries) {
+        StringBuilder plan = PLAN.get();
+        if (plan == null || !execution.isSuccess()) {
+            return;
+        }
+        for (QueryInfo query : queries) {
+            if (query.getQuery().startsWith(EXPLAIN)) {
+                continue;
+            }
+            plan.append(query.getQuery()).append('\n');
+            try (PreparedStatement statement = execution.getStatement().getConnection()
+                    .prepareStatement(EXPLAIN + query.getQuery())) {
+                for (List<ParameterSetOperation> operations : query.getParametersList()) {
+                    for (ParameterSetOperation operation : operations) {
+                        operation.getMethod().invoke(statement, operation.getArgs());
+                    }
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        plan.append(resultSet.getString(1)).append('\n');
+                    }
+                }
+            } catch (SQLException | IllegalAccessException | InvocationTargetException e) {
+                throw new IllegalStateException("Explain failed: " + query.getQuery(), e);
+            }
+        }
+    }
+
+    private static void assertIndexUsed(String index, String plan) {
+        assertTrue(plan.contains(index), () -> "Index " + index + " not used:\n" + plan);
+    }
+}
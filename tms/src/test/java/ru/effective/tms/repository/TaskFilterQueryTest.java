@@ -0,0 +1,230 @@
+package ru.effective.tms.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Query;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import ru.effective.tms.model.dto.TaskCursor;
+import ru.effective.tms.model.dto.TaskFilter;
+import ru.effective.tms.model.enums.Priority;
+import ru.effective.tms.model.enums.Status;
+import ru.effective.tms.model.enums.TaskSortField;
+import ru.effective.tms.repository.query.TaskFilterQuery;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class TaskFilterQueryTest {
+    /**
+     * Hibernate with Postgres dialect, JPQL is parsed without database connection.
+     */
+    private static EntityManagerFactory entityManagerFactory;
+
+    @BeforeAll
+    static void setUp() {
+        LocalContainerEntityManagerFactoryBean factoryBean =
+                new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(new SimpleDriverDataSource());
+        factoryBean.setPackagesToScan("ru.effective.tms.model.entity");
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setJpaPropertyMap(Map.of(
+                AvailableSettings.DIALECT, PostgreSQLDialect.class.getName(),
+                AvailableSettings.ALLOW_METADATA_ON_BOOT, false
+        ));
+        factoryBean.afterPropertiesSet();
+        entityManagerFactory = factoryBean.getObject();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        entityManagerFactory.close();
+    }
+
+    @Test
+    @DisplayName("responsesJpql test: every shape is accepted by Hibernate.")
+    void givenShapesWhenCreateQueryThenParsedAndBound() {
+        TaskFilter byAuthor = TaskFilter.builder()
+                .authorId(1L)
+                .currentStatus(Status.OPEN)
+                .build();
+        TaskFilter byAnyOf = TaskFilter.builder()
+                .title("title")
+                .description("description")
+                .currentPriority(Priority.HIGH)
+                .performerId(2L)
+                .currentStatuses(List.of(Status.OPEN, Status.DONE))
+                .currentPriorities(List.of(Priority.LOW))
+                .performerIds(List.of(1L, 2L))
+                .q("fix login")
+                .build();
+        List<TaskFilterQuery> queries = List.of(
+                TaskFilterQuery.all(),
+                TaskFilterQuery.of(byAuthor),
+                TaskFilterQuery.of(byAnyOf),
+                TaskFilterQuery.of(byAuthor,
+                        new TaskCursor(TaskSortField.ID, null, 10L), TaskSortField.ID),
+                TaskFilterQuery.of(byAuthor,
+                        new TaskCursor(TaskSortField.TITLE, "title", 10L), TaskSortField.TITLE),
+                TaskFilterQuery.of(new TaskFilter(),
+                        new TaskCursor(TaskSortField.TITLE, null, 10L), TaskSortField.TITLE),
+                TaskFilterQuery.ofIds(List.of(1L, 2L)).ownedBy(5L)
+        );
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+
+        try {
+            for (TaskFilterQuery filterQuery : queries) {
+                filterQuery.bind(entityManager.createQuery(
+                        filterQuery.responsesJpql(), Object[].class));
+                filterQuery.bind(entityManager.createQuery(
+                        filterQuery.statusesJpql(), Object[].class));
+                filterQuery.bind(entityManager.createQuery(
+                                filterQuery.updateJpql(true, true)))
+                        .setParameter(TaskFilterQuery.NEW_STATUS, Status.DONE)
+                        .setParameter(TaskFilterQuery.NEW_PRIORITY, Priority.LOW);
+            }
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    @Test
+    @DisplayName("responsesJpql test: same shape with other values reuses jpql.")
+    void givenSameShapeWhenResponsesJpqlThenSameJpql() {
+        TaskFilter first = TaskFilter.builder()
+                .authorId(1L)
+                .currentStatuses(List.of(Status.OPEN))
+                .build();
+        TaskFilter second = TaskFilter.builder()
+                .authorId(2L)
+                .currentStatuses(List.of(Status.DONE, Status.CLOSED))
+                .build();
+
+        assertSame(
+                TaskFilterQuery.of(first).responsesJpql(),
+                TaskFilterQuery.of(second).responsesJpql()
+        );
+    }
+
+    @Test
+    @DisplayName("responsesJpql test: other shape has other jpql.")
+    void givenOtherShapeWhenResponsesJpqlThenOtherJpql() {
+        TaskFilter byAuthor = TaskFilter.builder().authorId(1L).build();
+        TaskFilter byPerformer = TaskFilter.builder().performerId(1L).build();
+        TaskCursor cursor = new TaskCursor(TaskSortField.ID, null, 10L);
+
+        String byAuthorJpql = TaskFilterQuery.of(byAuthor).responsesJpql();
+
+        assertNotEquals(byAuthorJpql, TaskFilterQuery.of(byPerformer).responsesJpql());
+        assertNotEquals(byAuthorJpql,
+                TaskFilterQuery.of(byAuthor, cursor, TaskSortField.ID).responsesJpql());
+        assertNotEquals(byAuthorJpql,
+                TaskFilterQuery.of(byAuthor, null, TaskSortField.TITLE).responsesJpql());
+    }
+
+    @Test
+    @DisplayName("responsesJpql test: values are not in jpql.")
+    void givenFilterWhenResponsesJpqlThenOnlyParameters() {
+        TaskFilter filter = TaskFilter.builder()
+                .title("secret title")
+                .currentPriority(Priority.HIGH)
+                .build();
+
+        String jpql = TaskFilterQuery.of(filter).responsesJpql();
+
+        assertTrue(jpql.contains(":title"));
+        assertTrue(jpql.contains(":currentPriority"));
+        assertFalse(jpql.contains("secret title"));
+        assertFalse(jpql.contains(Priority.HIGH.name()));
+    }
+
+    @Test
+    @DisplayName("bind test: enum values and ids are bound as arrays.")
+    void givenMultiValueFilterWhenBindThenArrayParameters() {
+        TaskFilter filter = TaskFilter.builder()
+                .currentStatus(Status.OPEN)
+                .currentPriorities(List.of(Priority.HIGH, Priority.LOW))
+                .performerIds(List.of(1L, 2L))
+                .build();
+        Query query = mock(Query.class);
+
+        TaskFilterQuery.of(filter).bind(query);
+
+        verify(query).setParameter("currentStatus", Status.OPEN);
+        verify(query).setParameter("currentPriorities", new String[]{"HIGH", "LOW"});
+        verify(query).setParameter("performerIds", new Long[]{1L, 2L});
+        verify(query, never()).setParameter(eq("currentStatuses"), any());
+    }
+
+    @Test
+    @DisplayName("of test: search query is ordered by relevance.")
+    void givenSearchQueryWhenOfThenRelevanceOrder() {
+        TaskFilter withWords = TaskFilter.builder().q("fix login").build();
+        TaskFilter withoutWords = TaskFilter.builder().q(" -- ").build();
+        Query query = mock(Query.class);
+
+        TaskFilterQuery filterQuery = TaskFilterQuery.of(withWords);
+        filterQuery.bind(query);
+
+        assertEquals(TaskFilterQuery.Order.RELEVANCE, filterQuery.order());
+        verify(query).setParameter("q", "fix:* & login:*");
+        assertEquals(TaskFilterQuery.Order.ID, TaskFilterQuery.of(withoutWords).order());
+    }
+
+    @Test
+    @DisplayName("bind test: title cursor binds title and id.")
+    void givenTitleCursorWhenBindThenCursorParameters() {
+        TaskCursor cursor = new TaskCursor(TaskSortField.TITLE, "title", 5L);
+        TaskCursor nullTitleCursor = new TaskCursor(TaskSortField.TITLE, null, 5L);
+        Query query = mock(Query.class);
+        Query nullTitleQuery = mock(Query.class);
+
+        TaskFilterQuery.of(new TaskFilter(), cursor, TaskSortField.TITLE).bind(query);
+        TaskFilterQuery.of(new TaskFilter(), nullTitleCursor, TaskSortField.TITLE)
+                .bind(nullTitleQuery);
+
+        verify(query).setParameter("cursorTitle", "title");
+        verify(query).setParameter("cursorId", 5L);
+        verify(nullTitleQuery).setParameter("cursorId", 5L);
+        verify(nullTitleQuery, never()).setParameter(anyString(), any(String.class));
+    }
+
+    @Test
+    @DisplayName("updateJpql test: owner condition and set fields in update.")
+    void givenOwnedIdsQueryWhenUpdateJpqlThenOwnerCondition() {
+        TaskFilterQuery byIds = TaskFilterQuery.ofIds(List.of(1L, 2L));
+        TaskFilterQuery owned = byIds.ownedBy(5L);
+        Query query = mock(Query.class);
+
+        String jpql = owned.updateJpql(true, false);
+        owned.bind(query);
+
+        assertTrue(jpql.startsWith("update Task t set t.currentStatus = :"
+                + TaskFilterQuery.NEW_STATUS + " where"));
+        assertTrue(jpql.contains(":ownerId"));
+        assertFalse(byIds.updateJpql(true, false).contains(":ownerId"));
+        assertSame(jpql, TaskFilterQuery.ofIds(List.of(3L)).ownedBy(6L).updateJpql(true, false));
+        assertNotEquals(jpql, owned.updateJpql(true, true));
+        verify(query).setParameter("ids", new Long[]{1L, 2L});
+        verify(query).setParameter("ownerId", 5L);
+    }
+}
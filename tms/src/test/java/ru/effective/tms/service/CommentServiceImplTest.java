@@ -1,22 +1,35 @@
 package ru.effective.tms.service;
 
+import org.junit.jupiter.api.AfterEach;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import ru.effective.tms.exception.EntityNotFoundException;
+import ru.effective.tms.exception.IncorrectCursorException;
+import ru.effective.tms.model.dto.CommentCursor;
+import ru.effective.tms.model.dto.CursorPage;
+import ru.effective.tms.model.dto.TaskEvent;
 import ru.effective.tms.model.entity.Comment;
 import ru.effective.tms.model.entity.Task;
 import ru.effective.tms.model.entity.User;
+import ru.effective.tms.model.entity.security.AppUserDetails;
 import ru.effective.tms.model.entity.security.RoleType;
 import ru.effective.tms.repository.CommentRepository;
 import ru.effective.tms.service.impl.CommentServiceImpl;
+import ru.effective.tms.service.impl.RequestEntityCache;
 
+import java.sql.SQLException;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -33,20 +46,23 @@ public class CommentServiceImplTest {
     private CommentServiceImpl commentService;
     @MockitoBean
     private CommentRepository commentRepository;
-    @MockitoBean
-    private UserService userService;
-    @MockitoBean
-    private TaskService taskService;
+    private final ApplicationEventPublisher eventPublisher =
+            mock(ApplicationEventPublisher.class);
 
     @BeforeEach
     void setUp() {
         commentService = new CommentServiceImpl(
                 commentRepository,
-                userService,
-                taskService
+                new RequestEntityCache(),
+                eventPublisher
         );
     }
 
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
     @Test
     @DisplayName("findAll test: get all comment data.")
     void givenWhenGetAllThenListComment() {
@@ -56,13 +72,15 @@ public class CommentServiceImplTest {
         ));
         PageRequest pageRequest = PageRequest.of(0, 10);
 
-        when(commentRepository.findAll(pageRequest))
-                .thenReturn(new PageImpl<>(commentList));
+        when(commentRepository.findAllBy(pageRequest))
+                .thenReturn(new SliceImpl<>(commentList));
         List<Comment> actual = commentService.findAll();
 
         assertEquals(commentList.size(), actual.size());
         verify(commentRepository, times(1))
-                .findAll(pageRequest);
+                .findAllBy(pageRequest);
+        verify(commentRepository, times(0))
+                .count();
     }
 
     @Test
@@ -105,34 +123,73 @@ public class CommentServiceImplTest {
     }
 
     @Test
-    @WithMockUser
-    @DisplayName("save test: send comment data to repository.")
-    void givenCommentWhenSendUserToDbThenSavedUser() {
-        Long commentId = 1L;
+    @DisplayName("save test: insert comment with author id from principal.")
+    void givenCommentWhenSaveThenInsertWithPrincipalId() {
+        Long authorId = 5L;
+        Task task = new Task();
+        task.setId(1L);
         Comment commentToSave = new Comment(
-                commentId, "content", Instant.now(),
-                Instant.now(), new Task(), null
-        );
-        User authorUser = new User(
-                1L, "user", "pass", "email",
-                Collections.singleton(RoleType.ROLE_USER),
-                Collections.emptyList(),
-                Collections.emptySet(),
-                new ArrayList<>()
+                null, "content", null, null, task, null
         );
+        authenticate(authorId);
 
-        when(userService.findByUsername(anyString())).thenReturn(authorUser);
-        when(commentRepository.save(commentToSave)).thenReturn(commentToSave);
+        when(commentRepository.insert(commentToSave, 1L, authorId))
+                .thenReturn(commentToSave);
         Comment actual = commentService.save(commentToSave);
 
         assertEquals(commentToSave, actual);
-        assertNotNull(commentToSave.getAuthor());
         verify(commentRepository, times(1))
+                .insert(commentToSave, 1L, authorId);
+        verify(commentRepository, times(0))
                 .save(any());
-        verify(userService, times(1))
-                .findByUsername(any());
-        verify(userService, times(1))
-                .update(commentId, authorUser);
+        verify(eventPublisher, times(1))
+                .publishEvent(any(TaskEvent.class));
+    }
+
+    @Test
+    @DisplayName("save test: try to save comment to not existing task.")
+    void givenNotExistingTaskWhenSaveThenThrow() {
+        Task task = new Task();
+        task.setId(1L);
+        Comment commentToSave = new Comment(
+                null, "content", null, null, task, null
+        );
+        authenticate(5L);
+
+        when(commentRepository.insert(any(), any(), any()))
+                .thenThrow(new DataIntegrityViolationException("insert",
+                        new ConstraintViolationException("insert", new SQLException(),
+                                CommentServiceImpl.TASK_FOREIGN_KEY)));
+
+        assertThrows(EntityNotFoundException.class,
+                () -> commentService.save(commentToSave),
+                "taskId is incorrect."
+        );
+        verify(eventPublisher, times(0))
+                .publishEvent(any(TaskEvent.class));
+    }
+
+    @Test
+    @DisplayName("save test: other integrity violation is not reported as missing task.")
+    void givenOtherConstraintViolationWhenSaveThenRethrow() {
+        Task task = new Task();
+        task.setId(1L);
+        Comment commentToSave = new Comment(
+                null, "content", null, null, task, null
+        );
+        authenticate(5L);
+
+        when(commentRepository.insert(any(), any(), any()))
+                .thenThrow(new DataIntegrityViolationException("insert",
+                        new ConstraintViolationException("insert", new SQLException(),
+                                "comments_author_id_fkey")));
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> commentService.save(commentToSave),
+                "author id is incorrect."
+        );
+        verify(eventPublisher, times(0))
+                .publishEvent(any(TaskEvent.class));
     }
 
     @Test
@@ -222,4 +279,59 @@ public class CommentServiceImplTest {
         verify(commentRepository, times(0))
                 .deleteById(notExistedUserId);
     }
+
+    @Test
+    @DisplayName("findByTask test: get first page of task comments with next cursor.")
+    void givenMoreCommentsThanPageSizeWhenFindByTaskThenNextCursor() {
+        Instant creationTime = Instant.parse("2024-01-01T10:00:00Z");
+        List<Comment> comments = List.of(
+                Comment.builder().id(1L).creationTime(creationTime).build(),
+                Comment.builder().id(2L).creationTime(creationTime).build(),
+                Comment.builder().id(3L).creationTime(creationTime).build()
+        );
+
+        when(commentRepository.findPageByTaskId(1L, Limit.of(3)))
+                .thenReturn(comments);
+        CursorPage<Comment> actual = commentService.findByTask(1L, null, 2);
+
+        assertEquals(2, actual.content().size());
+        assertEquals(
+                new CommentCursor(creationTime, 2L),
+                CommentCursor.decode(actual.nextCursor())
+        );
+        verify(commentRepository, times(0))
+                .countByTaskId(any());
+    }
+
+    @Test
+    @DisplayName("findByTask test: get task comments page after cursor.")
+    void givenCursorWhenFindByTaskThenPageAfterCursor() {
+        Instant creationTime = Instant.parse("2024-01-01T10:00:00Z");
+        String cursor = new CommentCursor(creationTime, 2L).encode();
+
+        when(commentRepository.findPageByTaskIdAfter(1L, creationTime, 2L, Limit.of(11)))
+                .thenReturn(List.of(new Comment()));
+        CursorPage<Comment> actual = commentService.findByTask(1L, cursor, null);
+
+        assertEquals(1, actual.content().size());
+        assertNull(actual.nextCursor());
+        assertThrows(IncorrectCursorException.class,
+                () -> commentService.findByTask(1L, "not a cursor", null)
+        );
+    }
+
+    private static void authenticate(Long userId) {
+        AppUserDetails principal = new AppUserDetails(new User(
+                userId, "user", "pass", "email",
+                Collections.singleton(RoleType.ROLE_USER),
+                Collections.emptyList(),
+                Collections.emptySet(),
+                new ArrayList<>()
+        ));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(
+                        principal, null, principal.getAuthorities()
+                )
+        );
+    }
 }
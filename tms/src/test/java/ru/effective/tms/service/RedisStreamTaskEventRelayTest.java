@@ -0,0 +1,154 @@
+package ru.effective.tms.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStreamCommands.XAddOptions;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.StreamOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import ru.effective.tms.model.dto.TaskEvent;
+import ru.effective.tms.model.enums.Status;
+import ru.effective.tms.model.enums.TaskEventType;
+import ru.effective.tms.service.impl.RedisStreamTaskEventRelay;
+import ru.effective.tms.service.impl.TaskEventAfterCommitListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+
+@DisplayName("RedisStreamTaskEventRelayTest Tests")
+public class RedisStreamTaskEventRelayTest {
+    private static final TaskEvent EVENT = new TaskEvent(TaskEventType.STATUS_CHANGED,
+            1L, 2L, Set.of(3L), Status.DONE, null, Instant.parse("2024-01-01T10:00:00Z"));
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private RedisStreamTaskEventRelay relay;
+    private TaskEventService taskEventService;
+    private StreamOperations<String, Object, Object> streamOperations;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        taskEventService = Mockito.mock(TaskEventService.class);
+        StringRedisTemplate redisTemplate = Mockito.mock(StringRedisTemplate.class);
+        streamOperations = Mockito.mock(StreamOperations.class);
+        Mockito.when(redisTemplate.opsForStream()).thenReturn(streamOperations);
+        relay = new RedisStreamTaskEventRelay(
+                taskEventService,
+                redisTemplate,
+                Mockito.mock(RedisConnectionFactory.class),
+                objectMapper,
+                100,
+                Duration.ofSeconds(1)
+        );
+    }
+
+    @Test
+    @DisplayName("relay test: add event to trimmed stream.")
+    @SuppressWarnings("unchecked")
+    void givenEventWhenRelayThenAddedToStream() throws Exception {
+        ArgumentCaptor<MapRecord<String, String, String>> record =
+                ArgumentCaptor.forClass(MapRecord.class);
+        ArgumentCaptor<XAddOptions> options = ArgumentCaptor.forClass(XAddOptions.class);
+
+        relay.relay(null, EVENT);
+
+        Mockito.verify(streamOperations).add(record.capture(), options.capture());
+        assertEquals(RedisStreamTaskEventRelay.STREAM_KEY, record.getValue().getStream());
+        assertEquals(EVENT, objectMapper.readValue(
+                record.getValue().getValue().get(RedisStreamTaskEventRelay.FIELD_EVENT),
+                TaskEvent.class));
+        assertFalse(record.getValue().getValue()
+                .containsKey(RedisStreamTaskEventRelay.FIELD_ID));
+        assertEquals(100L, options.getValue().getMaxlen());
+        assertTrue(options.getValue().isApproximateTrimming());
+        Mockito.verify(taskEventService, Mockito.times(0))
+                .dispatch(any(), any());
+    }
+
+    @Test
+    @DisplayName("relay test: event id is added to stream entry "
+            + "and sent instead of entry id.")
+    @SuppressWarnings("unchecked")
+    void givenEventIdWhenRelayThenIdInEntryAndDispatched() {
+        ArgumentCaptor<MapRecord<String, String, String>> record =
+                ArgumentCaptor.forClass(MapRecord.class);
+
+        relay.relay("42", EVENT);
+
+        Mockito.verify(streamOperations).add(record.capture(), any(XAddOptions.class));
+        assertEquals("42", record.getValue().getValue()
+                .get(RedisStreamTaskEventRelay.FIELD_ID));
+
+        relay.onMessage(record.getValue().withId(RecordId.of("1700000000000-0")));
+
+        Mockito.verify(taskEventService, Mockito.times(1))
+                .dispatch("42", EVENT);
+    }
+
+    @Test
+    @DisplayName("relay test: Redis is not available, exception is thrown.")
+    @SuppressWarnings("unchecked")
+    void givenRedisDownWhenRelayThenThrow() {
+        Mockito.when(streamOperations.add(any(MapRecord.class), any(XAddOptions.class)))
+                .thenThrow(new RedisConnectionFailureException("Connection refused"));
+
+        assertThrows(RedisConnectionFailureException.class, () -> relay.relay(null, EVENT));
+    }
+
+    @Test
+    @DisplayName("onTaskEvent test: Redis is not available, send to this node.")
+    @SuppressWarnings("unchecked")
+    void givenRedisDownWhenOnTaskEventThenLocalDispatch() {
+        Mockito.when(streamOperations.add(any(MapRecord.class), any(XAddOptions.class)))
+                .thenThrow(new RedisConnectionFailureException("Connection refused"));
+        TaskEventAfterCommitListener listener =
+                new TaskEventAfterCommitListener(relay, taskEventService);
+
+        listener.onTaskEvent(EVENT);
+
+        Mockito.verify(taskEventService, Mockito.times(1))
+                .dispatch(isNull(), eq(EVENT));
+    }
+
+    @Test
+    @DisplayName("onMessage test: send stream event to this node with entry id.")
+    void givenStreamEntryWhenOnMessageThenDispatchWithId() throws Exception {
+        MapRecord<String, String, String> message = StreamRecords.string(Map.of(
+                        RedisStreamTaskEventRelay.FIELD_EVENT,
+                        objectMapper.writeValueAsString(EVENT)))
+                .withStreamKey(RedisStreamTaskEventRelay.STREAM_KEY)
+                .withId(RecordId.of("1700000000000-0"));
+        MapRecord<String, String, String> incorrect = StreamRecords.string(Map.of(
+                        RedisStreamTaskEventRelay.FIELD_EVENT, "not json"))
+                .withStreamKey(RedisStreamTaskEventRelay.STREAM_KEY)
+                .withId(RecordId.of("1700000000000-1"));
+
+        relay.onMessage(message);
+        relay.onMessage(incorrect);
+
+        Mockito.verify(taskEventService, Mockito.times(1))
+                .dispatch("1700000000000-0", EVENT);
+        Mockito.verify(taskEventService, Mockito.times(0))
+                .dispatch(eq("1700000000000-1"), any());
+        Mockito.verify(taskEventService, Mockito.times(1))
+                .dispatch(anyString(), any());
+    }
+}
@@ -0,0 +1,142 @@
+package ru.effective.tms.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.effective.tms.model.dto.TaskEvent;
+import ru.effective.tms.model.entity.OutboxEvent;
+import ru.effective.tms.model.enums.Status;
+import ru.effective.tms.model.enums.TaskEventType;
+import ru.effective.tms.repository.OutboxRepository;
+import ru.effective.tms.service.impl.LocalTaskEventRelay;
+import ru.effective.tms.service.impl.TaskEventOutboxRelay;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+
+@DisplayName("TaskEventOutboxRelayTest Tests")
+public class TaskEventOutboxRelayTest {
+    private static final int BATCH_SIZE = 100;
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private OutboxRepository outboxRepository;
+    private TaskEventRelay taskEventRelay;
+    private TaskEventOutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository = Mockito.mock(OutboxRepository.class);
+        taskEventRelay = Mockito.mock(TaskEventRelay.class);
+        outboxRelay = new TaskEventOutboxRelay(
+                outboxRepository,
+                taskEventRelay,
+                Mockito.mock(PlatformTransactionManager.class),
+                objectMapper,
+                meterRegistry,
+                BATCH_SIZE
+        );
+    }
+
+    @Test
+    @DisplayName("relay test: send and delete batch.")
+    void givenOutboxEntriesWhenRelayThenSentAndDeleted() throws Exception {
+        TaskEvent first = event(1L);
+        TaskEvent second = event(2L);
+        Mockito.when(outboxRepository.findBatchForRelay(BATCH_SIZE))
+                .thenReturn(List.of(entry(10L, first), entry(11L, second)));
+        Mockito.when(outboxRepository.findFirstByOrderByIdAsc())
+                .thenReturn(Optional.empty());
+
+        outboxRelay.relay();
+
+        Mockito.verify(taskEventRelay).relay("10", first);
+        Mockito.verify(taskEventRelay).relay("11", second);
+        Mockito.verify(outboxRepository, Mockito.times(1))
+                .deleteAllByIdInBatch(List.of(10L, 11L));
+        Mockito.verify(outboxRepository, Mockito.times(1))
+                .findBatchForRelay(BATCH_SIZE);
+        assertEquals(2, meterRegistry.get(TaskEventOutboxRelay.RELAYED_COUNTER)
+                .counter().count());
+        assertEquals(2, meterRegistry.get(TaskEventOutboxRelay.LAG_TIMER)
+                .timer().count());
+        assertEquals(0, meterRegistry.get(TaskEventOutboxRelay.OLDEST_AGE_GAUGE)
+                .timeGauge().value(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    @DisplayName("relay test: relay failed, only sent entries are deleted.")
+    void givenRelayFailedWhenRelayThenNotSentEntriesLeft() throws Exception {
+        TaskEvent first = event(1L);
+        TaskEvent second = event(2L);
+        OutboxEvent notSent = entry(11L, second);
+        notSent.setCreatedAt(Instant.now().minusSeconds(5));
+        Mockito.when(outboxRepository.findBatchForRelay(BATCH_SIZE))
+                .thenReturn(List.of(entry(10L, first), notSent));
+        Mockito.doThrow(new RedisConnectionFailureException("Connection refused"))
+                .when(taskEventRelay).relay("11", second);
+        Mockito.when(outboxRepository.findFirstByOrderByIdAsc())
+                .thenReturn(Optional.of(notSent));
+
+        outboxRelay.relay();
+
+        Mockito.verify(outboxRepository, Mockito.times(1))
+                .deleteAllByIdInBatch(List.of(10L));
+        assertEquals(1, meterRegistry.get(TaskEventOutboxRelay.RELAYED_COUNTER)
+                .counter().count());
+        assertTrue(meterRegistry.get(TaskEventOutboxRelay.OLDEST_AGE_GAUGE)
+                .timeGauge().value(TimeUnit.SECONDS) >= 5);
+    }
+
+    @Test
+    @DisplayName("relay test: incorrect entry is skipped and deleted.")
+    void givenIncorrectEntryWhenRelayThenSkipped() {
+        Mockito.when(outboxRepository.findBatchForRelay(BATCH_SIZE))
+                .thenReturn(List.of(new OutboxEvent(10L, "not json", Instant.now())));
+        Mockito.when(outboxRepository.findFirstByOrderByIdAsc())
+                .thenReturn(Optional.empty());
+
+        outboxRelay.relay();
+
+        Mockito.verify(taskEventRelay, Mockito.times(0)).relay(any(), any());
+        Mockito.verify(outboxRepository, Mockito.times(1))
+                .deleteAllByIdInBatch(List.of(10L));
+    }
+
+    @Test
+    @DisplayName("constructor test: outbox with local fan-out is rejected.")
+    void givenLocalFanOutWhenCreateThenThrow() {
+        LocalTaskEventRelay localRelay =
+                new LocalTaskEventRelay(Mockito.mock(TaskEventService.class));
+
+        assertThrows(IllegalStateException.class, () -> new TaskEventOutboxRelay(
+                outboxRepository,
+                localRelay,
+                Mockito.mock(PlatformTransactionManager.class),
+                objectMapper,
+                meterRegistry,
+                BATCH_SIZE
+        ));
+    }
+
+    private OutboxEvent entry(Long id, TaskEvent event) throws Exception {
+        return new OutboxEvent(id, objectMapper.writeValueAsString(event), Instant.now());
+    }
+
+    private static TaskEvent event(Long taskId) {
+        return new TaskEvent(TaskEventType.STATUS_CHANGED,
+                taskId, 2L, Set.of(3L), Status.DONE, null, Instant.now());
+    }
+}
@@ -0,0 +1,78 @@
+package ru.effective.tms.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import ru.effective.tms.model.dto.TaskEvent;
+import ru.effective.tms.model.dto.task.TaskBulkUpdateRequest;
+import ru.effective.tms.model.entity.OutboxEvent;
+import ru.effective.tms.model.enums.Status;
+import ru.effective.tms.model.enums.TaskEventType;
+import ru.effective.tms.repository.OutboxRepository;
+import ru.effective.tms.repository.TaskRepository;
+import ru.effective.tms.repository.query.TaskFilterQuery;
+import ru.effective.tms.service.impl.RequestEntityCache;
+import ru.effective.tms.service.impl.TaskEventOutboxWriter;
+import ru.effective.tms.service.impl.TaskServiceImpl;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+
+@DisplayName("TaskEventOutboxWriterTest Tests")
+public class TaskEventOutboxWriterTest {
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private OutboxRepository outboxRepository;
+    private TaskRepository taskRepository;
+    private TaskServiceImpl taskService;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository = Mockito.mock(OutboxRepository.class);
+        taskRepository = Mockito.mock(TaskRepository.class);
+        TaskEventOutboxWriter writer =
+                new TaskEventOutboxWriter(outboxRepository, objectMapper);
+        taskService = new TaskServiceImpl(
+                taskRepository,
+                Mockito.mock(UserService.class),
+                new RequestEntityCache(),
+                event -> writer.onTaskEvent((TaskEvent) event)
+        );
+    }
+
+    @Test
+    @DisplayName("onTaskEvent test: bulk update writes event of every task to outbox.")
+    void givenBulkUpdateWhenUpdateAllThenOutboxEntryPerTask() throws Exception {
+        Map<Long, Status> previousStatuses = new LinkedHashMap<>();
+        previousStatuses.put(1L, Status.OPEN);
+        previousStatuses.put(2L, Status.DONE);
+        ArgumentCaptor<OutboxEvent> entries = ArgumentCaptor.forClass(OutboxEvent.class);
+
+        Mockito.when(taskRepository.lockStatuses(any(TaskFilterQuery.class)))
+                .thenReturn(previousStatuses);
+        Mockito.when(taskRepository.updateAll(any(TaskFilterQuery.class),
+                        eq(Status.DONE), isNull()))
+                .thenReturn(2);
+        taskService.updateAll(new TaskBulkUpdateRequest(
+                List.of(1L, 2L), null, Status.DONE, null), null);
+
+        Mockito.verify(outboxRepository, Mockito.times(2)).save(entries.capture());
+        TaskEvent first = objectMapper.readValue(
+                entries.getAllValues().get(0).getPayload(), TaskEvent.class);
+        TaskEvent second = objectMapper.readValue(
+                entries.getAllValues().get(1).getPayload(), TaskEvent.class);
+        assertEquals(TaskEventType.STATUS_CHANGED, first.type());
+        assertEquals(1L, first.taskId());
+        assertEquals(Status.DONE, first.currentStatus());
+        assertEquals(TaskEventType.UPDATED, second.type());
+        assertEquals(2L, second.taskId());
+    }
+}
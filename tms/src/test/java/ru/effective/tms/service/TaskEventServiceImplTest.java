@@ -0,0 +1,169 @@
+package ru.effective.tms.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.effective.tms.model.dto.TaskEvent;
+import ru.effective.tms.model.enums.Status;
+import ru.effective.tms.model.enums.TaskEventType;
+import ru.effective.tms.repository.TaskRepository;
+import ru.effective.tms.service.impl.TaskEventServiceImpl;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@DisplayName("TaskEventServiceImplTest Tests")
+public class TaskEventServiceImplTest {
+    private static final long SEND_TIMEOUT_MILLIS = 1000;
+    private final TaskRepository taskRepository = mock(TaskRepository.class);
+    /**
+     * Emitters returned to the next subscribers.
+     */
+    private final Deque<SseEmitter> emitters = new ArrayDeque<>();
+    private TaskEventServiceImpl taskEventService;
+
+    @BeforeEach
+    void setUp() {
+        taskEventService = new TaskEventServiceImpl(
+                taskRepository,
+                new SimpleMeterRegistry(),
+                16,
+                Duration.ofMinutes(1),
+                1
+        ) {
+            @Override
+            protected SseEmitter createEmitter() {
+                return emitters.removeFirst();
+            }
+        };
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskEventService.shutdown();
+    }
+
+    @Test
+    @DisplayName("dispatch test: not filtered subscriber gets all events "
+            + "without audience lookup.")
+    void givenNotFilteredSubscriberWhenDispatchThenAllEventsSent() throws IOException {
+        SseEmitter all = subscribe(null, null);
+        TaskEvent statusChanged = taskEvent(2L, Set.of(3L));
+        TaskEvent commentAdded = commentEvent();
+
+        taskEventService.dispatch("1", statusChanged);
+        taskEventService.dispatch("2", commentAdded);
+
+        ArgumentCaptor<SseEmitter.SseEventBuilder> sent =
+                ArgumentCaptor.forClass(SseEmitter.SseEventBuilder.class);
+        verify(all, timeout(SEND_TIMEOUT_MILLIS).times(2)).send(sent.capture());
+        assertEquals(statusChanged, data(sent.getAllValues().get(0)));
+        assertEquals(commentAdded, data(sent.getAllValues().get(1)));
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    @DisplayName("dispatch test: filtered subscribers get events "
+            + "of their author and performer only.")
+    void givenFilteredSubscribersWhenDispatchThenMatchingSent() throws IOException {
+        SseEmitter byPerformer = subscribe(null, 3L);
+        SseEmitter byOtherAuthor = subscribe(5L, null);
+        TaskEvent statusChanged = taskEvent(2L, Set.of(3L));
+
+        taskEventService.dispatch("1", statusChanged);
+
+        ArgumentCaptor<SseEmitter.SseEventBuilder> sent =
+                ArgumentCaptor.forClass(SseEmitter.SseEventBuilder.class);
+        verify(byPerformer, timeout(SEND_TIMEOUT_MILLIS).times(1)).send(sent.capture());
+        assertEquals(statusChanged, data(sent.getValue()));
+        verify(byOtherAuthor, after(200).never())
+                .send(any(SseEmitter.SseEventBuilder.class));
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    @DisplayName("dispatch test: comment event audience is resolved "
+            + "for filtered subscriber.")
+    void givenFilteredSubscriberWhenDispatchCommentThenAudienceResolved()
+            throws IOException {
+        SseEmitter byPerformer = subscribe(null, 3L);
+        SseEmitter byOtherPerformer = subscribe(null, 4L);
+        TaskEvent commentAdded = commentEvent();
+        when(taskRepository.findAuthorIdById(1L)).thenReturn(Optional.of(2L));
+        when(taskRepository.findPerformerIdsById(1L)).thenReturn(Set.of(3L));
+
+        taskEventService.dispatch("1", commentAdded);
+
+        ArgumentCaptor<SseEmitter.SseEventBuilder> sent =
+                ArgumentCaptor.forClass(SseEmitter.SseEventBuilder.class);
+        verify(byPerformer, timeout(SEND_TIMEOUT_MILLIS).times(1)).send(sent.capture());
+        assertEquals(commentAdded.withAudience(2L, Set.of(3L)), data(sent.getValue()));
+        verify(byOtherPerformer, after(200).never())
+                .send(any(SseEmitter.SseEventBuilder.class));
+        verify(taskRepository, times(1)).findAuthorIdById(1L);
+        verify(taskRepository, times(1)).findPerformerIdsById(1L);
+    }
+
+    @Test
+    @DisplayName("dispatch test: comment of deleted task is not sent "
+            + "to filtered subscriber.")
+    void givenDeletedTaskWhenDispatchCommentThenNotSentToFiltered() throws IOException {
+        SseEmitter byPerformer = subscribe(null, 3L);
+        when(taskRepository.findAuthorIdById(1L)).thenReturn(Optional.empty());
+
+        taskEventService.dispatch("1", commentEvent());
+
+        verify(byPerformer, after(200).never())
+                .send(any(SseEmitter.SseEventBuilder.class));
+        verify(taskRepository, times(0)).findPerformerIdsById(any());
+    }
+
+    private SseEmitter subscribe(Long authorId, Long performerId) {
+        SseEmitter emitter = mock(SseEmitter.class);
+        emitters.addLast(emitter);
+        taskEventService.subscribe(authorId, performerId);
+        return emitter;
+    }
+
+    private static TaskEvent taskEvent(Long authorId, Set<Long> performerIds) {
+        return new TaskEvent(TaskEventType.STATUS_CHANGED,
+                1L, authorId, performerIds, Status.DONE, null, Instant.now());
+    }
+
+    private static TaskEvent commentEvent() {
+        return new TaskEvent(TaskEventType.COMMENT_ADDED,
+                1L, null, null, null, 5L, Instant.now());
+    }
+
+    /**
+     * @return event data object without SSE field text.
+     */
+    private static Object data(SseEmitter.SseEventBuilder builder) {
+        return builder.build().stream()
+                .map(ResponseBodyEmitter.DataWithMediaType::getData)
+                .filter(data -> !(data instanceof String))
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,109 @@
+package ru.effective.tms.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.effective.tms.model.dto.TaskEvent;
+import ru.effective.tms.model.enums.Status;
+import ru.effective.tms.model.enums.TaskEventType;
+import ru.effective.tms.service.impl.TaskEventSubscription;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class TaskEventSubscriptionTest {
+    private final Counter droppedCounter =
+            new SimpleMeterRegistry().counter("task.events.dropped");
+
+    @Test
+    @DisplayName("offer test: full buffer drops the oldest event.")
+    void givenFullBufferWhenOfferThenOldestDropped() throws IOException {
+        SseEmitter emitter = mock(SseEmitter.class);
+        TaskEventSubscription subscription =
+                new TaskEventSubscription(null, null, 2, emitter, droppedCounter);
+        TaskEvent first = event(1L);
+        TaskEvent second = event(2L);
+        TaskEvent third = event(3L);
+
+        assertTrue(subscription.offer("1", first));
+        assertFalse(subscription.offer("2", second));
+        assertFalse(subscription.offer("3", third));
+        subscription.drain();
+
+        ArgumentCaptor<SseEmitter.SseEventBuilder> sent =
+                ArgumentCaptor.forClass(SseEmitter.SseEventBuilder.class);
+        verify(emitter, times(3)).send(sent.capture());
+        assertEquals(List.of(1L, second, third), sent.getAllValues().stream()
+                .map(TaskEventSubscriptionTest::data)
+                .toList());
+        assertEquals(1, droppedCounter.count());
+        assertTrue(subscription.offer("4", event(4L)));
+    }
+
+    @Test
+    @DisplayName("drain test: client is gone, subscription is closed.")
+    void givenClientGoneWhenDrainThenClosed() throws IOException {
+        SseEmitter emitter = mock(SseEmitter.class);
+        TaskEventSubscription subscription =
+                new TaskEventSubscription(null, null, 2, emitter, droppedCounter);
+        doThrow(new IOException("Broken pipe"))
+                .when(emitter).send(any(SseEmitter.SseEventBuilder.class));
+
+        subscription.offer("1", event(1L));
+        subscription.drain();
+
+        assertTrue(subscription.isClosed());
+        assertFalse(subscription.offer("2", event(2L)));
+    }
+
+    @Test
+    @DisplayName("matches test: filter by author and performer.")
+    void givenFilteredSubscriptionWhenMatchesThenByAuthorAndPerformer() {
+        TaskEventSubscription byPerformer = new TaskEventSubscription(
+                null, 3L, 2, mock(SseEmitter.class), droppedCounter);
+        TaskEventSubscription byAuthor = new TaskEventSubscription(
+                2L, null, 2, mock(SseEmitter.class), droppedCounter);
+        TaskEventSubscription all = new TaskEventSubscription(
+                null, null, 2, mock(SseEmitter.class), droppedCounter);
+        TaskEvent commentAdded = new TaskEvent(TaskEventType.COMMENT_ADDED,
+                1L, null, null, null, 5L, Instant.now());
+
+        assertTrue(byPerformer.matches(event(1L)));
+        assertTrue(byAuthor.matches(event(1L)));
+        assertFalse(byAuthor.matches(event(1L).withAudience(4L, Set.of(3L))));
+        assertFalse(byPerformer.matches(commentAdded));
+        assertTrue(all.matches(commentAdded));
+        assertTrue(byPerformer.matches(commentAdded.withAudience(4L, Set.of(3L))));
+    }
+
+    private static TaskEvent event(Long taskId) {
+        return new TaskEvent(TaskEventType.STATUS_CHANGED,
+                taskId, 2L, Set.of(3L), Status.DONE, null, Instant.now());
+    }
+
+    /**
+     * @return event data object without SSE field text.
+     */
+    private static Object data(SseEmitter.SseEventBuilder builder) {
+        return builder.build().stream()
+                .map(ResponseBodyEmitter.DataWithMediaType::getData)
+                .filter(data -> !(data instanceof String))
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,194 @@
+package ru.effective.tms.service;
+
+import jakarta.persistence.EntityManager;
+import net.ttddyy.dsproxy.QueryCountHolder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Transactional;
+import ru.effective.tms.config.QueryCountConfiguration;
+import ru.effective.tms.mapper.TaskMapper;
+import ru.effective.tms.model.dto.CursorPage;
+import ru.effective.tms.model.dto.TaskCursor;
+import ru.effective.tms.model.dto.TaskFilter;
+import ru.effective.tms.model.dto.task.TaskResponse;
+import ru.effective.tms.model.dto.task.TaskResponseWith;
+import ru.effective.tms.model.entity.Comment;
+import ru.effective.tms.model.entity.Task;
+import ru.effective.tms.model.entity.User;
+import ru.effective.tms.model.entity.security.RoleType;
+import ru.effective.tms.model.enums.Priority;
+import ru.effective.tms.model.enums.Status;
+import ru.effective.tms.model.enums.TaskSortField;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Select count of task list and detail reads
+ * does not depend on number of tasks, performers and comments.
+ * Projection reads take single select.
+ */
+@SpringBootTest
+@Import(QueryCountConfiguration.class)
+@Transactional
+@DisplayName("TaskQueryCountTest Tests")
+public class TaskQueryCountTest {
+    @Autowired
+    private TaskService taskService;
+    @Autowired
+    private TaskMapper taskMapper;
+    @Autowired
+    private CommentService commentService;
+    @Autowired
+    private EntityManager entityManager;
+
+    @AfterEach
+    void tearDown() {
+        QueryCountHolder.clear();
+    }
+
+    @Test
+    @DisplayName("findAll test: list select count does not grow with page size.")
+    void givenTasksWithPerformersWhenFindAllThenConstantSelectCount() {
+        createTasks(10, 2, 0);
+
+        long smallPageSelects = countSelects(() -> taskMapper
+                .sliceToModelListResponse(taskService.findAll(0, 2), null));
+        long fullPageSelects = countSelects(() -> taskMapper
+                .sliceToModelListResponse(taskService.findAll(0, 10), null));
+
+        assertEquals(smallPageSelects, fullPageSelects);
+    }
+
+    @Test
+    @DisplayName("filterByCursor test: projection page is read by single select.")
+    void givenTasksWithPerformersWhenFilterByCursorThenSingleSelect() {
+        List<Long> ids = createTasks(3, 2, 0).stream()
+                .map(Task::getId)
+                .toList();
+
+        TaskFilter filter = TaskFilter.builder()
+                .pageSize(ids.size())
+                .cursor(new TaskCursor(TaskSortField.ID, null, ids.get(0) - 1).encode())
+                .build();
+
+        long selects = countSelects(() -> {
+            List<TaskResponse> responses = taskService.filterByCursor(filter).content();
+            assertEquals(ids, responses.stream().map(TaskResponse::id).toList());
+            responses.forEach(response ->
+                    assertEquals(2, response.performerIds().size()));
+        });
+
+        assertEquals(1, selects);
+    }
+
+    @Test
+    @DisplayName("findById test: detail select count does not grow with comments.")
+    void givenTasksWithCommentsWhenFindByIdThenConstantSelectCount() {
+        Task fewComments = createTasks(1, 2, 1).get(0);
+        Task manyComments = createTasks(1, 2, 10).get(0);
+
+        long fewCommentsSelects = countSelects(() -> {
+            TaskResponseWith response = findDetail(fewComments.getId(), 5);
+            assertEquals(1, response.comments().size());
+            assertEquals(1, response.commentCount());
+            assertNull(response.commentsNextCursor());
+        });
+        long manyCommentsSelects = countSelects(() -> {
+            TaskResponseWith response = findDetail(manyComments.getId(), 5);
+            assertEquals(5, response.comments().size());
+            assertEquals(10, response.commentCount());
+            assertNotNull(response.commentsNextCursor());
+        });
+
+        assertEquals(fewCommentsSelects, manyCommentsSelects);
+    }
+
+    @Test
+    @DisplayName("findByTask test: comments keyset pages cover all comments once.")
+    void givenTaskWithCommentsWhenFindByTaskThenAllPagesInOrder() {
+        Task task = createTasks(1, 0, 7).get(0);
+        List<Long> expected = task.getComments().stream()
+                .map(Comment::getId)
+                .toList();
+        entityManager.clear();
+
+        List<Long> actual = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<Comment> page = commentService.findByTask(task.getId(), cursor, 3);
+            page.content().forEach(comment -> actual.add(comment.getId()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertEquals(expected, actual);
+    }
+
+    private TaskResponseWith findDetail(Long id, int commentsPageSize) {
+        return taskMapper.modelToResponseWith(
+                taskService.findById(id),
+                commentService.findByTask(id, null, commentsPageSize),
+                commentService.countByTask(id)
+        );
+    }
+
+    private long countSelects(Runnable read) {
+        entityManager.clear();
+        QueryCountHolder.clear();
+        read.run();
+        return QueryCountHolder.getGrandTotal().getSelect();
+    }
+
+    private List<Task> createTasks(int taskCount, int performerCount, int commentCount) {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < taskCount; i++) {
+            Task task = Task.builder()
+                    .title("title" + i)
+                    .description("description")
+                    .currentStatus(Status.OPEN)
+                    .currentPriority(Priority.MEDIUM)
+                    .author(createUser())
+                    .build();
+            entityManager.persist(task);
+            for (int j = 0; j < performerCount; j++) {
+                User performer = createUser();
+                performer.getTakenTask().add(task);
+                task.getPerformerList().add(performer);
+            }
+            for (int j = 0; j < commentCount; j++) {
+                Comment comment = Comment.builder()
+                        .content("content" + j)
+                        .task(task)
+                        .author(createUser())
+                        .build();
+                entityManager.persist(comment);
+                task.getComments().add(comment);
+            }
+            tasks.add(task);
+        }
+        entityManager.flush();
+        return tasks;
+    }
+
+    private User createUser() {
+        String name = UUID.randomUUID().toString();
+        User user = User.builder()
+                .username(name)
+                .password("password")
+                .email(name + "@mail.ru")
+                .roles(Set.of(RoleType.ROLE_USER))
+                .build();
+        entityManager.persist(user);
+        return user;
+    }
+}
@@ -1,28 +1,57 @@
 package ru.effective.tms.service;
 
+import jakarta.persistence.Query;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 import ru.effective.tms.exception.EntityNotFoundException;
+import ru.effective.tms.exception.IncorrectCursorException;
+import ru.effective.tms.model.dto.CursorPage;
+import ru.effective.tms.model.dto.TaskCursor;
+import ru.effective.tms.model.dto.TaskEvent;
+import ru.effective.tms.model.dto.TaskFilter;
+import ru.effective.tms.model.dto.task.TaskBulkUpdateRequest;
+import ru.effective.tms.model.dto.task.TaskResponse;
 import ru.effective.tms.model.enums.Priority;
 import ru.effective.tms.model.enums.Status;
+import ru.effective.tms.model.enums.TaskEventType;
+import ru.effective.tms.model.enums.TaskSortField;
 import ru.effective.tms.model.entity.Task;
 import ru.effective.tms.model.entity.User;
 import ru.effective.tms.repository.TaskRepository;
+import ru.effective.tms.repository.query.TaskFilterQuery;
+import ru.effective.tms.service.impl.RequestEntityCache;
 import ru.effective.tms.service.impl.TaskServiceImpl;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @SpringBootTest
@@ -33,10 +62,22 @@ public class TaskServiceImplTest {
     private TaskRepository taskRepository;
     @MockitoBean
     private UserService userService;
+    private final ApplicationEventPublisher eventPublisher =
+            mock(ApplicationEventPublisher.class);
 
     @BeforeEach
     void setUp() {
-        taskService = new TaskServiceImpl(taskRepository, userService);
+        taskService = new TaskServiceImpl(
+                taskRepository,
+                userService,
+                new RequestEntityCache(),
+                eventPublisher
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
     }
 
     @Test
@@ -46,15 +87,129 @@ public class TaskServiceImplTest {
                 new Task(),
                 new Task()
         ));
-        PageRequest pageRequest = PageRequest.of(0, 10);
+        List<Long> ids = List.of(1L, 2L);
+        Sort sort = Sort.by(Task.Fields.id);
 
-        when(taskRepository.findAll(pageRequest))
-                .thenReturn(new PageImpl<>(taskListList));
+        when(taskRepository.findIds(null, sort, 0, 11))
+                .thenReturn(ids);
+        when(taskRepository.findAllByIds(ids, Task.AUTHOR_PERFORMERS_GRAPH))
+                .thenReturn(taskListList);
         List<Task> actual = taskService.findAll();
 
         assertEquals(taskListList.size(), actual.size());
         verify(taskRepository, times(1))
-                .findAll(pageRequest);
+                .findIds(null, sort, 0, 11);
+        verify(taskRepository, times(1))
+                .findAllByIds(ids, Task.AUTHOR_PERFORMERS_GRAPH);
+        verify(taskRepository, times(0))
+                .count();
+    }
+
+    @Test
+    @DisplayName("findAllResponses test: get projection page with next page flag.")
+    void givenMoreTasksThanPageSizeWhenFindAllResponsesThenHasNext() {
+        when(taskRepository.findResponses(any(TaskFilterQuery.class), eq(0L), eq(3)))
+                .thenReturn(List.of(
+                        taskResponse(1L, "a"),
+                        taskResponse(2L, "b"),
+                        taskResponse(3L, "c")
+                ));
+        Slice<TaskResponse> actual = taskService.findAllResponses(0, 2);
+
+        assertEquals(2, actual.getContent().size());
+        assertTrue(actual.hasNext());
+        verify(taskRepository, times(0))
+                .findAllByIds(any(), any());
+    }
+
+    @Test
+    @DisplayName("filterBy test: search query page is ordered by relevance.")
+    void givenSearchQueryWhenFilterByThenRelevanceOrder() {
+        TaskFilter filter = TaskFilter.builder()
+                .pageSize(2)
+                .pageNumber(0)
+                .q("tit")
+                .build();
+
+        ArgumentCaptor<TaskFilterQuery> filterQuery =
+                ArgumentCaptor.forClass(TaskFilterQuery.class);
+
+        when(taskRepository.findResponses(any(TaskFilterQuery.class), anyLong(), anyInt()))
+                .thenReturn(List.of(taskResponse(1L, "title")));
+        List<TaskResponse> actual = taskService.filterBy(filter);
+
+        assertEquals(1, actual.size());
+        verify(taskRepository, times(1))
+                .findResponses(filterQuery.capture(), eq(0L), eq(2));
+        assertEquals(TaskFilterQuery.Order.RELEVANCE, filterQuery.getValue().order());
+    }
+
+    @Test
+    @DisplayName("toPrefixTsQuery test: keep only words of search query.")
+    void givenSearchQueryWhenToPrefixTsQueryThenPrefixWords() {
+        assertEquals("fix:* & баг:* & 42:*",
+                TaskFilterQuery.toPrefixTsQuery("Fix  'БАГ' & 42:*|!"));
+        assertNull(TaskFilterQuery.toPrefixTsQuery(" &!:* "));
+        assertNull(TaskFilterQuery.toPrefixTsQuery(null));
+    }
+
+    @Test
+    @DisplayName("filterByCursor test: get first keyset page with next cursor.")
+    void givenMoreTasksThanPageSizeWhenFilterByCursorThenNextCursor() {
+        TaskFilter filter = TaskFilter.builder()
+                .pageSize(2)
+                .sortBy(TaskSortField.TITLE)
+                .build();
+        List<TaskResponse> tasks = List.of(
+                taskResponse(3L, "a"),
+                taskResponse(1L, "b"),
+                taskResponse(2L, "c")
+        );
+
+        when(taskRepository.findResponses(any(TaskFilterQuery.class), anyLong(), anyInt()))
+                .thenReturn(tasks);
+        CursorPage<TaskResponse> actual = taskService.filterByCursor(filter);
+
+        assertEquals(2, actual.content().size());
+        assertEquals(
+                new TaskCursor(TaskSortField.TITLE, "b", 1L),
+                TaskCursor.decode(actual.nextCursor())
+        );
+        verify(taskRepository, times(0))
+                .count(any(Specification.class));
+    }
+
+    @Test
+    @DisplayName("filterByCursor test: get last keyset page without next cursor.")
+    void givenLessTasksThanPageSizeWhenFilterByCursorThenNoNextCursor() {
+        TaskFilter filter = TaskFilter.builder()
+                .pageSize(2)
+                .cursor(new TaskCursor(TaskSortField.ID, null, 5L).encode())
+                .build();
+
+        when(taskRepository.findResponses(any(TaskFilterQuery.class), anyLong(), anyInt()))
+                .thenReturn(List.of(taskResponse(6L, null)));
+        CursorPage<TaskResponse> actual = taskService.filterByCursor(filter);
+
+        assertEquals(1, actual.content().size());
+        assertNull(actual.nextCursor());
+    }
+
+    @Test
+    @DisplayName("filterByCursor test: try to use cursor of another sort key.")
+    void givenCursorOfAnotherSortKeyWhenFilterByCursorThenThrow() {
+        TaskFilter filter = TaskFilter.builder()
+                .pageSize(2)
+                .sortBy(TaskSortField.TITLE)
+                .cursor(new TaskCursor(TaskSortField.ID, null, 5L).encode())
+                .build();
+
+        assertThrows(IncorrectCursorException.class,
+                () -> taskService.filterByCursor(filter)
+        );
+        assertThrows(IncorrectCursorException.class,
+                () -> TaskCursor.decode("not a cursor")
+        );
     }
 
     @Test
@@ -72,14 +227,61 @@ public class TaskServiceImplTest {
                 Collections.emptyList()
         );
 
-        when(taskRepository.findById(userId))
+        when(taskRepository.findDetailedById(userId))
                 .thenReturn(Optional.of(defaultTask));
 
         Task actual = taskService.findById(userId);
 
         assertEquals(defaultTask, actual);
         verify(taskRepository, times(1))
-                .findById(any());
+                .findDetailedById(any());
+    }
+
+    @Test
+    @DisplayName("findById test: reuse task loaded in the same request.")
+    void givenTaskLoadedInRequestWhenGetByIdThenSingleQuery() {
+        Long taskId = 1L;
+        Task defaultTask = new Task();
+        RequestContextHolder.setRequestAttributes(
+                new ServletRequestAttributes(new MockHttpServletRequest())
+        );
+
+        when(taskRepository.findDetailedById(taskId))
+                .thenReturn(Optional.of(defaultTask));
+
+        Task first = taskService.findById(taskId);
+        Task second = taskService.findById(taskId);
+
+        assertSame(first, second);
+        verify(taskRepository, times(1))
+                .findDetailedById(any());
+    }
+
+    @Test
+    @DisplayName("findAuthorIdById test: get task author id by task id.")
+    void givenExistingTaskIdWhenFindAuthorIdThenAuthorId() {
+        Long taskId = 1L;
+        Long authorId = 5L;
+
+        when(taskRepository.findAuthorIdById(taskId))
+                .thenReturn(Optional.of(authorId));
+
+        assertEquals(authorId, taskService.findAuthorIdById(taskId));
+        verify(taskRepository, times(0))
+                .findDetailedById(any());
+    }
+
+    @Test
+    @DisplayName("findAuthorIdById test: try to get author id by not existing id.")
+    void givenNotExistingTaskIdWhenFindAuthorIdThenThrow() {
+        Long taskId = 1L;
+
+        when(taskRepository.findAuthorIdById(taskId))
+                .thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class,
+                () -> taskService.findAuthorIdById(taskId)
+        );
     }
 
     @Test
@@ -87,7 +289,7 @@ public class TaskServiceImplTest {
     void givenNotExistingTaskIdWhenGetByIdThenThrow() {
         Long taskId = 1L;
 
-        when(taskRepository.findById(taskId))
+        when(taskRepository.findDetailedById(taskId))
                 .thenReturn(Optional.empty());
 
         assertThrows(EntityNotFoundException.class,
@@ -95,7 +297,7 @@ public class TaskServiceImplTest {
                 " index is incorrect"
         );
         verify(taskRepository, times(1))
-                .findById(any());
+                .findDetailedById(any());
     }
 
     @Test
@@ -120,6 +322,107 @@ public class TaskServiceImplTest {
                 .save(any());
     }
 
+    @Test
+    @DisplayName("saveAll test: check authors once and save all tasks.")
+    void givenTasksWhenSaveAllThenAuthorsCheckedOnce() {
+        User author = new User();
+        author.setId(1L);
+        User anotherAuthor = new User();
+        anotherAuthor.setId(2L);
+        List<Task> tasksToSave = List.of(
+                Task.builder().title("first").author(author).build(),
+                Task.builder().title("second").author(anotherAuthor).build(),
+                Task.builder().title("third").author(author).build()
+        );
+
+        when(taskRepository.saveAll(tasksToSave)).thenReturn(tasksToSave);
+        List<Task> actual = taskService.saveAll(tasksToSave);
+
+        assertEquals(tasksToSave, actual);
+        verify(userService, times(1))
+                .existsAllById(Set.of(1L, 2L));
+        verify(userService, times(0))
+                .existsById(any());
+        verify(taskRepository, times(1))
+                .saveAll(tasksToSave);
+    }
+
+    @Test
+    @DisplayName("saveAll test: try to save tasks with not existed author.")
+    void givenNotExistedAuthorWhenSaveAllThenThrow() {
+        User author = new User();
+        author.setId(1L);
+        List<Task> tasksToSave = List.of(Task.builder().author(author).build());
+
+        doThrow(EntityNotFoundException.class)
+                .when(userService).existsAllById(any());
+
+        assertThrows(EntityNotFoundException.class,
+                () -> taskService.saveAll(tasksToSave)
+        );
+        verify(taskRepository, times(0))
+                .saveAll(any());
+    }
+
+    @Test
+    @DisplayName("updateAll test: lock owned tasks, update by ids and publish events.")
+    void givenIdsAndOwnerWhenUpdateAllThenSingleUpdateAndEvents() {
+        TaskBulkUpdateRequest request = new TaskBulkUpdateRequest(
+                List.of(1L, 2L, 3L), null, Status.DONE, null
+        );
+        Map<Long, Status> previousStatuses = new LinkedHashMap<>();
+        previousStatuses.put(1L, Status.OPEN);
+        previousStatuses.put(2L, Status.DONE);
+        ArgumentCaptor<TaskFilterQuery> lockTarget =
+                ArgumentCaptor.forClass(TaskFilterQuery.class);
+        ArgumentCaptor<TaskFilterQuery> updateTarget =
+                ArgumentCaptor.forClass(TaskFilterQuery.class);
+        ArgumentCaptor<TaskEvent> events = ArgumentCaptor.forClass(TaskEvent.class);
+        Query query = mock(Query.class);
+
+        when(taskRepository.lockStatuses(any(TaskFilterQuery.class)))
+                .thenReturn(previousStatuses);
+        when(taskRepository.updateAll(any(TaskFilterQuery.class), eq(Status.DONE), isNull()))
+                .thenReturn(2);
+        int actual = taskService.updateAll(request, 1L);
+
+        assertEquals(2, actual);
+        verify(taskRepository, times(1)).lockStatuses(lockTarget.capture());
+        assertTrue(lockTarget.getValue().statusesJpql().contains(":ownerId"));
+        verify(taskRepository, times(1))
+                .updateAll(updateTarget.capture(), eq(Status.DONE), isNull());
+        updateTarget.getValue().bind(query);
+        verify(query).setParameter("ids", new Long[]{1L, 2L});
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        List<TaskEvent> published = events.getAllValues();
+        assertEquals(TaskEventType.STATUS_CHANGED, published.get(0).type());
+        assertEquals(1L, published.get(0).taskId());
+        assertEquals(Status.DONE, published.get(0).currentStatus());
+        assertEquals(TaskEventType.UPDATED, published.get(1).type());
+        assertEquals(2L, published.get(1).taskId());
+        assertNull(published.get(1).performerIds());
+        verify(taskRepository, times(0))
+                .findDetailedById(any());
+        verify(taskRepository, times(0))
+                .save(any());
+    }
+
+    @Test
+    @DisplayName("updateAll test: nothing matched, no update and no events.")
+    void givenNoMatchingTasksWhenUpdateAllThenNoUpdate() {
+        TaskBulkUpdateRequest request = new TaskBulkUpdateRequest(
+                List.of(1L), null, Status.DONE, null
+        );
+
+        when(taskRepository.lockStatuses(any(TaskFilterQuery.class)))
+                .thenReturn(Map.of());
+        int actual = taskService.updateAll(request, 1L);
+
+        assertEquals(0, actual);
+        verify(taskRepository, times(0)).updateAll(any(), any(), any());
+        verify(eventPublisher, times(0)).publishEvent(any());
+    }
+
     @Test
     @DisplayName("update test: send user data to repository.")
     void givenTaskAndTaskIdWhenUpdateByIdThenUpdatedTask() {
@@ -135,7 +438,7 @@ public class TaskServiceImplTest {
                 Collections.emptyList()
         );
 
-        when(taskRepository.findById(taskId))
+        when(taskRepository.findDetailedById(taskId))
                 .thenReturn(Optional.of(taskToUpdate));
         when(taskRepository.save(taskToUpdate)).thenReturn(taskToUpdate);
 
@@ -145,7 +448,78 @@ public class TaskServiceImplTest {
         verify(taskRepository, times(1))
                 .save(any());
         verify(taskRepository, times(1))
-                .findById(any());
+                .findDetailedById(any());
+    }
+
+    @Test
+    @DisplayName("update test: status change publishes status changed event.")
+    void givenNewStatusWhenUpdateByIdThenStatusChangedEvent() {
+        Long taskId = 1L;
+        User author = new User();
+        author.setId(2L);
+        User performer = new User();
+        performer.setId(3L);
+        Task existingTask = new Task(
+                taskId,
+                "title",
+                "description",
+                Status.OPEN,
+                Priority.MEDIUM,
+                author,
+                Set.of(performer),
+                Collections.emptyList()
+        );
+        Task statusChange = new Task();
+        statusChange.setCurrentStatus(Status.DONE);
+        ArgumentCaptor<TaskEvent> eventCaptor = ArgumentCaptor.forClass(TaskEvent.class);
+
+        when(taskRepository.findDetailedById(taskId))
+                .thenReturn(Optional.of(existingTask));
+        taskService.update(taskId, statusChange);
+
+        verify(eventPublisher, times(1))
+                .publishEvent(eventCaptor.capture());
+        TaskEvent event = eventCaptor.getValue();
+        assertEquals(TaskEventType.STATUS_CHANGED, event.type());
+        assertEquals(Status.DONE, event.currentStatus());
+        assertEquals(2L, event.authorId());
+        assertEquals(Set.of(3L), event.performerIds());
+    }
+
+    @Test
+    @DisplayName("addNewPerformer test: event has the new performer.")
+    void givenNewPerformerWhenAddNewPerformerThenPerformerAddedEvent() {
+        Long taskId = 1L;
+        User author = new User();
+        author.setId(2L);
+        User performer = new User();
+        performer.setId(3L);
+        performer.setTakenTask(new HashSet<>());
+        Task existingTask = new Task(
+                taskId,
+                "title",
+                "description",
+                Status.OPEN,
+                Priority.MEDIUM,
+                author,
+                new HashSet<>(),
+                Collections.emptyList()
+        );
+        ArgumentCaptor<TaskEvent> eventCaptor = ArgumentCaptor.forClass(TaskEvent.class);
+
+        when(taskRepository.findDetailedById(taskId))
+                .thenReturn(Optional.of(existingTask));
+        when(userService.findById(3L)).thenReturn(performer);
+        taskService.addNewPerformer(taskId, 3L);
+
+        verify(eventPublisher, times(1))
+                .publishEvent(eventCaptor.capture());
+        TaskEvent event = eventCaptor.getValue();
+        assertEquals(TaskEventType.PERFORMER_ADDED, event.type());
+        assertEquals(2L, event.authorId());
+        assertEquals(Set.of(3L), event.performerIds());
+        verify(taskRepository, times(1))
+                .findDetailedById(taskId);
     }
 
     @Test
@@ -163,7 +537,7 @@ public class TaskServiceImplTest {
                 Collections.emptyList()
         );
 
-        when(taskRepository.findById(notExistedTaskId))
+        when(taskRepository.findDetailedById(notExistedTaskId))
                 .thenReturn(Optional.empty());
         when(taskRepository.save(taskToUpdate)).thenReturn(taskToUpdate);
 
@@ -174,7 +548,7 @@ public class TaskServiceImplTest {
         verify(taskRepository, times(0))
                 .save(any());
         verify(taskRepository, times(1))
-                .findById(any());
+                .findDetailedById(any());
     }
 
     @Test
@@ -182,14 +556,16 @@ public class TaskServiceImplTest {
     void givenExistedTaskIdWhenDeleteByIdThenVoid() {
         Long existedTaskId = 1L;
 
-        when(taskRepository.findById(existedTaskId))
+        when(taskRepository.findDetailedById(existedTaskId))
                 .thenReturn(Optional.of(new Task()));
         taskService.deleteById(existedTaskId);
 
         verify(taskRepository, times(1))
-                .findById(existedTaskId);
+                .findDetailedById(existedTaskId);
         verify(taskRepository, times(1))
                 .deleteById(existedTaskId);
+        verify(eventPublisher, times(1))
+                .publishEvent(any(TaskEvent.class));
     }
 
     @Test
@@ -202,8 +578,13 @@ public class TaskServiceImplTest {
                 "taskId is incorrect."
         );
         verify(taskRepository, times(1))
-                .findById(notExistedTaskId);
+                .findDetailedById(notExistedTaskId);
         verify(taskRepository, times(0))
                 .deleteById(notExistedTaskId);
     }
+
+    private static TaskResponse taskResponse(Long id, String title) {
+        return new TaskResponse(id, title, "description", Status.OPEN,
+                Priority.MEDIUM, 1L, Collections.emptyList());
+    }
 }
@@ -4,7 +4,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
@@ -14,11 +14,13 @@ import ru.effective.tms.model.entity.User;
 import ru.effective.tms.model.entity.security.RoleType;
 import ru.effective.tms.repository.UserRepository;
 import ru.effective.tms.service.impl.UserServiceImpl;
+import ru.effective.tms.service.security.TokenRevocationService;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -33,10 +35,14 @@ public class UserServiceImplTest {
     private UserRepository userRepository;
     @MockitoBean
     private PasswordEncoder passwordEncoder;
+    @MockitoBean
+    private TokenRevocationService tokenRevocationService;
 
     @BeforeEach
     void setUp() {
-        userService = new UserServiceImpl(userRepository, passwordEncoder);
+        userService = new UserServiceImpl(userRepository,
+                passwordEncoder,
+                tokenRevocationService);
     }
 
     @Test
@@ -48,13 +54,15 @@ public class UserServiceImplTest {
         ));
         PageRequest pageRequest = PageRequest.of(0, 10);
 
-        when(userRepository.findAll(pageRequest))
-                .thenReturn(new PageImpl<>(userList));
+        when(userRepository.findAllBy(pageRequest))
+                .thenReturn(new SliceImpl<>(userList));
         List<User> actual = userService.findAll();
 
         assertEquals(userList.size(), actual.size());
         verify(userRepository, times(1))
-                .findAll(pageRequest);
+                .findAllBy(pageRequest);
+        verify(userRepository, times(0))
+                .count();
     }
 
     @Test
@@ -191,6 +199,92 @@ public class UserServiceImplTest {
                 .save(any());
         verify(userRepository, times(1))
                 .findById(any());
+        verify(tokenRevocationService, times(0))
+                .revoke(any());
+    }
+
+    @Test
+    @DisplayName("update test: revoke tokens when user roles changed.")
+    void givenUserWithNewRolesWhenUpdateThenRevokeTokens() {
+        Long userId = 1L;
+        User existedUser = new User(
+                userId,
+                "user",
+                "pass",
+                "email",
+                Collections.singleton(RoleType.ROLE_USER),
+                Collections.emptyList(),
+                Collections.emptySet(),
+                Collections.emptyList()
+        );
+        User userToUpdate = new User();
+        userToUpdate.setRoles(Collections.singleton(RoleType.ROLE_ADMIN));
+
+        when(userRepository.findById(userId)).thenReturn(Optional.of(existedUser));
+        when(userRepository.save(any())).thenAnswer(i -> i.getArgument(0));
+
+        User actual = userService.update(userId, userToUpdate);
+
+        assertEquals(Collections.singleton(RoleType.ROLE_ADMIN), actual.getRoles());
+        verify(tokenRevocationService, times(1))
+                .revoke(userId);
+    }
+
+    @Test
+    @DisplayName("update test: keep stored password when new password is absent.")
+    void givenUserWithoutPasswordWhenUpdateThenPasswordNotEncoded() {
+        Long userId = 1L;
+        User existedUser = new User(
+                userId,
+                "user",
+                "encodedPass",
+                "email",
+                Collections.singleton(RoleType.ROLE_USER),
+                Collections.emptyList(),
+                Collections.emptySet(),
+                Collections.emptyList()
+        );
+        User userToUpdate = new User();
+        userToUpdate.setEmail("newEmail");
+
+        when(userRepository.findById(userId)).thenReturn(Optional.of(existedUser));
+        when(userRepository.save(any())).thenAnswer(i -> i.getArgument(0));
+
+        User actual = userService.update(userId, userToUpdate);
+
+        assertEquals("encodedPass", actual.getPassword());
+        assertEquals("newEmail", actual.getEmail());
+        assertEquals("user", actual.getUsername());
+        verify(passwordEncoder, times(0))
+                .encode(any());
+    }
+
+    @Test
+    @DisplayName("update test: skip save when nothing changed.")
+    void givenUserWithoutChangesWhenUpdateThenNotSaved() {
+        Long userId = 1L;
+        User existedUser = new User(
+                userId,
+                "user",
+                "encodedPass",
+                "email",
+                Collections.singleton(RoleType.ROLE_USER),
+                Collections.emptyList(),
+                Collections.emptySet(),
+                Collections.emptyList()
+        );
+        User userToUpdate = new User();
+        userToUpdate.setUsername("user");
+
+        when(userRepository.findById(userId)).thenReturn(Optional.of(existedUser));
+
+        User actual = userService.update(userId, userToUpdate);
+
+        assertEquals(existedUser, actual);
+        verify(userRepository, times(0))
+                .save(any());
+        verify(passwordEncoder, times(0))
+                .encode(any());
     }
 
     @Test
@@ -236,6 +330,8 @@ public class UserServiceImplTest {
                 .findById(existedUserId);
         verify(userRepository, times(1))
                 .deleteById(existedUserId);
+        verify(tokenRevocationService, times(1))
+                .revoke(existedUserId);
     }
 
     @Test
@@ -252,4 +348,34 @@ public class UserServiceImplTest {
         verify(userRepository, times(0))
                 .deleteById(notExistedUserId);
     }
+
+    @Test
+    @DisplayName("existsAllById test: check all user ids with one query.")
+    void givenExistedUserIdsWhenExistsAllByIdThenSingleQuery() {
+        when(userRepository.findExistingIds(any()))
+                .thenReturn(Set.of(1L, 2L));
+
+        userService.existsAllById(List.of(1L, 2L, 1L));
+
+        verify(userRepository, times(1))
+                .findExistingIds(Set.of(1L, 2L));
+        verify(userRepository, times(0))
+                .existsById(any());
+    }
+
+    @Test
+    @DisplayName("existsAllById test: try to check not existed user ids.")
+    void givenNotExistedUserIdWhenExistsAllByIdThenThrow() {
+        when(userRepository.findExistingIds(any()))
+                .thenReturn(Set.of(1L));
+
+        assertThrows(EntityNotFoundException.class,
+                () -> userService.existsAllById(List.of(1L, 3L)),
+                "userId is incorrect"
+        );
+        assertThrows(EntityNotFoundException.class,
+                () -> userService.existsAllById(Collections.singletonList(null)),
+                "userId is null"
+        );
+    }
 }
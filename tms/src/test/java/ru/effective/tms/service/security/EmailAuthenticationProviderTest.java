@@ -0,0 +1,125 @@
+package ru.effective.tms.service.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import ru.effective.tms.model.entity.User;
+import ru.effective.tms.model.entity.security.AppUserDetails;
+import ru.effective.tms.model.entity.security.EmailPasswordAuthenticationToken;
+import ru.effective.tms.model.entity.security.RoleType;
+import ru.effective.tms.repository.UserRepository;
+import ru.effective.tms.service.impl.security.EmailAuthenticationProvider;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+
+@DisplayName("EmailAuthenticationProviderTest Tests")
+public class EmailAuthenticationProviderTest {
+    private EmailAuthenticationProvider provider;
+    private UserRepository userRepository;
+    private PasswordEncoder passwordEncoder;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = Mockito.mock(UserRepository.class);
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(5);
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(
+                "bcrypt", Map.of("bcrypt", bcrypt)
+        );
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        passwordEncoder = delegating;
+        meterRegistry = new SimpleMeterRegistry();
+        provider = new EmailAuthenticationProvider(
+                userRepository,
+                passwordEncoder,
+                meterRegistry,
+                2,
+                10,
+                Duration.ofSeconds(5)
+        );
+    }
+
+    private User createUser(String encodedPassword) {
+        return new User(
+                1L,
+                "user",
+                encodedPassword,
+                "email",
+                Collections.singleton(RoleType.ROLE_USER),
+                Collections.emptyList(),
+                Collections.emptySet(),
+                Collections.emptyList()
+        );
+    }
+
+    @Test
+    @DisplayName("authenticate test: authenticate user by email with one lookup.")
+    void givenCorrectCredentialsWhenAuthenticateThenAuthenticated() {
+        User user = createUser(passwordEncoder.encode("pass"));
+
+        Mockito.when(userRepository.findByEmail("email"))
+                .thenReturn(Optional.of(user));
+        Authentication actual = provider.authenticate(
+                new EmailPasswordAuthenticationToken("email", "pass"));
+
+        assertTrue(actual.isAuthenticated());
+        assertEquals(1L, ((AppUserDetails) actual.getPrincipal()).getUserId());
+        Mockito.verify(userRepository, Mockito.times(1))
+                .findByEmail(any());
+        Mockito.verify(userRepository, Mockito.times(0))
+                .updatePassword(any(), any());
+        assertEquals(1, meterRegistry.get(EmailAuthenticationProvider.LOGIN_TIMER)
+                .tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    @DisplayName("authenticate test: rehash password with outdated encoding.")
+    void givenLegacyHashWhenAuthenticateThenRehash() {
+        User user = createUser(new BCryptPasswordEncoder(4).encode("pass"));
+
+        Mockito.when(userRepository.findByEmail("email"))
+                .thenReturn(Optional.of(user));
+        provider.authenticate(new EmailPasswordAuthenticationToken("email", "pass"));
+
+        Mockito.verify(userRepository, Mockito.times(1))
+                .updatePassword(eq(1L), anyString());
+        assertTrue(user.getPassword().startsWith("{bcrypt}"));
+    }
+
+    @Test
+    @DisplayName("authenticate test: reject wrong password and unknown email.")
+    void givenBadCredentialsWhenAuthenticateThenThrow() {
+        User user = createUser(passwordEncoder.encode("pass"));
+
+        Mockito.when(userRepository.findByEmail("email"))
+                .thenReturn(Optional.of(user));
+        Mockito.when(userRepository.findByEmail("unknown"))
+                .thenReturn(Optional.empty());
+
+        assertThrows(BadCredentialsException.class,
+                () -> provider.authenticate(
+                        new EmailPasswordAuthenticationToken("email", "wrong")));
+        assertThrows(BadCredentialsException.class,
+                () -> provider.authenticate(
+                        new EmailPasswordAuthenticationToken("unknown", "pass")));
+        assertEquals(2, meterRegistry.get(EmailAuthenticationProvider.LOGIN_TIMER)
+                .tag("outcome", "failure").timer().count());
+    }
+}
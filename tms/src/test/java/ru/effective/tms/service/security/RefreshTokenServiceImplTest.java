@@ -3,34 +3,51 @@ package ru.effective.tms.service.security;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.mockito.Mockito;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import ru.effective.tms.exception.security.RefreshTokenException;
 import ru.effective.tms.model.entity.security.RefreshToken;
-import ru.effective.tms.repository.RefreshTokenRepository;
+import ru.effective.tms.repository.RefreshTokenStore;
+import ru.effective.tms.service.impl.security.RefreshTokenPresenceCache;
 import ru.effective.tms.service.impl.security.RefreshTokenServiceImpl;
 
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 
 @SpringBootTest
 @DisplayName("RefreshTokenServiceImplTest Tests")
 public class RefreshTokenServiceImplTest {
     private RefreshTokenServiceImpl refreshTokenService;
     @MockitoBean
-    private RefreshTokenRepository refreshTokenRepository;
+    private RefreshTokenStore refreshTokenStore;
+    @MockitoBean
+    private StringRedisTemplate redisTemplate;
     private final Duration refreshTokenExpiry = Duration.ofMinutes(30);
 
     @BeforeEach
     void setUp() {
+        RefreshTokenPresenceCache presenceCache = new RefreshTokenPresenceCache(
+                redisTemplate,
+                new SimpleMeterRegistry(),
+                100,
+                Duration.ofMinutes(1)
+        );
         refreshTokenService =
-                new RefreshTokenServiceImpl(refreshTokenRepository);
+                new RefreshTokenServiceImpl(refreshTokenStore, presenceCache);
         refreshTokenService.setRefreshTokenExpiry(refreshTokenExpiry);
     }
 
@@ -40,17 +57,17 @@ public class RefreshTokenServiceImplTest {
     void givenExistingStringTokenWhenFindByRefreshTokenThenRefreshToken() {
         String token = "token";
         Optional<RefreshToken> optionalRefreshToken = Optional.of(
-                new RefreshToken(1L, 1L, "token", Instant.now())
+                new RefreshToken(1L, 1L, "user", "token", Instant.now())
         );
 
-        Mockito.when(refreshTokenRepository.findByToken(token))
+        Mockito.when(refreshTokenStore.findByToken(token))
                 .thenReturn(optionalRefreshToken);
 
         Optional<RefreshToken> actual =
                 refreshTokenService.findByRefreshToken(token);
 
         assertEquals(optionalRefreshToken, actual);
-        Mockito.verify(refreshTokenRepository, Mockito.times(1))
+        Mockito.verify(refreshTokenStore, Mockito.times(1))
                 .findByToken(any());
     }
 
@@ -59,16 +76,16 @@ public class RefreshTokenServiceImplTest {
     void givenUserIdWhenCreateRefreshTokenThenRefreshToken() {
         Long userId = 1L;
         RefreshToken refreshToken = new RefreshToken(
-                null, 1L, "token", Instant.now()
+                null, 1L, "user", "token", Instant.now()
         );
 
-        Mockito.when(refreshTokenRepository.save(any(RefreshToken.class)))
+        Mockito.when(refreshTokenStore.save(any(RefreshToken.class)))
                 .thenReturn(refreshToken);
         Long actual =
-                refreshTokenService.createRefreshToken(userId).getUserId();
+                refreshTokenService.createRefreshToken(userId, "user").getUserId();
 
         assertEquals(userId, actual);
-        Mockito.verify(refreshTokenRepository, Mockito.times(1))
+        Mockito.verify(refreshTokenStore, Mockito.times(1))
                 .save(any(RefreshToken.class));
     }
 
@@ -76,14 +93,14 @@ public class RefreshTokenServiceImplTest {
     @DisplayName("checkRefreshToken test: check RefreshToken expiry.")
     void givenCorrectRefreshTokenWhenCheckRefreshTokenThenRefreshToken() {
         RefreshToken refreshToken = new RefreshToken(
-                1L, 1L, "token", Instant.now()
+                1L, 1L, "user", "token", Instant.now()
         );
 
         RefreshToken actual =
                 refreshTokenService.checkRefreshToken(refreshToken);
 
         assertEquals(refreshToken, actual);
-        Mockito.verify(refreshTokenRepository, Mockito.times(0))
+        Mockito.verify(refreshTokenStore, Mockito.times(0))
                 .delete(refreshToken);
     }
 
@@ -91,14 +108,92 @@ public class RefreshTokenServiceImplTest {
     @DisplayName("checkRefreshToken: check incorrect RefreshToken expiry.")
     void givenIncorrectRefreshTokenWhenCheckRefreshTokenThenRefreshToken() {
         RefreshToken refreshToken = new RefreshToken(
-                1L, 1L, "token", Instant.MIN
+                1L, 1L, "user", "token", Instant.MIN
         );
 
         assertThrows(RefreshTokenException.class,
                 () -> refreshTokenService.checkRefreshToken(refreshToken),
                 " refreshToken is incorrect."
         );
-        Mockito.verify(refreshTokenRepository, Mockito.times(1))
+        Mockito.verify(refreshTokenStore, Mockito.times(1))
                 .delete(refreshToken);
     }
+
+    @Test
+    @DisplayName("checkByUserId test: parallel checks share one repository call.")
+    void givenParallelChecksWhenCheckByUserIdThenSingleRepositoryCall() {
+        Long userId = 1L;
+
+        Mockito.when(refreshTokenStore.existsByUserId(userId))
+                .thenReturn(true);
+        CompletableFuture<?>[] checks = IntStream.range(0, 16)
+                .mapToObj(i -> CompletableFuture.supplyAsync(
+                        () -> refreshTokenService.checkByUserId(userId)))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(checks).join();
+
+        assertTrue(refreshTokenService.checkByUserId(userId));
+        Mockito.verify(refreshTokenStore, Mockito.times(1))
+                .existsByUserId(userId);
+    }
+
+    @Test
+    @DisplayName("deleteByUserId test: invalidate cached check and publish it.")
+    void givenCachedCheckWhenDeleteByUserIdThenInvalidate() {
+        Long userId = 1L;
+
+        Mockito.when(refreshTokenStore.existsByUserId(userId))
+                .thenReturn(true);
+        assertTrue(refreshTokenService.checkByUserId(userId));
+        refreshTokenService.deleteByUserId(userId);
+        Mockito.verify(refreshTokenStore, Mockito.times(1))
+                .deleteAllByUserId(userId);
+        Mockito.when(refreshTokenStore.existsByUserId(userId))
+                .thenReturn(false);
+
+        assertFalse(refreshTokenService.checkByUserId(userId));
+        Mockito.verify(refreshTokenStore, Mockito.times(2))
+                .existsByUserId(userId);
+        Mockito.verify(redisTemplate, Mockito.times(1))
+                .convertAndSend(RefreshTokenPresenceCache.INVALIDATION_CHANNEL, "1");
+    }
+
+    @Test
+    @DisplayName("rotateRefreshToken test: consume old token and return new one.")
+    void givenLiveTokenWhenRotateRefreshTokenThenNewToken() {
+        RefreshToken consumed = new RefreshToken(
+                1L, 1L, "user", "oldToken", Instant.now().plusSeconds(60)
+        );
+
+        Mockito.when(refreshTokenStore.rotate(eq("oldToken"), any(), any()))
+                .thenAnswer(invocation -> {
+                    RefreshToken newToken = invocation.getArgument(1);
+                    newToken.setUserId(consumed.getUserId());
+                    newToken.setUsername(consumed.getUsername());
+                    return Optional.of(consumed);
+                });
+        RefreshToken actual = refreshTokenService.rotateRefreshToken("oldToken");
+
+        assertEquals(1L, actual.getUserId());
+        assertEquals("user", actual.getUsername());
+        assertNotEquals("oldToken", actual.getToken());
+    }
+
+    @Test
+    @DisplayName("rotateRefreshToken test: throw for used or expired token.")
+    void givenMissingOrExpiredTokenWhenRotateRefreshTokenThenThrow() {
+        RefreshToken expired = new RefreshToken(
+                1L, 1L, "user", "expiredToken", Instant.MIN
+        );
+
+        Mockito.when(refreshTokenStore.rotate(eq("usedToken"), any(), any()))
+                .thenReturn(Optional.empty());
+        Mockito.when(refreshTokenStore.rotate(eq("expiredToken"), any(), any()))
+                .thenReturn(Optional.of(expired));
+
+        assertThrows(RefreshTokenException.class,
+                () -> refreshTokenService.rotateRefreshToken("usedToken"));
+        assertThrows(RefreshTokenException.class,
+                () -> refreshTokenService.rotateRefreshToken("expiredToken"));
+    }
 }
@@ -0,0 +1,130 @@
+package ru.effective.tms.service.security;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisKeyValueAdapter;
+import org.springframework.data.redis.core.RedisKeyValueTemplate;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.mapping.RedisMappingContext;
+import org.springframework.data.redis.repository.support.RedisRepositoryFactory;
+import redis.embedded.RedisServer;
+import ru.effective.tms.model.entity.security.RefreshToken;
+import ru.effective.tms.repository.RefreshTokenRepository;
+import ru.effective.tms.repository.impl.CompactRefreshTokenStore;
+import ru.effective.tms.repository.impl.IndexedRefreshTokenStore;
+import ru.effective.tms.service.impl.security.RefreshTokenStoreMigration;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link RefreshTokenStoreMigration} on embedded Redis.
+ */
+@DisplayName("RefreshTokenStoreMigrationTest Tests")
+public class RefreshTokenStoreMigrationTest {
+    private static RedisServer redisServer;
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+    private static RefreshTokenRepository refreshTokenRepository;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = new RedisServer(port);
+        redisServer.start();
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration("localhost", port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+        RedisTemplate<byte[], byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.afterPropertiesSet();
+        RedisMappingContext mappingContext = new RedisMappingContext();
+        refreshTokenRepository = new RedisRepositoryFactory(new RedisKeyValueTemplate(
+                new RedisKeyValueAdapter(template, mappingContext), mappingContext)
+        ).getRepository(RefreshTokenRepository.class);
+    }
+
+    @AfterAll
+    static void tearDown() throws IOException {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void flush() {
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        });
+    }
+
+    @Test
+    @DisplayName("run test: live tokens are moved, expired and missing are dropped.")
+    void givenLegacyTokensWhenRunThenLiveMoved() {
+        CompactRefreshTokenStore compactStore = new CompactRefreshTokenStore(redisTemplate);
+        refreshTokenRepository.save(token(1L, "live", Instant.now().plusSeconds(600)));
+        refreshTokenRepository.save(token(2L, "expired", Instant.now().minusSeconds(60)));
+        redisTemplate.opsForSet().add(IndexedRefreshTokenStore.KEYSPACE, "3");
+
+        new RefreshTokenStoreMigration(refreshTokenRepository, compactStore,
+                redisTemplate, true, 1).run(null);
+
+        assertTrue(compactStore.findByToken("live").isPresent());
+        assertTrue(compactStore.findByToken("expired").isEmpty());
+        assertEquals(0, refreshTokenRepository.count());
+        assertTrue(redisTemplate.keys(IndexedRefreshTokenStore.KEYSPACE + ":*").isEmpty());
+    }
+
+    @Test
+    @DisplayName("run test: token written during migration is not lost.")
+    void givenTokenWrittenDuringMigrationWhenRunThenKept() {
+        AtomicBoolean written = new AtomicBoolean();
+        CompactRefreshTokenStore compactStore = new CompactRefreshTokenStore(redisTemplate) {
+            @Override
+            public RefreshToken save(RefreshToken refreshToken) {
+                if (written.compareAndSet(false, true)) {
+                    refreshTokenRepository.save(
+                            token(2L, "written", Instant.now().plusSeconds(600)));
+                }
+                return super.save(refreshToken);
+            }
+        };
+        refreshTokenRepository.save(token(1L, "live", Instant.now().plusSeconds(600)));
+
+        new RefreshTokenStoreMigration(refreshTokenRepository, compactStore,
+                redisTemplate, true, 100).run(null);
+
+        assertTrue(compactStore.findByToken("live").isPresent());
+        assertTrue(compactStore.findByToken("written").isPresent()
+                || refreshTokenRepository.findByToken("written").isPresent());
+        assertFalse(refreshTokenRepository.existsById(1L));
+    }
+
+    private static RefreshToken token(Long id, String token, Instant expiryDate) {
+        return RefreshToken.builder()
+                .id(id)
+                .userId(7L)
+                .username("user")
+                .token(token)
+                .expiryDate(expiryDate)
+                .build();
+    }
+}
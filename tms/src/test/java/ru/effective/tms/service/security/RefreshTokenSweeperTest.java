@@ -0,0 +1,72 @@
+package ru.effective.tms.service.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.effective.tms.repository.RefreshTokenStore;
+import ru.effective.tms.service.impl.security.RefreshTokenSweeper;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+
+@DisplayName("RefreshTokenSweeperTest Tests")
+public class RefreshTokenSweeperTest {
+    private RefreshTokenSweeper sweeper;
+    private RefreshTokenStore refreshTokenStore;
+    private ValueOperations<String, String> valueOperations;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        refreshTokenStore = Mockito.mock(RefreshTokenStore.class);
+        StringRedisTemplate redisTemplate = Mockito.mock(StringRedisTemplate.class);
+        valueOperations = Mockito.mock(ValueOperations.class);
+        Mockito.when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        meterRegistry = new SimpleMeterRegistry();
+        sweeper = new RefreshTokenSweeper(refreshTokenStore, redisTemplate, meterRegistry);
+        ReflectionTestUtils.setField(sweeper, "batchSize", 100);
+        ReflectionTestUtils.setField(sweeper, "maxKeysPerRun", 1000L);
+        ReflectionTestUtils.setField(sweeper, "batchPause", Duration.ZERO);
+        ReflectionTestUtils.setField(sweeper, "lockTtl", Duration.ofMinutes(1));
+    }
+
+    @Test
+    @DisplayName("sweep test: sweep store and count reclaimed keys.")
+    void givenFreeLockWhenSweepThenReclaimedCounted() {
+        Mockito.when(valueOperations.setIfAbsent(
+                eq(RefreshTokenSweeper.LOCK_KEY), anyString(), any(Duration.class)))
+                .thenReturn(true);
+        Mockito.when(refreshTokenStore.sweep(100, 1000L, Duration.ZERO))
+                .thenReturn(7L);
+
+        sweeper.sweep();
+
+        assertEquals(7.0, meterRegistry
+                .counter(RefreshTokenSweeper.RECLAIMED_METRIC).count());
+    }
+
+    @Test
+    @DisplayName("sweep test: skip sweep when another node holds lock.")
+    void givenBusyLockWhenSweepThenSkip() {
+        Mockito.when(valueOperations.setIfAbsent(
+                eq(RefreshTokenSweeper.LOCK_KEY), anyString(), any(Duration.class)))
+                .thenReturn(false);
+
+        sweeper.sweep();
+
+        Mockito.verify(refreshTokenStore, Mockito.times(0))
+                .sweep(anyInt(), anyLong(), any());
+    }
+}
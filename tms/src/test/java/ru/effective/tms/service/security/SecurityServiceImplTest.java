@@ -9,6 +9,7 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
 import ru.effective.tms.exception.security.RefreshTokenException;
 import ru.effective.tms.jwt.JwtUtils;
 import ru.effective.tms.model.dto.security.AuthResponse;
@@ -17,17 +18,20 @@ import ru.effective.tms.model.dto.security.RefreshTokenRequest;
 import ru.effective.tms.model.dto.security.RefreshTokenResponse;
 import ru.effective.tms.model.entity.User;
 import ru.effective.tms.model.entity.security.AppUserDetails;
+import ru.effective.tms.model.entity.security.EmailPasswordAuthenticationToken;
 import ru.effective.tms.model.entity.security.RefreshToken;
 import ru.effective.tms.model.entity.security.RoleType;
 import ru.effective.tms.service.UserService;
 import ru.effective.tms.service.impl.security.RefreshTokenServiceImpl;
 import ru.effective.tms.service.impl.security.SecurityServiceImpl;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Collections;
-import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -44,13 +48,16 @@ public class SecurityServiceImplTest {
     private JwtUtils jwtUtils;
     @MockitoBean
     private RefreshTokenServiceImpl refreshTokenService;
+    @MockitoBean
+    private TokenRevocationService tokenRevocationService;
 
     @BeforeEach
     void setUp() {
         securityService = new SecurityServiceImpl(userService,
                 refreshTokenService,
                 authenticationManager,
-                jwtUtils);
+                jwtUtils,
+                tokenRevocationService);
     }
 
     @Test
@@ -70,12 +77,12 @@ public class SecurityServiceImplTest {
         );
         AppUserDetails principal = new AppUserDetails(defaultUser);
         LoginRequest loginRequest = new LoginRequest(
-                "username",
+                "email",
                 "pass"
         );
-        UsernamePasswordAuthenticationToken expectedToken =
-                new UsernamePasswordAuthenticationToken(
-                        "username",
+        EmailPasswordAuthenticationToken expectedToken =
+                new EmailPasswordAuthenticationToken(
+                        "email",
                         loginRequest.getPassword()
                 );
         Authentication auth =
@@ -83,7 +90,7 @@ public class SecurityServiceImplTest {
                         principal, "password", principal.getAuthorities()
                 );
         RefreshToken refreshToken = new RefreshToken(
-                1L, userPrincipalId, "token", Instant.now()
+                1L, userPrincipalId, "username", "token", Instant.now()
         );
         String jwtToken = "jwtToken";
         AuthResponse expected = AuthResponse.builder()
@@ -95,23 +102,23 @@ public class SecurityServiceImplTest {
                 .build();
 
 
-        when(refreshTokenService.createRefreshToken(principal.getUserId()))
+        when(refreshTokenService.createRefreshToken(
+                principal.getUserId(), principal.getUsername()))
                 .thenReturn(refreshToken);
         when(jwtUtils.generateJwtToken(principal))
                 .thenReturn(jwtToken);
         //getAuthenticationFromLoginRequest()
         when(authenticationManager.authenticate(expectedToken))
                 .thenReturn(auth);
-        //getAuthenticationFromLoginRequest()
-        when(userService.findByEmail(anyString()))
-                .thenReturn(defaultUser);
         AuthResponse actual = securityService.authenticationUser(loginRequest);
 
         assertEquals(expected, actual);
         verify(authenticationManager, times(1))
                 .authenticate(any());
+        verify(userService, times(0))
+                .findByEmail(any());
         verify(refreshTokenService, times(1))
-                .createRefreshToken(any());
+                .createRefreshToken(any(), any());
         verify(jwtUtils, times(1))
                 .generateJwtToken(any());
     }
@@ -139,17 +146,46 @@ public class SecurityServiceImplTest {
     }
 
     @Test
-    @DisplayName("refreshToken test: update correct refreshToken.")
+    @DisplayName("refreshToken test: username from refreshToken, user is not loaded.")
     void givenRefreshTokenRequestWhenRefreshTokenThenRefreshTokenResponse() {
-        Long userId = 1L;
         RefreshTokenRequest refreshTokenRequest = new RefreshTokenRequest(
                 "refreshTokenRequest"
         );
-        RefreshToken oldRefreshToken = new RefreshToken(
-                1L, userId, "oldRefreshToken", Instant.now()
+        RefreshToken updatedRefreshToken = new RefreshToken(
+                2L, 1L, "user", "updatedRefreshToken", Instant.now()
+        );
+        String jwtToken = "jwtToken";
+
+        when(refreshTokenService.rotateRefreshToken("refreshTokenRequest"))
+                .thenReturn(updatedRefreshToken);
+        when(jwtUtils.generateTokenFromUsername("user"))
+                .thenReturn(jwtToken);
+
+        RefreshTokenResponse expected = new RefreshTokenResponse(
+                "updatedRefreshToken",
+                jwtToken
+        );
+        RefreshTokenResponse actual =
+                securityService.refreshToken(refreshTokenRequest);
+
+        assertEquals(expected, actual);
+        verify(refreshTokenService, times(1))
+                .rotateRefreshToken(any());
+        verify(userService, times(0))
+                .findById(any());
+        verify(jwtUtils, times(1))
+                .generateTokenFromUsername("user");
+    }
+
+    @Test
+    @DisplayName("refreshToken test: user is loaded in stateless principal mode.")
+    void givenStatelessPrincipalRefreshTokenRequestWhenRefreshTokenThenUserLoaded() {
+        Long userId = 1L;
+        RefreshTokenRequest refreshTokenRequest = new RefreshTokenRequest(
+                "refreshTokenRequest"
         );
         RefreshToken updatedRefreshToken = new RefreshToken(
-                2L, userId, "updatedRefreshToken", Instant.now()
+                2L, userId, "user", "updatedRefreshToken", Instant.now()
         );
         User user = new User(
                 userId,
@@ -163,35 +199,76 @@ public class SecurityServiceImplTest {
         );
         String jwtToken = "jwtToken";
 
-        when(refreshTokenService.findByRefreshToken("refreshTokenRequest"))
-                .thenReturn(Optional.of(oldRefreshToken));
-        when(refreshTokenService.checkRefreshToken(oldRefreshToken))
-                .thenReturn(oldRefreshToken);
+        when(jwtUtils.isStatelessPrincipal()).thenReturn(true);
+        when(refreshTokenService.rotateRefreshToken("refreshTokenRequest"))
+                .thenReturn(updatedRefreshToken);
         when(userService.findById(userId))
                 .thenReturn(user);
-        when(jwtUtils.generateTokenFromUsername("user"))
+        when(jwtUtils.generateTokenFromUsername("user", userId, user.getRoles()))
                 .thenReturn(jwtToken);
-        when(refreshTokenService.createRefreshToken(userId))
-                .thenReturn(updatedRefreshToken);
 
         RefreshTokenResponse expected = new RefreshTokenResponse(
-                jwtToken,
-                "updatedRefreshToken"
+                "updatedRefreshToken",
+                jwtToken
         );
         RefreshTokenResponse actual =
                 securityService.refreshToken(refreshTokenRequest);
 
         assertEquals(expected, actual);
         verify(refreshTokenService, times(1))
-                .findByRefreshToken(any());
-        verify(refreshTokenService, times(1))
-                .checkRefreshToken(any());
+                .rotateRefreshToken(any());
         verify(userService, times(1))
-                .findById(any());
+                .findById(userId);
         verify(jwtUtils, times(1))
-                .generateTokenFromUsername(any());
-        verify(refreshTokenService, times(1))
-                .createRefreshToken(any());
+                .generateTokenFromUsername(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("refreshToken test: stateless principal claims survive refresh.")
+    void givenStatelessPrincipalWhenRefreshTokenThenClaimsInNewToken() {
+        Long userId = 1L;
+        User user = new User(
+                userId,
+                "user",
+                "pass",
+                "email",
+                Set.of(RoleType.ROLE_USER, RoleType.ROLE_ADMIN),
+                Collections.emptyList(),
+                Collections.emptySet(),
+                Collections.emptyList()
+        );
+        JwtUtils statelessJwtUtils = new JwtUtils(null, null);
+        ReflectionTestUtils.setField(statelessJwtUtils, "jwtSecret",
+                "635266556A586E32743777217A25432A462D4A614E72357538782F413F442847");
+        ReflectionTestUtils.setField(statelessJwtUtils, "tokenExpiration",
+                Duration.ofMinutes(30));
+        ReflectionTestUtils.setField(statelessJwtUtils, "statelessPrincipal", true);
+        statelessJwtUtils.init();
+        SecurityServiceImpl statelessSecurityService = new SecurityServiceImpl(
+                userService,
+                refreshTokenService,
+                authenticationManager,
+                statelessJwtUtils,
+                tokenRevocationService);
+
+        when(refreshTokenService.rotateRefreshToken("refreshTokenRequest"))
+                .thenReturn(new RefreshToken(
+                        2L, userId, "user", "updatedRefreshToken", Instant.now()
+                ));
+        when(userService.findById(userId))
+                .thenReturn(user);
+
+        String accessToken = statelessSecurityService.refreshToken(
+                new RefreshTokenRequest("refreshTokenRequest")
+        ).getAccessToken();
+        AppUserDetails actual = statelessJwtUtils.getUserDetailsFromClaims(
+                statelessJwtUtils.parse(accessToken).claims()
+        );
+
+        assertNotNull(actual);
+        assertEquals(userId, actual.getUserId());
+        assertEquals("user", actual.getUsername());
+        assertEquals(user.getRoles(), actual.getRoles());
     }
 
     @Test
@@ -201,23 +278,20 @@ public class SecurityServiceImplTest {
                 "refreshTokenRequest"
         );
 
-        when(refreshTokenService.findByRefreshToken("refreshTokenRequest"))
-                .thenReturn(Optional.empty());
+        when(refreshTokenService.rotateRefreshToken("refreshTokenRequest"))
+                .thenThrow(new RefreshTokenException("refreshTokenRequest",
+                        "refresh token not found"));
 
         assertThrows(RefreshTokenException.class,
                 () -> securityService.refreshToken(refreshTokenRequest),
                 "refreshToken not found."
         );
         verify(refreshTokenService, times(1))
-                .findByRefreshToken(any());
-        verify(refreshTokenService, times(0))
-                .checkRefreshToken(any());
+                .rotateRefreshToken(any());
         verify(userService, times(0))
                 .findById(any());
         verify(jwtUtils, times(0))
-                .generateTokenFromUsername(any());
-        verify(refreshTokenService, times(0))
-                .createRefreshToken(any());
+                .generateTokenFromUsername(any(), any(), any());
     }
 
     @Test
@@ -245,5 +319,7 @@ public class SecurityServiceImplTest {
 
         verify(refreshTokenService, times(1))
                 .deleteByUserId(userPrincipalId);
+        verify(tokenRevocationService, times(1))
+                .revoke(userPrincipalId);
     }
 }